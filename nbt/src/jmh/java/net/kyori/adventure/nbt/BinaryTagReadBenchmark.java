@@ -0,0 +1,151 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading a compound shaped like the chunk data stored in region files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryTagReadBenchmark {
+  private byte[] chunk;
+
+  @Setup
+  public void setup() throws IOException {
+    this.chunk = BinaryTagIO.writeByteBuffer(chunk(new Random(42))).array();
+  }
+
+  @Benchmark
+  public CompoundBinaryTag readDataInput() throws IOException {
+    return BinaryTagIO.readDataInput(new DataInputStream(new ByteArrayInputStream(this.chunk)));
+  }
+
+  @Benchmark
+  public CompoundBinaryTag readByteBuffer() throws IOException {
+    return BinaryTagIO.readByteBuffer(ByteBuffer.wrap(this.chunk));
+  }
+
+  static CompoundBinaryTag chunk(final Random random) {
+    final ListBinaryTag.Builder<CompoundBinaryTag> sections = ListBinaryTag.builder(BinaryTagTypes.COMPOUND);
+    for(int y = 0; y < 16; y++) {
+      final ListBinaryTag.Builder<CompoundBinaryTag> palette = ListBinaryTag.builder(BinaryTagTypes.COMPOUND);
+      for(int i = 0; i < 24; i++) {
+        palette.add(CompoundBinaryTag.builder()
+          .putString("Name", "minecraft:block_" + random.nextInt(600))
+          .put("Properties", CompoundBinaryTag.builder()
+            .putString("facing", "north")
+            .putString("waterlogged", "false")
+            .build())
+          .build());
+      }
+      sections.add(CompoundBinaryTag.builder()
+        .putByte("Y", (byte) y)
+        .put("Palette", palette.build())
+        .putLongArray("BlockStates", longs(random, 320))
+        .putByteArray("BlockLight", bytes(random, 2048))
+        .putByteArray("SkyLight", bytes(random, 2048))
+        .build());
+    }
+    final ListBinaryTag.Builder<CompoundBinaryTag> entities = ListBinaryTag.builder(BinaryTagTypes.COMPOUND);
+    for(int i = 0; i < 8; i++) {
+      entities.add(CompoundBinaryTag.builder()
+        .putString("id", "minecraft:zombie")
+        .put("Pos", doubles(random, 3))
+        .put("Motion", doubles(random, 3))
+        .put("Rotation", ListBinaryTag.builder(BinaryTagTypes.FLOAT).add(FloatBinaryTag.of(random.nextFloat())).add(FloatBinaryTag.of(random.nextFloat())).build())
+        .putShort("Fire", (short) -1)
+        .putFloat("Health", 20f)
+        .putBoolean("OnGround", true)
+        .build());
+    }
+    return CompoundBinaryTag.builder()
+      .putInt("DataVersion", 2230)
+      .put("Level", CompoundBinaryTag.builder()
+        .putInt("xPos", random.nextInt())
+        .putInt("zPos", random.nextInt())
+        .putLong("LastUpdate", random.nextLong())
+        .putLong("InhabitedTime", random.nextLong())
+        .putString("Status", "full")
+        .putIntArray("Biomes", ints(random, 1024))
+        .put("Heightmaps", CompoundBinaryTag.builder()
+          .putLongArray("MOTION_BLOCKING", longs(random, 36))
+          .putLongArray("WORLD_SURFACE", longs(random, 36))
+          .build())
+        .put("Sections", sections.build())
+        .put("Entities", entities.build())
+        .build())
+      .build();
+  }
+
+  private static byte[] bytes(final Random random, final int length) {
+    final byte[] value = new byte[length];
+    random.nextBytes(value);
+    return value;
+  }
+
+  private static int[] ints(final Random random, final int length) {
+    final int[] value = new int[length];
+    for(int i = 0; i < length; i++) {
+      value[i] = random.nextInt(64);
+    }
+    return value;
+  }
+
+  private static long[] longs(final Random random, final int length) {
+    final long[] value = new long[length];
+    for(int i = 0; i < length; i++) {
+      value[i] = random.nextLong();
+    }
+    return value;
+  }
+
+  private static ListBinaryTag doubles(final Random random, final int length) {
+    final ListBinaryTag.Builder<DoubleBinaryTag> list = ListBinaryTag.builder(BinaryTagTypes.DOUBLE);
+    for(int i = 0; i < length; i++) {
+      list.add(DoubleBinaryTag.of(random.nextDouble()));
+    }
+    return list.build();
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads and writes compound tags without blocking the calling thread.
+ *
+ * <p>Files are read and written through an {@link AsynchronousFileChannel}, while tags are encoded, decoded and
+ * (de)compressed on an executor. When no executor is given, the {@link ForkJoinPool#commonPool() common pool}
+ * is used.</p>
+ *
+ * <p>Writes go to a temporary file next to the target, which is then moved over the target, atomically where
+ * the file system supports it. A failed or interrupted write never leaves a partially written target behind.
+ * A replaced file keeps its POSIX permissions, while a new file is created with the permissions of a temporary file,
+ * only readable and writable by its owner.</p>
+ */
+public final class AsyncBinaryTagIO {
+  private AsyncBinaryTagIO() {
+  }
+
+  /**
+   * Reads a compound tag from {@code path}.
+   *
+   * @param path the path
+   * @return a future completed with the compound tag
+   */
+  public static @NonNull CompletableFuture<CompoundBinaryTag> readPath(final @NonNull Path path) {
+    return readCompressedPath(path, Compression.none(), ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Reads a compound tag from {@code path}, decoding it on {@code executor}.
+   *
+   * @param path the path
+   * @param executor the executor
+   * @return a future completed with the compound tag
+   */
+  public static @NonNull CompletableFuture<CompoundBinaryTag> readPath(final @NonNull Path path, final @NonNull Executor executor) {
+    return readCompressedPath(path, Compression.none(), executor);
+  }
+
+  /**
+   * Reads a compound tag from {@code path} using {@code compression}.
+   *
+   * @param path the path
+   * @param compression the compression
+   * @return a future completed with the compound tag
+   */
+  public static @NonNull CompletableFuture<CompoundBinaryTag> readCompressedPath(final @NonNull Path path, final @NonNull Compression compression) {
+    return readCompressedPath(path, compression, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Reads a compound tag from {@code path} using {@code compression}, decoding it on {@code executor}.
+   *
+   * @param path the path
+   * @param compression the compression
+   * @param executor the executor
+   * @return a future completed with the compound tag
+   */
+  public static @NonNull CompletableFuture<CompoundBinaryTag> readCompressedPath(final @NonNull Path path, final @NonNull Compression compression, final @NonNull Executor executor) {
+    requireNonNull(compression, "compression");
+    return read(requireNonNull(path, "path"), requireNonNull(executor, "executor")).thenApplyAsync(buffer -> {
+      try {
+        if(compression.equals(Compression.none())) return BinaryTagIO.readByteBuffer(buffer);
+        return BinaryTagIO.readCompressedInputStream(new ByteArrayInputStream(buffer.array(), 0, buffer.limit()), compression);
+      } catch(final IOException e) {
+        throw new CompletionException(e);
+      }
+    }, executor);
+  }
+
+  /**
+   * Writes a compound tag to {@code path}.
+   *
+   * @param tag the compound tag
+   * @param path the path
+   * @return a future completed once the tag has been written
+   */
+  public static @NonNull CompletableFuture<Void> writePath(final @NonNull CompoundBinaryTag tag, final @NonNull Path path) {
+    return writeCompressedPath(tag, path, Compression.none(), ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Writes a compound tag to {@code path}, encoding it on {@code executor}.
+   *
+   * @param tag the compound tag
+   * @param path the path
+   * @param executor the executor
+   * @return a future completed once the tag has been written
+   */
+  public static @NonNull CompletableFuture<Void> writePath(final @NonNull CompoundBinaryTag tag, final @NonNull Path path, final @NonNull Executor executor) {
+    return writeCompressedPath(tag, path, Compression.none(), executor);
+  }
+
+  /**
+   * Writes a compound tag to {@code path} using {@code compression}.
+   *
+   * @param tag the compound tag
+   * @param path the path
+   * @param compression the compression
+   * @return a future completed once the tag has been written
+   */
+  public static @NonNull CompletableFuture<Void> writeCompressedPath(final @NonNull CompoundBinaryTag tag, final @NonNull Path path, final @NonNull Compression compression) {
+    return writeCompressedPath(tag, path, compression, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Writes a compound tag to {@code path} using {@code compression}, encoding it on {@code executor}.
+   *
+   * @param tag the compound tag
+   * @param path the path
+   * @param compression the compression
+   * @param executor the executor
+   * @return a future completed once the tag has been written
+   */
+  public static @NonNull CompletableFuture<Void> writeCompressedPath(final @NonNull CompoundBinaryTag tag, final @NonNull Path path, final @NonNull Compression compression, final @NonNull Executor executor) {
+    requireNonNull(tag, "tag");
+    requireNonNull(path, "path");
+    requireNonNull(compression, "compression");
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        if(compression.equals(Compression.none())) return BinaryTagIO.writeByteBuffer(tag);
+        final Bytes bytes = new Bytes();
+        BinaryTagIO.writeCompressedOutputStream(tag, bytes, compression);
+        return bytes.buffer();
+      } catch(final IOException e) {
+        throw new CompletionException(e);
+      }
+    }, requireNonNull(executor, "executor")).thenCompose(buffer -> write(path, buffer, executor));
+  }
+
+  private static CompletableFuture<ByteBuffer> read(final Path path, final Executor executor) {
+    final CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+    executor.execute(() -> {
+      try {
+        final AsynchronousFileChannel channel = open(path, executor, StandardOpenOption.READ);
+        try {
+          final long size = channel.size();
+          if(size > Integer.MAX_VALUE) {
+            throw new IOException(String.format("Cannot read %s, it is larger than %d bytes", path, Integer.MAX_VALUE));
+          }
+          final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+          channel.read(buffer, 0, buffer, new Transfer(channel, false) {
+            @Override
+            void done(final ByteBuffer buffer) throws IOException {
+              this.channel.close();
+              buffer.flip();
+              future.complete(buffer);
+            }
+
+            @Override
+            public void failed(final Throwable exception, final ByteBuffer buffer) {
+              closeSuppressed(this.channel, exception);
+              future.completeExceptionally(exception);
+            }
+          });
+        } catch(final IOException | RuntimeException e) {
+          closeSuppressed(channel, e);
+          throw e;
+        }
+      } catch(final IOException | RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+    });
+    return future;
+  }
+
+  private static CompletableFuture<Void> write(final Path path, final ByteBuffer buffer, final Executor executor) {
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+    executor.execute(() -> { // creating and opening files blocks
+      final Path temporary;
+      final AsynchronousFileChannel channel;
+      try {
+        final Path target = path.toAbsolutePath();
+        temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+          copyPermissions(target, temporary);
+          channel = open(temporary, executor, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch(final IOException | RuntimeException e) {
+          deleteSuppressed(temporary, e);
+          throw e;
+        }
+      } catch(final IOException | RuntimeException e) {
+        future.completeExceptionally(e);
+        return;
+      }
+      write(path, buffer, temporary, channel, future);
+    });
+    return future;
+  }
+
+  private static void write(final Path path, final ByteBuffer buffer, final Path temporary, final AsynchronousFileChannel channel, final CompletableFuture<Void> future) {
+    channel.write(buffer, 0, buffer, new Transfer(channel, true) {
+      @Override
+      void done(final ByteBuffer buffer) throws IOException {
+        this.channel.force(true);
+        this.channel.close();
+        try {
+          Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(final AtomicMoveNotSupportedException e) {
+          Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        future.complete(null);
+      }
+
+      @Override
+      public void failed(final Throwable exception, final ByteBuffer buffer) {
+        closeSuppressed(this.channel, exception);
+        deleteSuppressed(temporary, exception);
+        future.completeExceptionally(exception);
+      }
+    });
+  }
+
+  /**
+   * Gives a temporary file the permissions of the file it will replace, as temporary files are only accessible
+   * by their owner.
+   *
+   * @param target the file being replaced
+   * @param temporary the temporary file
+   * @throws IOException if an exception was encountered while copying the permissions
+   */
+  private static void copyPermissions(final Path target, final Path temporary) throws IOException {
+    final /* @Nullable */ PosixFileAttributeView view = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+    if(view == null) return; // not a POSIX file system
+    final Set<PosixFilePermission> permissions;
+    try {
+      permissions = view.readAttributes().permissions();
+    } catch(final NoSuchFileException e) {
+      return; // nothing to replace
+    }
+    Files.setPosixFilePermissions(temporary, permissions);
+  }
+
+  private static AsynchronousFileChannel open(final Path path, final Executor executor, final OpenOption... options) throws IOException {
+    if(executor instanceof ExecutorService) {
+      final Set<OpenOption> set = new HashSet<>();
+      Collections.addAll(set, options);
+      return AsynchronousFileChannel.open(path, set, (ExecutorService) executor);
+    }
+    return AsynchronousFileChannel.open(path, options);
+  }
+
+  private static void closeSuppressed(final AsynchronousFileChannel channel, final Throwable exception) {
+    try {
+      channel.close();
+    } catch(final IOException e) {
+      exception.addSuppressed(e);
+    }
+  }
+
+  private static void deleteSuppressed(final Path path, final Throwable exception) {
+    try {
+      Files.deleteIfExists(path);
+    } catch(final IOException e) {
+      exception.addSuppressed(e);
+    }
+  }
+
+  /**
+   * Reads or writes a buffer completely, starting at the beginning of the file.
+   */
+  private abstract static class Transfer implements CompletionHandler<Integer, ByteBuffer> {
+    final AsynchronousFileChannel channel;
+    private final boolean write;
+
+    Transfer(final AsynchronousFileChannel channel, final boolean write) {
+      this.channel = channel;
+      this.write = write;
+    }
+
+    abstract void done(final ByteBuffer buffer) throws IOException;
+
+    @Override
+    public void completed(final Integer result, final ByteBuffer buffer) {
+      try {
+        if(result == -1 || !buffer.hasRemaining()) {
+          this.done(buffer);
+        } else if(this.write) {
+          this.channel.write(buffer, buffer.position(), buffer, this);
+        } else {
+          this.channel.read(buffer, buffer.position(), buffer, this);
+        }
+      } catch(final IOException | RuntimeException e) {
+        this.failed(e, buffer);
+      }
+    }
+  }
+
+  private static final class Bytes extends ByteArrayOutputStream {
+    ByteBuffer buffer() {
+      return ByteBuffer.wrap(this.buf, 0, this.count);
+    }
+  }
+}
@@ -36,4 +36,26 @@ public interface BinaryTag extends Examinable {
    * @return the tag type
    */
   @NonNull BinaryTagType<? extends BinaryTag> type();
+
+  /**
+   * Gets the number of bytes the payload of this tag takes up in the binary format.
+   *
+   * <p>The type id and name written before a tag are not included.</p>
+   *
+   * @return the number of bytes
+   */
+  int sizeInBytes();
+
+  /**
+   * Calls the method of {@code visitor} for the type of this tag.
+   *
+   * @param visitor the visitor
+   * @param parameter the parameter to pass to the visitor
+   * @param <R> the type of the result
+   * @param <P> the type of the parameter
+   * @param <X> the type of exception which may be thrown by the visitor
+   * @return the result of the visitor
+   * @throws X if the visitor throws
+   */
+  <R, P, X extends Exception> R accept(@NonNull BinaryTagTreeVisitor<R, P, X> visitor, P parameter) throws X;
 }
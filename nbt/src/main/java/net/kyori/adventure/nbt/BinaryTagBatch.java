@@ -0,0 +1,256 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decodes many compound tags in parallel.
+ *
+ * <p>Sources are decoded on an {@link Executor}, such as a {@link java.util.concurrent.ForkJoinPool}, with at
+ * most a fixed number of sources being decoded or waiting to be consumed at once. Results are returned in the
+ * order of their sources, and a source which fails to decode produces a result holding the exception instead of
+ * ending the batch.</p>
+ */
+public final class BinaryTagBatch {
+  private BinaryTagBatch() {
+  }
+
+  /**
+   * Creates a source reading {@code path}.
+   *
+   * @param path the path
+   * @return a source
+   * @see BinaryTagIO#readPath(Path)
+   */
+  public static @NonNull Source path(final @NonNull Path path) {
+    requireNonNull(path, "path");
+    return () -> BinaryTagIO.readPath(path);
+  }
+
+  /**
+   * Creates a source reading {@code path} using GZIP decompression.
+   *
+   * @param path the path
+   * @return a source
+   * @see BinaryTagIO#readCompressedPath(Path)
+   */
+  public static @NonNull Source compressedPath(final @NonNull Path path) {
+    requireNonNull(path, "path");
+    return () -> BinaryTagIO.readCompressedPath(path);
+  }
+
+  /**
+   * Creates a source reading the remaining bytes of {@code buffer}.
+   *
+   * <p>The position of {@code buffer} is not changed.</p>
+   *
+   * @param buffer the buffer
+   * @return a source
+   */
+  public static @NonNull Source byteBuffer(final @NonNull ByteBuffer buffer) {
+    final ByteBuffer slice = buffer.slice();
+    return () -> BinaryTagIO.readByteBuffer(slice.duplicate());
+  }
+
+  /**
+   * Creates a source reading a chunk of {@code region}.
+   *
+   * <p>The source produces {@code null} if the region file does not hold the chunk.</p>
+   *
+   * @param region the region file
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @return a source
+   */
+  public static @NonNull Source chunk(final @NonNull RegionFile region, final int x, final int z) {
+    requireNonNull(region, "region");
+    return () -> region.read(x, z);
+  }
+
+  /**
+   * Creates sources reading every chunk {@code region} currently holds.
+   *
+   * @param region the region file
+   * @return the sources, ordered by chunk z and then chunk x coordinate
+   */
+  public static @NonNull List<Source> chunks(final @NonNull RegionFile region) {
+    final List<Source> sources = new ArrayList<>();
+    for(int z = 0; z < 32; z++) {
+      for(int x = 0; x < 32; x++) {
+        if(region.contains(x, z)) {
+          sources.add(chunk(region, x, z));
+        }
+      }
+    }
+    return sources;
+  }
+
+  /**
+   * Decodes {@code sources} on {@code executor}.
+   *
+   * <p>The stream is lazy: at most {@code maxInFlight} sources are submitted ahead of the result being consumed.</p>
+   *
+   * @param sources the sources
+   * @param executor the executor to decode sources on
+   * @param maxInFlight the most sources to decode ahead of the consumer
+   * @return a stream of results, in the order of their sources
+   */
+  public static @NonNull Stream<Result> stream(final @NonNull Iterable<? extends Source> sources, final @NonNull Executor executor, final int maxInFlight) {
+    if(maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+    final Iterator<Result> results = new Reader(sources.iterator(), requireNonNull(executor, "executor"), maxInFlight);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  /**
+   * Decodes {@code sources} on {@code executor}, waiting for all of them.
+   *
+   * @param sources the sources
+   * @param executor the executor to decode sources on
+   * @param maxInFlight the most sources to decode at once
+   * @return the results, in the order of their sources
+   */
+  public static @NonNull List<Result> read(final @NonNull Iterable<? extends Source> sources, final @NonNull Executor executor, final int maxInFlight) {
+    return stream(sources, executor, maxInFlight).collect(Collectors.toList());
+  }
+
+  /**
+   * A source of a compound tag.
+   */
+  @FunctionalInterface
+  public interface Source {
+    /**
+     * Reads the compound tag.
+     *
+     * @return the compound tag, or {@code null} if there is none
+     * @throws IOException if an exception was encountered while reading the compound tag
+     */
+    @Nullable CompoundBinaryTag read() throws IOException;
+  }
+
+  /**
+   * The result of decoding a source.
+   */
+  public static final class Result {
+    private final int index;
+    private final @Nullable CompoundBinaryTag tag;
+    private final @Nullable Exception error;
+
+    Result(final int index, final @Nullable CompoundBinaryTag tag, final @Nullable Exception error) {
+      this.index = index;
+      this.tag = tag;
+      this.error = error;
+    }
+
+    /**
+     * Gets the position of the source in the batch.
+     *
+     * @return the position
+     */
+    public int index() {
+      return this.index;
+    }
+
+    /**
+     * Gets the decoded compound tag.
+     *
+     * @return the compound tag, or {@code null} if the source had none or failed to decode
+     */
+    public @Nullable CompoundBinaryTag tag() {
+      return this.tag;
+    }
+
+    /**
+     * Gets the exception the source failed to decode with.
+     *
+     * @return the exception, or {@code null} if the source was decoded
+     */
+    public @Nullable Exception error() {
+      return this.error;
+    }
+  }
+
+  private static final class Reader implements Iterator<Result> {
+    private final Iterator<? extends Source> sources;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final ArrayDeque<CompletableFuture<Result>> inFlight;
+    private int submitted;
+
+    Reader(final Iterator<? extends Source> sources, final Executor executor, final int maxInFlight) {
+      this.sources = sources;
+      this.executor = executor;
+      this.maxInFlight = maxInFlight;
+      this.inFlight = new ArrayDeque<>(Math.min(maxInFlight, 1024));
+    }
+
+    @Override
+    public boolean hasNext() {
+      this.fill();
+      return !this.inFlight.isEmpty();
+    }
+
+    @Override
+    public Result next() {
+      this.fill();
+      final /* @Nullable */ CompletableFuture<Result> result = this.inFlight.poll();
+      if(result == null) throw new NoSuchElementException();
+      return result.join();
+    }
+
+    private void fill() {
+      while(this.inFlight.size() < this.maxInFlight && this.sources.hasNext()) {
+        final Source source = this.sources.next();
+        final int index = this.submitted++;
+        this.inFlight.add(CompletableFuture.supplyAsync(() -> decode(index, source), this.executor));
+      }
+    }
+
+    private static Result decode(final int index, final Source source) {
+      try {
+        return new Result(index, source.read(), null);
+      } catch(final IOException | RuntimeException e) {
+        return new Result(index, null, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Decodes compound and list tags.
+ *
+ * <p>Elements are read by switching on their type id, rather than by calling through the reader of their type,
+ * so that the decode loop stays monomorphic.</p>
+ */
+final class BinaryTagDecoder {
+  static final BinaryTagDecoder DEFAULT = new BinaryTagDecoder(null, null);
+  private final @Nullable CompoundKeyTable keys;
+  private final @Nullable StringTagPool strings;
+  private byte[] scratch = new byte[0];
+  private int offset; // of the bytes last returned by bytes()
+
+  /**
+   * Creates a decoder.
+   *
+   * <p>A decoder with a key table or string pool keeps state between reads, and must only be used by one thread.</p>
+   *
+   * @param keys the table to look up compound keys in, or {@code null} to always decode compound keys
+   * @param strings the pool to look up string tags in, or {@code null} to always create string tags
+   */
+  BinaryTagDecoder(final @Nullable CompoundKeyTable keys, final @Nullable StringTagPool strings) {
+    this.keys = keys;
+    this.strings = strings;
+  }
+
+  @NonNull BinaryTag read(final @NonNull DataInput input, final byte id) throws IOException {
+    switch(id) {
+      case 1: // byte
+        return ByteBinaryTag.of(input.readByte());
+      case 2: // short
+        return ShortBinaryTag.of(input.readShort());
+      case 3: // int
+        return IntBinaryTag.of(input.readInt());
+      case 4: // long
+        return LongBinaryTag.of(input.readLong());
+      case 5: // float
+        return FloatBinaryTag.of(input.readFloat());
+      case 6: // double
+        return DoubleBinaryTag.of(input.readDouble());
+      case 8: // string
+        return this.readString(input);
+      case 9: // list
+        return this.readList(input);
+      case 10: // compound
+        return this.readCompound(input);
+      default:
+        return BinaryTagType.of(id).read(input);
+    }
+  }
+
+  @NonNull CompoundBinaryTag readCompound(final @NonNull DataInput input) throws IOException {
+    final Map<String, BinaryTag> tags = new HashMap<>();
+    byte id;
+    while((id = input.readByte()) != 0) { // end
+      final String key = this.readKey(input);
+      tags.put(key, this.read(input, id));
+    }
+    return new CompoundBinaryTagImpl(tags);
+  }
+
+  @NonNull ListBinaryTag readList(final @NonNull DataInput input) throws IOException {
+    final byte id = input.readByte();
+    final BinaryTagType<? extends BinaryTag> type = BinaryTagType.of(id);
+    final int length = input.readInt();
+    if(type.numeric()) {
+      return new ListBinaryTagImpl(type, PrimitiveTagList.read(input, type, length));
+    }
+    if(type == BinaryTagTypes.END && length == 0) {
+      return ListBinaryTag.empty();
+    }
+    final List<BinaryTag> tags = new ArrayList<>(length);
+    for(int i = 0; i < length; i++) {
+      tags.add(this.read(input, id));
+    }
+    return ListBinaryTag.of(type, tags);
+  }
+
+  private String readKey(final DataInput input) throws IOException {
+    final /* @Nullable */ CompoundKeyTable keys = this.keys;
+    if(keys == null) return ModifiedUtf8.read(input);
+    final int length = input.readUnsignedShort();
+    final byte[] bytes = this.bytes(input, length);
+    return keys.intern(bytes, this.offset, length);
+  }
+
+  private StringBinaryTag readString(final DataInput input) throws IOException {
+    final /* @Nullable */ StringTagPool strings = this.strings;
+    if(strings == null) return StringBinaryTag.of(ModifiedUtf8.read(input));
+    final int length = input.readUnsignedShort();
+    final byte[] bytes = this.bytes(input, length);
+    return strings.intern(bytes, this.offset, length);
+  }
+
+  // reads length bytes, returning an array holding them from this.offset
+  private byte[] bytes(final DataInput input, final int length) throws IOException {
+    if(input instanceof ByteBufferDataInput) {
+      final ByteBufferDataInput in = (ByteBufferDataInput) input;
+      final ByteBuffer buffer = in.buffer();
+      final int index = in.advance(length);
+      if(buffer.hasArray()) {
+        this.offset = buffer.arrayOffset() + index;
+        return buffer.array();
+      }
+      buffer.position(index);
+      buffer.get(this.scratch(length), 0, length);
+    } else {
+      input.readFully(this.scratch(length), 0, length);
+    }
+    this.offset = 0;
+    return this.scratch;
+  }
+
+  private byte[] scratch(final int length) {
+    if(this.scratch.length < length) {
+      this.scratch = new byte[Math.max(length, 64)];
+    }
+    return this.scratch;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes the payloads of tags in the binary format to the output passed along with them,
+ * visiting the values of compound and list tags.
+ */
+final class BinaryTagEncoder implements BinaryTagTreeVisitor<Void, DataOutput, IOException> {
+  static final BinaryTagEncoder INSTANCE = new BinaryTagEncoder();
+
+  private BinaryTagEncoder() {
+  }
+
+  @Override
+  public Void visitEnd(final EndBinaryTag tag, final DataOutput output) {
+    return null; // nothing to write
+  }
+
+  @Override
+  public Void visitByte(final ByteBinaryTag tag, final DataOutput output) throws IOException {
+    output.writeByte(tag.value());
+    return null;
+  }
+
+  @Override
+  public Void visitShort(final ShortBinaryTag tag, final DataOutput output) throws IOException {
+    output.writeShort(tag.value());
+    return null;
+  }
+
+  @Override
+  public Void visitInt(final IntBinaryTag tag, final DataOutput output) throws IOException {
+    output.writeInt(tag.value());
+    return null;
+  }
+
+  @Override
+  public Void visitLong(final LongBinaryTag tag, final DataOutput output) throws IOException {
+    output.writeLong(tag.value());
+    return null;
+  }
+
+  @Override
+  public Void visitFloat(final FloatBinaryTag tag, final DataOutput output) throws IOException {
+    output.writeFloat(tag.value());
+    return null;
+  }
+
+  @Override
+  public Void visitDouble(final DoubleBinaryTag tag, final DataOutput output) throws IOException {
+    output.writeDouble(tag.value());
+    return null;
+  }
+
+  @Override
+  public Void visitByteArray(final ByteArrayBinaryTag tag, final DataOutput output) throws IOException {
+    BinaryTagTypes.BYTE_ARRAY.write(tag, output);
+    return null;
+  }
+
+  @Override
+  public Void visitString(final StringBinaryTag tag, final DataOutput output) throws IOException {
+    ModifiedUtf8.write(output, tag.value());
+    return null;
+  }
+
+  @Override
+  public Void visitList(final ListBinaryTag tag, final DataOutput output) throws IOException {
+    if(ListBinaryTagImpl.writeMemoized(tag, output)) return null;
+    output.writeByte(tag.listType().id());
+    final int size = tag.size();
+    output.writeInt(size);
+    final /* @Nullable */ PrimitiveTagList primitives = ListBinaryTagImpl.primitives(tag);
+    if(primitives != null) {
+      primitives.write(output);
+      return null;
+    }
+    for(final BinaryTag item : tag) {
+      item.accept(this, output);
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitCompound(final CompoundBinaryTag tag, final DataOutput output) throws IOException {
+    if(tag instanceof LazyCompoundBinaryTag) {
+      ((LazyCompoundBinaryTag) tag).write(output); // untouched, copy the original encoding
+      return null;
+    }
+    if(CompoundBinaryTagImpl.writeMemoized(tag, output)) return null;
+    for(final Map.Entry<String, ? extends BinaryTag> entry : tag) {
+      final BinaryTag value = entry.getValue();
+      if(value != null) {
+        final BinaryTagType<? extends BinaryTag> type = value.type();
+        output.writeByte(type.id());
+        if(type != BinaryTagTypes.END) {
+          ModifiedUtf8.write(output, entry.getKey());
+          value.accept(this, output);
+        }
+      }
+    }
+    output.writeByte(BinaryTagTypes.END.id());
+    return null;
+  }
+
+  @Override
+  public Void visitIntArray(final IntArrayBinaryTag tag, final DataOutput output) throws IOException {
+    BinaryTagTypes.INT_ARRAY.write(tag, output);
+    return null;
+  }
+
+  @Override
+  public Void visitLongArray(final LongArrayBinaryTag tag, final DataOutput output) throws IOException {
+    BinaryTagTypes.LONG_ARRAY.write(tag, output);
+    return null;
+  }
+}
@@ -32,11 +32,16 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import static net.kyori.adventure.nbt.IOStreamUtil.closeShield;
 
@@ -44,6 +49,8 @@ import static net.kyori.adventure.nbt.IOStreamUtil.closeShield;
  * Serialization operations for binary tags.
  */
 public final class BinaryTagIO {
+  private static final int ROOT_HEADER_BYTES = Byte.BYTES + Short.BYTES; // type id and empty name
+
   private BinaryTagIO() {
   }
 
@@ -59,8 +66,61 @@ public final class BinaryTagIO {
    * @throws IOException if an exception was encountered while reading a compound tag
    */
   public static @NonNull CompoundBinaryTag readPath(final @NonNull Path path) throws IOException {
+    return readPath(path, BinaryTagDecoder.DEFAULT);
+  }
+
+  /**
+   * Reads a compound tag from {@code path}, sharing compound keys through {@code keys}.
+   *
+   * @param path the path
+   * @param keys the key table
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readPath(final @NonNull Path path, final @NonNull CompoundKeyTable keys) throws IOException {
+    return readPath(path, new BinaryTagDecoder(keys, null));
+  }
+
+  /**
+   * Reads a compound tag from {@code path}, sharing compound keys through {@code keys} and string tags through {@code strings}.
+   *
+   * @param path the path
+   * @param keys the key table, or {@code null} to not share compound keys
+   * @param strings the string tag pool, or {@code null} to not share string tags
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readPath(final @NonNull Path path, final @Nullable CompoundKeyTable keys, final @Nullable StringTagPool strings) throws IOException {
+    return readPath(path, new BinaryTagDecoder(keys, strings));
+  }
+
+  private static @NonNull CompoundBinaryTag readPath(final @NonNull Path path, final @NonNull BinaryTagDecoder decoder) throws IOException {
     try(final InputStream is = new BufferedInputStream(Files.newInputStream(path))) {
-      return readInputStream(is);
+      return readInputStream(is, decoder);
+    }
+  }
+
+  /**
+   * Reads a compound tag from {@code path} by mapping the file into memory.
+   *
+   * <p>The tag is decoded directly from the mapped region rather than being copied through intermediate buffers,
+   * which makes this preferable to {@link #readPath(Path)} for large uncompressed files.</p>
+   *
+   * @param path the path
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readMappedPath(final @NonNull Path path) throws IOException {
+    return readByteBuffer(map(path));
+  }
+
+  private static @NonNull ByteBuffer map(final @NonNull Path path) throws IOException {
+    try(final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if(size > Integer.MAX_VALUE) {
+        throw new IOException(String.format("Cannot map %s, it is larger than %d bytes", path, Integer.MAX_VALUE));
+      }
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
     }
   }
 
@@ -72,7 +132,37 @@ public final class BinaryTagIO {
    * @throws IOException if an exception was encountered while reading a compound tag
    */
   public static @NonNull CompoundBinaryTag readInputStream(final @NonNull InputStream input) throws IOException {
-    return readDataInput(new DataInputStream(closeShield(input)));
+    return readInputStream(input, BinaryTagDecoder.DEFAULT);
+  }
+
+  /**
+   * Reads a compound tag from an input stream, sharing compound keys through {@code keys}. The stream is not closed afterwards.
+   *
+   * @param input the input stream
+   * @param keys the key table
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readInputStream(final @NonNull InputStream input, final @NonNull CompoundKeyTable keys) throws IOException {
+    return readInputStream(input, new BinaryTagDecoder(keys, null));
+  }
+
+  /**
+   * Reads a compound tag from an input stream, sharing compound keys through {@code keys} and string tags
+   * through {@code strings}. The stream is not closed afterwards.
+   *
+   * @param input the input stream
+   * @param keys the key table, or {@code null} to not share compound keys
+   * @param strings the string tag pool, or {@code null} to not share string tags
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readInputStream(final @NonNull InputStream input, final @Nullable CompoundKeyTable keys, final @Nullable StringTagPool strings) throws IOException {
+    return readInputStream(input, new BinaryTagDecoder(keys, strings));
+  }
+
+  private static @NonNull CompoundBinaryTag readInputStream(final @NonNull InputStream input, final @NonNull BinaryTagDecoder decoder) throws IOException {
+    return readDataInput(new DataInputStream(closeShield(input)), decoder);
   }
 
   /**
@@ -83,8 +173,50 @@ public final class BinaryTagIO {
    * @throws IOException if an exception was encountered while reading a compound tag
    */
   public static @NonNull CompoundBinaryTag readCompressedPath(final @NonNull Path path) throws IOException {
+    return readCompressedPath(path, Compression.gzip(), BinaryTagDecoder.DEFAULT);
+  }
+
+  /**
+   * Reads a compound tag from {@code path} using {@code compression}.
+   *
+   * @param path the path
+   * @param compression the compression
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readCompressedPath(final @NonNull Path path, final @NonNull Compression compression) throws IOException {
+    return readCompressedPath(path, compression, BinaryTagDecoder.DEFAULT);
+  }
+
+  /**
+   * Reads a compound tag from {@code path} using GZIP decompression, sharing compound keys through {@code keys}.
+   *
+   * @param path the path
+   * @param keys the key table
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readCompressedPath(final @NonNull Path path, final @NonNull CompoundKeyTable keys) throws IOException {
+    return readCompressedPath(path, Compression.gzip(), new BinaryTagDecoder(keys, null));
+  }
+
+  /**
+   * Reads a compound tag from {@code path} using GZIP decompression, sharing compound keys through {@code keys}
+   * and string tags through {@code strings}.
+   *
+   * @param path the path
+   * @param keys the key table, or {@code null} to not share compound keys
+   * @param strings the string tag pool, or {@code null} to not share string tags
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readCompressedPath(final @NonNull Path path, final @Nullable CompoundKeyTable keys, final @Nullable StringTagPool strings) throws IOException {
+    return readCompressedPath(path, Compression.gzip(), new BinaryTagDecoder(keys, strings));
+  }
+
+  private static @NonNull CompoundBinaryTag readCompressedPath(final @NonNull Path path, final @NonNull Compression compression, final @NonNull BinaryTagDecoder decoder) throws IOException {
     try(final InputStream is = Files.newInputStream(path)) {
-      return readCompressedInputStream(is);
+      return readCompressedInputStream(is, compression, decoder);
     }
   }
 
@@ -96,8 +228,61 @@ public final class BinaryTagIO {
    * @throws IOException if an exception was encountered while reading a compound tag
    */
   public static @NonNull CompoundBinaryTag readCompressedInputStream(final @NonNull InputStream input) throws IOException {
-    try(final DataInputStream dis = new DataInputStream(new BufferedInputStream(new GZIPInputStream(closeShield(input))))) {
-      return readDataInput(dis);
+    return readCompressedInputStream(input, Compression.gzip(), BinaryTagDecoder.DEFAULT);
+  }
+
+  /**
+   * Reads a compound tag from an input stream using {@code compression}. The stream is not closed afterwards.
+   *
+   * @param input the input stream
+   * @param compression the compression
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readCompressedInputStream(final @NonNull InputStream input, final @NonNull Compression compression) throws IOException {
+    return readCompressedInputStream(input, compression, BinaryTagDecoder.DEFAULT);
+  }
+
+  /**
+   * Reads a compound tag from an input stream using GZIP decompression, sharing compound keys through {@code keys}.
+   * The stream is not closed afterwards.
+   *
+   * @param input the input stream
+   * @param keys the key table
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readCompressedInputStream(final @NonNull InputStream input, final @NonNull CompoundKeyTable keys) throws IOException {
+    return readCompressedInputStream(input, Compression.gzip(), new BinaryTagDecoder(keys, null));
+  }
+
+  /**
+   * Reads a compound tag from an input stream using GZIP decompression, sharing compound keys through {@code keys}
+   * and string tags through {@code strings}. The stream is not closed afterwards.
+   *
+   * @param input the input stream
+   * @param keys the key table, or {@code null} to not share compound keys
+   * @param strings the string tag pool, or {@code null} to not share string tags
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readCompressedInputStream(final @NonNull InputStream input, final @Nullable CompoundKeyTable keys, final @Nullable StringTagPool strings) throws IOException {
+    return readCompressedInputStream(input, Compression.gzip(), new BinaryTagDecoder(keys, strings));
+  }
+
+  private static @NonNull CompoundBinaryTag readCompressedInputStream(final @NonNull InputStream input, final @NonNull Compression compression, final @NonNull BinaryTagDecoder decoder) throws IOException {
+    if(compression instanceof CompressionImpl && ((CompressionImpl) compression).format() != CompressionImpl.Format.NONE) {
+      final CompressionContext context = CompressionContext.acquire();
+      try {
+        final CompoundBinaryTag tag = readDataInput(context.decompress(((CompressionImpl) compression).format(), input), decoder);
+        context.endDecompress();
+        return tag;
+      } finally {
+        context.release();
+      }
+    }
+    try(final DataInputStream dis = new DataInputStream(new BufferedInputStream(compression.decompress(closeShield(input))))) {
+      return readDataInput(dis, decoder);
     }
   }
 
@@ -109,12 +294,205 @@ public final class BinaryTagIO {
    * @throws IOException if an exception was encountered while reading a compound tag
    */
   public static @NonNull CompoundBinaryTag readDataInput(final @NonNull DataInput input) throws IOException {
+    return readDataInput(input, BinaryTagDecoder.DEFAULT);
+  }
+
+  /**
+   * Reads a compound tag from {@code input}, sharing compound keys through {@code keys}.
+   *
+   * <p>Compound keys which are in {@code keys} are read without allocating new strings.</p>
+   *
+   * @param input the input
+   * @param keys the key table
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readDataInput(final @NonNull DataInput input, final @NonNull CompoundKeyTable keys) throws IOException {
+    return readDataInput(input, new BinaryTagDecoder(keys, null));
+  }
+
+  /**
+   * Reads a compound tag from {@code input}, sharing compound keys through {@code keys} and string tags through {@code strings}.
+   *
+   * <p>Compound keys which are in {@code keys}, and string values which are in {@code strings},
+   * are read without allocating new strings.</p>
+   *
+   * @param input the input
+   * @param keys the key table, or {@code null} to not share compound keys
+   * @param strings the string tag pool, or {@code null} to not share string tags
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readDataInput(final @NonNull DataInput input, final @Nullable CompoundKeyTable keys, final @Nullable StringTagPool strings) throws IOException {
+    return readDataInput(input, new BinaryTagDecoder(keys, strings));
+  }
+
+  private static @NonNull CompoundBinaryTag readDataInput(final @NonNull DataInput input, final @NonNull BinaryTagDecoder decoder) throws IOException {
+    readRootHeader(input);
+    return decoder.readCompound(input);
+  }
+
+  private static void readRootHeader(final @NonNull DataInput input) throws IOException {
     final BinaryTagType<? extends BinaryTag> type = BinaryTagType.of(input.readByte());
     if(type != BinaryTagTypes.COMPOUND) {
       throw new IOException(String.format("Expected root tag to be a %s, was %s", BinaryTagTypes.COMPOUND, type));
     }
     input.skipBytes(input.readUnsignedShort()); // read empty name
-    return BinaryTagTypes.COMPOUND.read(input);
+  }
+
+  /**
+   * Reads a compound tag from {@code input}, starting at its position.
+   *
+   * <p>The tag is decoded directly from the buffer, which may be a heap or a direct buffer.
+   * On success, the position of the buffer is advanced past the end of the tag.</p>
+   *
+   * @param input the input buffer
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readByteBuffer(final @NonNull ByteBuffer input) throws IOException {
+    return readByteBuffer(input, BinaryTagDecoder.DEFAULT);
+  }
+
+  /**
+   * Reads a compound tag from {@code input}, starting at its position, and sharing compound keys through {@code keys}.
+   *
+   * <p>On success, the position of the buffer is advanced past the end of the tag.</p>
+   *
+   * @param input the input buffer
+   * @param keys the key table
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   * @see #readByteBuffer(ByteBuffer)
+   */
+  public static @NonNull CompoundBinaryTag readByteBuffer(final @NonNull ByteBuffer input, final @NonNull CompoundKeyTable keys) throws IOException {
+    return readByteBuffer(input, new BinaryTagDecoder(keys, null));
+  }
+
+  /**
+   * Reads a compound tag from {@code input}, starting at its position, and sharing compound keys through {@code keys}
+   * and string tags through {@code strings}.
+   *
+   * <p>On success, the position of the buffer is advanced past the end of the tag.</p>
+   *
+   * @param input the input buffer
+   * @param keys the key table, or {@code null} to not share compound keys
+   * @param strings the string tag pool, or {@code null} to not share string tags
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readByteBuffer(final @NonNull ByteBuffer input, final @Nullable CompoundKeyTable keys, final @Nullable StringTagPool strings) throws IOException {
+    return readByteBuffer(input, new BinaryTagDecoder(keys, strings));
+  }
+
+  private static @NonNull CompoundBinaryTag readByteBuffer(final @NonNull ByteBuffer input, final @NonNull BinaryTagDecoder decoder) throws IOException {
+    final ByteBufferDataInput in = new ByteBufferDataInput(input);
+    final CompoundBinaryTag tag = readDataInput(in, decoder);
+    input.position(in.index());
+    return tag;
+  }
+
+  /**
+   * Reads a compound tag from {@code input}, passing its contents to {@code visitor} instead of creating tags.
+   *
+   * @param input the input
+   * @param visitor the visitor
+   * @throws IOException if an exception was encountered while reading a compound tag, or thrown by {@code visitor}
+   */
+  public static void readDataInput(final @NonNull DataInput input, final @NonNull BinaryTagVisitor visitor) throws IOException {
+    readRootHeader(input);
+    BinaryTagStreamReader.read(input, BinaryTagTypes.COMPOUND.id(), visitor);
+  }
+
+  /**
+   * Reads a compound tag from {@code input}, starting at its position, passing its contents to {@code visitor}
+   * instead of creating tags.
+   *
+   * <p>On success, the position of the buffer is advanced past the end of the tag.</p>
+   *
+   * @param input the input buffer
+   * @param visitor the visitor
+   * @throws IOException if an exception was encountered while reading a compound tag, or thrown by {@code visitor}
+   */
+  public static void readByteBuffer(final @NonNull ByteBuffer input, final @NonNull BinaryTagVisitor visitor) throws IOException {
+    final ByteBufferDataInput in = new ByteBufferDataInput(input);
+    readDataInput(in, visitor);
+    input.position(in.index());
+  }
+
+  /**
+   * Reads a compound tag from {@code input}, starting at its position, decoding its contents on demand.
+   *
+   * <p>Only the keys of the compound tag are read up front. Values are decoded from the buffer the first time they
+   * are requested, and nested compound tags which are not modified are written by copying their original encoding.
+   * The contents of {@code input} must therefore not be modified while the returned tag is in use.</p>
+   *
+   * <p>On success, the position of the buffer is advanced past the end of the tag.</p>
+   *
+   * @param input the input buffer
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readLazyByteBuffer(final @NonNull ByteBuffer input) throws IOException {
+    final ByteBufferDataInput in = new ByteBufferDataInput(input);
+    readRootHeader(in);
+    final LazyCompoundBinaryTag tag = LazyCompoundBinaryTag.read(input.duplicate().order(ByteOrder.BIG_ENDIAN), in.index());
+    input.position(tag.end());
+    return tag;
+  }
+
+  /**
+   * Reads a compound tag from {@code path} by mapping the file into memory, decoding its contents on demand.
+   *
+   * <p>See {@link #readLazyByteBuffer(ByteBuffer)} - the file must not be modified while the returned tag is in use.</p>
+   *
+   * @param path the path
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while reading a compound tag
+   */
+  public static @NonNull CompoundBinaryTag readLazyPath(final @NonNull Path path) throws IOException {
+    return readLazyByteBuffer(map(path));
+  }
+
+  /**
+   * Extracts the tags at {@code path} from the root compound tag in {@code input}.
+   *
+   * <p>Only the tags at {@code path} are read - the payloads of all other tags are skipped.
+   * A path is a sequence of keys separated by {@code .}, where each key may be followed by
+   * list selectors: {@code [n]} for the element at index {@code n}, or {@code [*]} for every element.
+   * For example, {@code Level.Sections[*].BlockStates} selects the {@code BlockStates} of every section.</p>
+   *
+   * @param input the input
+   * @param path the path
+   * @return the tags at the path, in the order they were encountered
+   * @throws IllegalArgumentException if the path is malformed
+   * @throws IOException if an exception was encountered while reading
+   */
+  public static @NonNull List<BinaryTag> extract(final @NonNull DataInput input, final @NonNull String path) throws IOException {
+    final BinaryTagPath parsed = BinaryTagPath.parse(path);
+    readRootHeader(input);
+    final List<BinaryTag> results = new ArrayList<>();
+    parsed.extract(input, results);
+    return results;
+  }
+
+  /**
+   * Extracts the tags at {@code path} from the root compound tag in {@code input}.
+   *
+   * <p>The position of {@code input} is advanced past the root compound tag.</p>
+   *
+   * @param input the input
+   * @param path the path
+   * @return the tags at the path, in the order they were encountered
+   * @throws IllegalArgumentException if the path is malformed
+   * @throws IOException if an exception was encountered while reading
+   * @see #extract(DataInput, String)
+   */
+  public static @NonNull List<BinaryTag> extract(final @NonNull ByteBuffer input, final @NonNull String path) throws IOException {
+    final ByteBufferDataInput in = new ByteBufferDataInput(input);
+    final List<BinaryTag> results = extract(in, path);
+    input.position(in.index());
+    return results;
   }
 
   /**
@@ -149,7 +527,21 @@ public final class BinaryTagIO {
    * @throws IOException if an exception was encountered while writing the compound tag
    */
   public static void writeCompressedPath(final @NonNull CompoundBinaryTag tag, final @NonNull Path path) throws IOException {
-    writeCompressedOutputStream(tag, Files.newOutputStream(path));
+    writeCompressedPath(tag, path, Compression.gzip());
+  }
+
+  /**
+   * Writes a compound tag to {@code path} using {@code compression}.
+   *
+   * @param tag the compound tag
+   * @param path the path
+   * @param compression the compression
+   * @throws IOException if an exception was encountered while writing the compound tag
+   */
+  public static void writeCompressedPath(final @NonNull CompoundBinaryTag tag, final @NonNull Path path, final @NonNull Compression compression) throws IOException {
+    try(final OutputStream os = Files.newOutputStream(path)) {
+      writeCompressedOutputStream(tag, os, compression);
+    }
   }
 
   /**
@@ -160,7 +552,28 @@ public final class BinaryTagIO {
    * @throws IOException if an exception was encountered while writing the compound tag
    */
   public static void writeCompressedOutputStream(final @NonNull CompoundBinaryTag tag, final @NonNull OutputStream output) throws IOException {
-    try(final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(closeShield(output))))) {
+    writeCompressedOutputStream(tag, output, Compression.gzip());
+  }
+
+  /**
+   * Writes a compound tag to an output stream using {@code compression}. The output stream is not closed afterwards.
+   *
+   * @param tag the compound tag
+   * @param output the output stream
+   * @param compression the compression
+   * @throws IOException if an exception was encountered while writing the compound tag
+   */
+  public static void writeCompressedOutputStream(final @NonNull CompoundBinaryTag tag, final @NonNull OutputStream output, final @NonNull Compression compression) throws IOException {
+    if(compression instanceof CompressionImpl && ((CompressionImpl) compression).format() != CompressionImpl.Format.NONE) {
+      final CompressionContext context = CompressionContext.acquire();
+      try {
+        context.compress(((CompressionImpl) compression).format(), ((CompressionImpl) compression).level(), tag, output);
+      } finally {
+        context.release();
+      }
+      return;
+    }
+    try(final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(compression.compress(closeShield(output))))) {
       writeDataOutput(tag, dos);
     }
   }
@@ -177,4 +590,41 @@ public final class BinaryTagIO {
     output.writeUTF(""); // write empty name
     BinaryTagTypes.COMPOUND.write(tag, output);
   }
+
+  /**
+   * Writes a compound tag to a new buffer of exactly the size of the encoded tag.
+   *
+   * @param tag the compound tag
+   * @return a heap buffer holding the encoded tag, ready to be read from
+   * @throws IOException if an exception was encountered while writing the compound tag
+   */
+  public static @NonNull ByteBuffer writeByteBuffer(final @NonNull CompoundBinaryTag tag) throws IOException {
+    final ByteBuffer buffer = writeByteBuffer(tag, ByteBuffer.allocate(ROOT_HEADER_BYTES + tag.sizeInBytes()));
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Writes a compound tag to {@code output}, starting at its position.
+   *
+   * <p>If {@code output} does not have enough space remaining, it is replaced by a larger buffer of the same kind
+   * (heap or direct) and byte order, which holds the contents of {@code output} up to its position followed by the tag.
+   * The space needed is {@linkplain BinaryTag#sizeInBytes() computed} up front, so {@code output} is replaced at most once.</p>
+   *
+   * @param tag the compound tag
+   * @param output the output buffer
+   * @return the buffer written to, either {@code output} or a larger replacement, positioned after the end of the tag
+   * @throws IOException if an exception was encountered while writing the compound tag
+   */
+  public static @NonNull ByteBuffer writeByteBuffer(final @NonNull CompoundBinaryTag tag, final @NonNull ByteBuffer output) throws IOException {
+    final ByteOrder order = output.order();
+    final ByteBufferDataOutput out = new ByteBufferDataOutput(output);
+    try {
+      out.ensureWritable(ROOT_HEADER_BYTES + tag.sizeInBytes());
+      writeDataOutput(tag, out);
+    } finally {
+      output.order(order);
+    }
+    return out.buffer().order(order);
+  }
 }
@@ -0,0 +1,219 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A path to tags within a compound, used to extract those tags without reading the rest of the compound.
+ *
+ * <p>A path is a sequence of keys separated by {@code .}, where each key may be followed by any number of
+ * list selectors: {@code [n]} selects the element at index {@code n}, and {@code [*]} selects every element.</p>
+ *
+ * <p>For example, {@code Level.Sections[*].BlockStates} selects the {@code BlockStates} of every section.</p>
+ */
+final class BinaryTagPath {
+  private static final int ANY_INDEX = -1;
+  private final String[] keys;
+  // the keys as modified UTF-8, to match them against keys as they are read
+  private final byte[][] encodedKeys;
+  private final int[][] indexes;
+  // a path is parsed for each extraction, so this is never shared between threads
+  private final byte[] scratch;
+
+  private BinaryTagPath(final String[] keys, final int[][] indexes) {
+    this.keys = keys;
+    this.encodedKeys = new byte[keys.length][];
+    int longest = 0;
+    for(int i = 0; i < keys.length; i++) {
+      this.encodedKeys[i] = CompoundKeyTable.encode(keys[i]);
+      longest = Math.max(longest, this.encodedKeys[i].length);
+    }
+    this.indexes = indexes;
+    this.scratch = new byte[longest];
+  }
+
+  /**
+   * Parses a path.
+   *
+   * @param path the path
+   * @return the parsed path
+   * @throws IllegalArgumentException if the path is malformed
+   */
+  static @NonNull BinaryTagPath parse(final @NonNull String path) {
+    final List<String> keys = new ArrayList<>();
+    final List<int[]> indexes = new ArrayList<>();
+    final List<Integer> current = new ArrayList<>();
+    int i = 0;
+    final int length = path.length();
+    while(true) {
+      final int start = i;
+      while(i < length && path.charAt(i) != '.' && path.charAt(i) != '[') {
+        i++;
+      }
+      if(i == start) throw new IllegalArgumentException("Empty key at index " + start + " in path '" + path + "'");
+      keys.add(path.substring(start, i));
+      while(i < length && path.charAt(i) == '[') {
+        final int close = path.indexOf(']', i);
+        if(close == -1) throw new IllegalArgumentException("Unterminated list selector at index " + i + " in path '" + path + "'");
+        final String selector = path.substring(i + 1, close);
+        if(selector.equals("*")) {
+          current.add(ANY_INDEX);
+        } else {
+          try {
+            final int index = Integer.parseInt(selector);
+            if(index < 0) throw new IllegalArgumentException("Negative list index at index " + i + " in path '" + path + "'");
+            current.add(index);
+          } catch(final NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid list selector '" + selector + "' at index " + i + " in path '" + path + "'", e);
+          }
+        }
+        i = close + 1;
+      }
+      final int[] selectors = new int[current.size()];
+      for(int j = 0; j < selectors.length; j++) {
+        selectors[j] = current.get(j);
+      }
+      indexes.add(selectors);
+      current.clear();
+      if(i == length) break;
+      if(path.charAt(i) != '.') throw new IllegalArgumentException("Expected '.' at index " + i + " in path '" + path + "'");
+      i++;
+    }
+    return new BinaryTagPath(keys.toArray(new String[0]), indexes.toArray(new int[0][]));
+  }
+
+  /**
+   * Extracts the tags selected by this path from the payload of a compound tag.
+   *
+   * <p>Only the selected tags are read - everything else is skipped.</p>
+   *
+   * @param input the input, positioned at the start of the payload of the compound
+   * @param results the list to add the selected tags to
+   * @throws IOException if an exception was encountered while reading
+   */
+  void extract(final @NonNull DataInput input, final @NonNull List<BinaryTag> results) throws IOException {
+    this.compound(input, 0, results);
+  }
+
+  private void compound(final DataInput input, final int depth, final List<BinaryTag> results) throws IOException {
+    final byte[] wanted = this.encodedKeys[depth];
+    BinaryTagType<? extends BinaryTag> type;
+    while((type = BinaryTagType.of(input.readByte())) != BinaryTagTypes.END) {
+      if(this.key(input, wanted)) {
+        this.value(input, type, depth, 0, results);
+      } else {
+        type.skip(input);
+      }
+    }
+  }
+
+  /**
+   * Reads a key, checking whether it is {@code wanted} without decoding it.
+   *
+   * @param input the input, positioned at the start of the key
+   * @param wanted the wanted key, as modified UTF-8
+   * @return whether the key is {@code wanted}
+   * @throws IOException if an exception was encountered while reading
+   */
+  private boolean key(final DataInput input, final byte[] wanted) throws IOException {
+    final int length = input.readUnsignedShort();
+    if(length != wanted.length) {
+      IOStreamUtil.skipFully(input, length);
+      return false;
+    }
+    if(input instanceof ByteBufferDataInput) {
+      final ByteBufferDataInput in = (ByteBufferDataInput) input;
+      final ByteBuffer buffer = in.buffer();
+      final int index = in.advance(length);
+      if(buffer.hasArray()) {
+        return CompoundKeyTable.matches(wanted, buffer.array(), buffer.arrayOffset() + index, length);
+      }
+      buffer.position(index);
+      buffer.get(this.scratch, 0, length);
+    } else {
+      input.readFully(this.scratch, 0, length);
+    }
+    return CompoundKeyTable.matches(wanted, this.scratch, 0, length);
+  }
+
+  private void value(final DataInput input, final BinaryTagType<? extends BinaryTag> type, final int depth, final int selector, final List<BinaryTag> results) throws IOException {
+    final int[] selectors = this.indexes[depth];
+    if(selector < selectors.length) {
+      if(type != BinaryTagTypes.LIST) {
+        type.skip(input);
+        return;
+      }
+      final BinaryTagType<? extends BinaryTag> elementType = BinaryTagType.of(input.readByte());
+      final int length = input.readInt();
+      final int wanted = selectors[selector];
+      if(wanted == ANY_INDEX) {
+        for(int i = 0; i < length; i++) {
+          this.value(input, elementType, depth, selector + 1, results);
+        }
+      } else if(wanted < length) {
+        skip(input, elementType, wanted);
+        this.value(input, elementType, depth, selector + 1, results);
+        skip(input, elementType, length - wanted - 1);
+      } else {
+        skip(input, elementType, length);
+      }
+    } else if(depth == this.keys.length - 1) {
+      results.add(type.read(input));
+    } else if(type == BinaryTagTypes.COMPOUND) {
+      this.compound(input, depth + 1, results);
+    } else {
+      type.skip(input);
+    }
+  }
+
+  private static void skip(final DataInput input, final BinaryTagType<? extends BinaryTag> type, final int count) throws IOException {
+    final int size = type.fixedSize();
+    if(size != -1) {
+      IOStreamUtil.skipFully(input, (long) count * size);
+    } else {
+      for(int i = 0; i < count; i++) {
+        type.skip(input);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    for(int i = 0; i < this.keys.length; i++) {
+      if(i > 0) sb.append('.');
+      sb.append(this.keys[i]);
+      for(final int index : this.indexes[i]) {
+        sb.append('[').append(index == ANY_INDEX ? "*" : String.valueOf(index)).append(']');
+      }
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataInput;
+import java.io.IOException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import static net.kyori.adventure.nbt.IOStreamUtil.readInts;
+import static net.kyori.adventure.nbt.IOStreamUtil.readLongs;
+import static net.kyori.adventure.nbt.IOStreamUtil.skipFully;
+
+/**
+ * Reads binary tags, passing their contents to a {@link BinaryTagVisitor} instead of creating tags.
+ *
+ * <p>Like {@link BinaryTagDecoder}, values are read by switching on their type id.</p>
+ */
+final class BinaryTagStreamReader {
+  private BinaryTagStreamReader() {
+  }
+
+  static void read(final @NonNull DataInput input, final byte id, final @NonNull BinaryTagVisitor visitor) throws IOException {
+    switch(id) {
+      case 1: // byte
+        visitor.visitByte(input.readByte());
+        break;
+      case 2: // short
+        visitor.visitShort(input.readShort());
+        break;
+      case 3: // int
+        visitor.visitInt(input.readInt());
+        break;
+      case 4: // long
+        visitor.visitLong(input.readLong());
+        break;
+      case 5: // float
+        visitor.visitFloat(input.readFloat());
+        break;
+      case 6: // double
+        visitor.visitDouble(input.readDouble());
+        break;
+      case 7: // byte array
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        visitor.visitByteArray(bytes);
+        break;
+      case 8: // string
+        visitor.visitString(ModifiedUtf8.read(input));
+        break;
+      case 9: // list
+        readList(input, visitor);
+        break;
+      case 10: // compound
+        readCompound(input, visitor);
+        break;
+      case 11: // int array
+        visitor.visitIntArray(readInts(input, input.readInt()));
+        break;
+      case 12: // long array
+        visitor.visitLongArray(readLongs(input, input.readInt()));
+        break;
+      case 0: // end
+        break;
+      default:
+        throw new IOException("Unknown tag type: " + id);
+    }
+  }
+
+  private static void readCompound(final DataInput input, final BinaryTagVisitor visitor) throws IOException {
+    if(visitor.visitCompound() == BinaryTagVisitor.Result.SKIP) {
+      BinaryTagTypes.COMPOUND.skip(input);
+      return;
+    }
+    byte id;
+    while((id = input.readByte()) != 0) { // end
+      final BinaryTagType<? extends BinaryTag> type = BinaryTagType.of(id);
+      final String key = ModifiedUtf8.read(input);
+      if(visitor.visitKey(key, type) == BinaryTagVisitor.Result.SKIP) {
+        type.skip(input);
+      } else {
+        read(input, id, visitor);
+      }
+    }
+    visitor.visitCompoundEnd();
+  }
+
+  private static void readList(final DataInput input, final BinaryTagVisitor visitor) throws IOException {
+    final byte id = input.readByte();
+    final BinaryTagType<? extends BinaryTag> type = BinaryTagType.of(id);
+    final int length = input.readInt();
+    if(visitor.visitList(type, length) == BinaryTagVisitor.Result.SKIP) {
+      final int size = type.fixedSize();
+      if(size != -1) {
+        skipFully(input, (long) length * size);
+      } else {
+        for(int i = 0; i < length; i++) {
+          type.skip(input);
+        }
+      }
+      return;
+    }
+    for(int i = 0; i < length; i++) {
+      read(input, id, visitor);
+    }
+    visitor.visitListEnd();
+  }
+}
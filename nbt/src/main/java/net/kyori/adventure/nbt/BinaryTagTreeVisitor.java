@@ -0,0 +1,171 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A visitor of tags, called with a method for the type of the tag being visited.
+ *
+ * <p>Passing a visitor to {@link BinaryTag#accept(BinaryTagTreeVisitor, Object)} selects the method for a tag with a single
+ * call, rather than comparing its {@link BinaryTag#type() type} against each possible type. Visiting the contents
+ * of compound and list tags is left to the visitor.</p>
+ *
+ * <p>To receive the contents of a binary tag as it is being read instead, see {@link BinaryTagVisitor}.</p>
+ *
+ * @param <R> the type of the result of visiting a tag
+ * @param <P> the type of the parameter passed along with a tag, such as an output to write it to
+ * @param <X> the type of exception which may be thrown while visiting a tag
+ */
+public interface BinaryTagTreeVisitor<R, P, X extends Exception> {
+  /**
+   * Visits an end tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitEnd(@NonNull EndBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits a byte tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitByte(@NonNull ByteBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits a short tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitShort(@NonNull ShortBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits an int tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitInt(@NonNull IntBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits a long tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitLong(@NonNull LongBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits a float tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitFloat(@NonNull FloatBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits a double tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitDouble(@NonNull DoubleBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits a byte array tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitByteArray(@NonNull ByteArrayBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits a string tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitString(@NonNull StringBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits a list tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitList(@NonNull ListBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits a compound tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitCompound(@NonNull CompoundBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits an int array tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitIntArray(@NonNull IntArrayBinaryTag tag, P parameter) throws X;
+
+  /**
+   * Visits a long array tag.
+   *
+   * @param tag the tag
+   * @param parameter the parameter
+   * @return the result
+   * @throws X if an error occurs visiting the tag
+   */
+  R visitLongArray(@NonNull LongArrayBinaryTag tag, P parameter) throws X;
+}
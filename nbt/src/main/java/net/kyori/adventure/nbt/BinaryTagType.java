@@ -26,19 +26,20 @@ package net.kyori.adventure.nbt;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import static net.kyori.adventure.nbt.IOStreamUtil.skipFully;
+
 /**
  * A binary tag type.
  *
  * @param <T> the tag type
  */
 public abstract class BinaryTagType<T extends BinaryTag> implements Predicate<BinaryTagType<? extends BinaryTag>> {
-  private static final List<BinaryTagType<? extends BinaryTag>> TYPES = new ArrayList<>();
+  private static final int MAX_ID = 12; // long array
+  private static final BinaryTagType<? extends BinaryTag>[] TYPES = new BinaryTagType<?>[MAX_ID + 1]; // indexed by id
 
   /**
    * Gets the id.
@@ -58,6 +59,23 @@ public abstract class BinaryTagType<T extends BinaryTag> implements Predicate<Bi
    */
   public abstract @NonNull T read(final @NonNull DataInput input) throws IOException;
 
+  /**
+   * Skips over a tag without reading it.
+   *
+   * @param input the input
+   * @throws IOException if an exception was encountered while skipping
+   */
+  abstract void skip(final @NonNull DataInput input) throws IOException;
+
+  /**
+   * Gets the size of the payload of tags of this type, if it is the same for all tags.
+   *
+   * @return the size in bytes, or {@code -1} if it varies between tags
+   */
+  int fixedSize() {
+    return -1;
+  }
+
   /**
    * Writes a tag.
    *
@@ -73,25 +91,27 @@ public abstract class BinaryTagType<T extends BinaryTag> implements Predicate<Bi
   }
 
   static @NonNull BinaryTagType<? extends BinaryTag> of(final byte id) {
-    for(int i = 0; i < TYPES.size(); i++) {
-      final BinaryTagType<? extends BinaryTag> type = TYPES.get(i);
-      if(type.id() == id) {
+    if(id >= 0 && id <= MAX_ID) {
+      final /* @Nullable */ BinaryTagType<? extends BinaryTag> type = TYPES[id];
+      if(type != null) {
         return type;
       }
     }
     throw new IllegalArgumentException(String.valueOf(id));
   }
 
-  static <T extends BinaryTag> @NonNull BinaryTagType<T> register(final Class<T> type, final byte id, final Reader<T> reader, final @Nullable Writer<T> writer) {
-    return register(new Impl<>(type, id, reader, writer));
+  static <T extends BinaryTag> @NonNull BinaryTagType<T> register(final Class<T> type, final byte id, final Reader<T> reader, final Skipper skipper, final @Nullable Writer<T> writer) {
+    return register(new Impl<>(type, id, reader, skipper, writer));
   }
 
-  static <T extends NumberBinaryTag> @NonNull BinaryTagType<T> registerNumeric(final Class<T> type, final byte id, final Reader<T> reader, final Writer<T> writer) {
-    return register(new Impl.Numeric<>(type, id, reader, writer));
+  static <T extends NumberBinaryTag> @NonNull BinaryTagType<T> registerNumeric(final Class<T> type, final byte id, final int size, final Reader<T> reader, final Writer<T> writer) {
+    return register(new Impl.Numeric<>(type, id, size, reader, writer));
   }
 
   private static <T extends BinaryTag, Y extends BinaryTagType<T>> Y register(final Y type) {
-    TYPES.add(type);
+    final byte id = type.id();
+    if(id < 0 || id > MAX_ID) throw new IllegalArgumentException("Tag type ids must be between 0 and " + MAX_ID + ": " + id);
+    TYPES[id] = type;
     return type;
   }
 
@@ -104,6 +124,13 @@ public abstract class BinaryTagType<T extends BinaryTag> implements Predicate<Bi
     @NonNull T read(final @NonNull DataInput input) throws IOException;
   }
 
+  /**
+   * A binary tag skipper.
+   */
+  interface Skipper {
+    void skip(final @NonNull DataInput input) throws IOException;
+  }
+
   /**
    * A binary tag writer.
    *
@@ -122,12 +149,14 @@ public abstract class BinaryTagType<T extends BinaryTag> implements Predicate<Bi
     final Class<T> type;
     final byte id;
     private final Reader<T> reader;
+    private final Skipper skipper;
     private final @Nullable Writer<T> writer;
 
-    Impl(final Class<T> type, final byte id, final Reader<T> reader, final @Nullable Writer<T> writer) {
+    Impl(final Class<T> type, final byte id, final Reader<T> reader, final Skipper skipper, final @Nullable Writer<T> writer) {
       this.type = type;
       this.id = id;
       this.reader = reader;
+      this.skipper = skipper;
       this.writer = writer;
     }
 
@@ -136,6 +165,11 @@ public abstract class BinaryTagType<T extends BinaryTag> implements Predicate<Bi
       return this.reader.read(input);
     }
 
+    @Override
+    final void skip(final @NonNull DataInput input) throws IOException {
+      this.skipper.skip(input);
+    }
+
     @Override
     public final void write(final @NonNull T tag, final @NonNull DataOutput output) throws IOException {
       if(this.writer != null) this.writer.write(tag, output);
@@ -157,8 +191,11 @@ public abstract class BinaryTagType<T extends BinaryTag> implements Predicate<Bi
     }
 
     static class Numeric<T extends BinaryTag> extends Impl<T> {
-      Numeric(final Class<T> type, final byte id, final Reader<T> reader, final @Nullable Writer<T> writer) {
-        super(type, id, reader, writer);
+      private final int size;
+
+      Numeric(final Class<T> type, final byte id, final int size, final Reader<T> reader, final @Nullable Writer<T> writer) {
+        super(type, id, reader, input -> skipFully(input, size), writer);
+        this.size = size;
       }
 
       @Override
@@ -166,6 +203,11 @@ public abstract class BinaryTagType<T extends BinaryTag> implements Predicate<Bi
         return true;
       }
 
+      @Override
+      int fixedSize() {
+        return this.size;
+      }
+
       @Override
       public String toString() {
         return BinaryTagType.class.getSimpleName() + '[' + this.type.getSimpleName() + " " + this.id + " (numeric)]";
@@ -23,101 +23,62 @@
  */
 package net.kyori.adventure.nbt;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import static net.kyori.adventure.nbt.IOStreamUtil.readInts;
+import static net.kyori.adventure.nbt.IOStreamUtil.readLongs;
+import static net.kyori.adventure.nbt.IOStreamUtil.skipFully;
+import static net.kyori.adventure.nbt.IOStreamUtil.writeInts;
+import static net.kyori.adventure.nbt.IOStreamUtil.writeLongs;
 
 /**
  * All known binary tag types.
  */
 public final class BinaryTagTypes {
-  public static final BinaryTagType<EndBinaryTag> END = BinaryTagType.register(EndBinaryTag.class, (byte) 0, input -> EndBinaryTag.get(), null); // nothing to write
-  public static final BinaryTagType<ByteBinaryTag> BYTE = BinaryTagType.registerNumeric(ByteBinaryTag.class, (byte) 1, input -> ByteBinaryTag.of(input.readByte()), (tag, output) -> output.writeByte(tag.value()));
-  public static final BinaryTagType<ShortBinaryTag> SHORT = BinaryTagType.registerNumeric(ShortBinaryTag.class, (byte) 2, input -> ShortBinaryTag.of(input.readShort()), (tag, output) -> output.writeShort(tag.value()));
-  public static final BinaryTagType<IntBinaryTag> INT = BinaryTagType.registerNumeric(IntBinaryTag.class, (byte) 3, input -> IntBinaryTag.of(input.readInt()), (tag, output) -> output.writeInt(tag.value()));
-  public static final BinaryTagType<LongBinaryTag> LONG = BinaryTagType.registerNumeric(LongBinaryTag.class, (byte) 4, input -> LongBinaryTag.of(input.readLong()), (tag, output) -> output.writeLong(tag.value()));
-  public static final BinaryTagType<FloatBinaryTag> FLOAT = BinaryTagType.registerNumeric(FloatBinaryTag.class, (byte) 5, input -> FloatBinaryTag.of(input.readFloat()), (tag, output) -> output.writeFloat(tag.value()));
-  public static final BinaryTagType<DoubleBinaryTag> DOUBLE = BinaryTagType.registerNumeric(DoubleBinaryTag.class, (byte) 6, input -> DoubleBinaryTag.of(input.readDouble()), (tag, output) -> output.writeDouble(tag.value()));
+  public static final BinaryTagType<EndBinaryTag> END = BinaryTagType.register(EndBinaryTag.class, (byte) 0, input -> EndBinaryTag.get(), input -> {}, null); // nothing to write
+  public static final BinaryTagType<ByteBinaryTag> BYTE = BinaryTagType.registerNumeric(ByteBinaryTag.class, (byte) 1, Byte.BYTES, input -> ByteBinaryTag.of(input.readByte()), (tag, output) -> output.writeByte(tag.value()));
+  public static final BinaryTagType<ShortBinaryTag> SHORT = BinaryTagType.registerNumeric(ShortBinaryTag.class, (byte) 2, Short.BYTES, input -> ShortBinaryTag.of(input.readShort()), (tag, output) -> output.writeShort(tag.value()));
+  public static final BinaryTagType<IntBinaryTag> INT = BinaryTagType.registerNumeric(IntBinaryTag.class, (byte) 3, Integer.BYTES, input -> IntBinaryTag.of(input.readInt()), (tag, output) -> output.writeInt(tag.value()));
+  public static final BinaryTagType<LongBinaryTag> LONG = BinaryTagType.registerNumeric(LongBinaryTag.class, (byte) 4, Long.BYTES, input -> LongBinaryTag.of(input.readLong()), (tag, output) -> output.writeLong(tag.value()));
+  public static final BinaryTagType<FloatBinaryTag> FLOAT = BinaryTagType.registerNumeric(FloatBinaryTag.class, (byte) 5, Float.BYTES, input -> FloatBinaryTag.of(input.readFloat()), (tag, output) -> output.writeFloat(tag.value()));
+  public static final BinaryTagType<DoubleBinaryTag> DOUBLE = BinaryTagType.registerNumeric(DoubleBinaryTag.class, (byte) 6, Double.BYTES, input -> DoubleBinaryTag.of(input.readDouble()), (tag, output) -> output.writeDouble(tag.value()));
   public static final BinaryTagType<ByteArrayBinaryTag> BYTE_ARRAY = BinaryTagType.register(ByteArrayBinaryTag.class, (byte) 7, input -> {
     final int length = input.readInt();
     final byte[] value = new byte[length];
     input.readFully(value);
     return ByteArrayBinaryTag.of(value);
-  }, (tag, output) -> {
+  }, input -> skipFully(input, input.readInt()), (tag, output) -> {
     final byte[] value = ByteArrayBinaryTagImpl.value(tag);
     output.writeInt(value.length);
     output.write(value);
   });
-  public static final BinaryTagType<StringBinaryTag> STRING = BinaryTagType.register(StringBinaryTag.class, (byte) 8, input -> StringBinaryTag.of(input.readUTF()), (tag, output) -> output.writeUTF(tag.value()));
-  public static final BinaryTagType<ListBinaryTag> LIST = BinaryTagType.register(ListBinaryTag.class, (byte) 9, input -> {
+  public static final BinaryTagType<StringBinaryTag> STRING = BinaryTagType.register(StringBinaryTag.class, (byte) 8, input -> StringBinaryTag.of(ModifiedUtf8.read(input)), input -> skipFully(input, input.readUnsignedShort()), (tag, output) -> ModifiedUtf8.write(output, tag.value()));
+  public static final BinaryTagType<ListBinaryTag> LIST = BinaryTagType.register(ListBinaryTag.class, (byte) 9, BinaryTagDecoder.DEFAULT::readList, input -> {
     final BinaryTagType<? extends BinaryTag> type = BinaryTagType.of(input.readByte());
     final int length = input.readInt();
-    final List<BinaryTag> tags = new ArrayList<>(length);
-    for(int i = 0; i < length; i++) {
-      tags.add(type.read(input));
-    }
-    return ListBinaryTag.of(type, tags);
-  }, (tag, output) -> {
-    output.writeByte(tag.listType().id());
-    final int size = tag.size();
-    output.writeInt(size);
-    for(final BinaryTag item : tag) {
-      BinaryTagType.write(item.type(), item, output);
+    final int size = type.fixedSize();
+    if(size != -1) {
+      skipFully(input, (long) length * size);
+    } else {
+      for(int i = 0; i < length; i++) {
+        type.skip(input);
+      }
     }
-  });
-  public static final BinaryTagType<CompoundBinaryTag> COMPOUND = BinaryTagType.register(CompoundBinaryTag.class, (byte) 10, input -> {
-    final Map<String, BinaryTag> tags = new HashMap<>();
+  }, BinaryTagEncoder.INSTANCE::visitList);
+  public static final BinaryTagType<CompoundBinaryTag> COMPOUND = BinaryTagType.register(CompoundBinaryTag.class, (byte) 10, BinaryTagDecoder.DEFAULT::readCompound, input -> {
     BinaryTagType<? extends BinaryTag> type;
     while((type = BinaryTagType.of(input.readByte())) != BinaryTagTypes.END) {
-      final String key = input.readUTF();
-      final BinaryTag tag = type.read(input);
-      tags.put(key, tag);
-    }
-    return new CompoundBinaryTagImpl(tags);
-  }, (tag, output) -> {
-    for(final Map.Entry<String, ? extends BinaryTag> entry : tag) {
-      final BinaryTag value = entry.getValue();
-      if(value != null) {
-        final BinaryTagType<? extends BinaryTag> type = value.type();
-        output.writeByte(type.id());
-        if(type != BinaryTagTypes.END) {
-          output.writeUTF(entry.getKey());
-          BinaryTagType.write(type, value, output);
-        }
-      }
-    }
-    output.writeByte(BinaryTagTypes.END.id());
-  });
-  public static final BinaryTagType<IntArrayBinaryTag> INT_ARRAY = BinaryTagType.register(IntArrayBinaryTag.class, (byte) 11, input -> {
-    final int length = input.readInt();
-    final int[] value = new int[length];
-    for(int i = 0; i < length; i++) {
-      value[i] = input.readInt();
+      skipFully(input, input.readUnsignedShort()); // key
+      type.skip(input);
     }
-    return IntArrayBinaryTag.of(value);
-  }, (tag, output) -> {
+  }, BinaryTagEncoder.INSTANCE::visitCompound);
+  public static final BinaryTagType<IntArrayBinaryTag> INT_ARRAY = BinaryTagType.register(IntArrayBinaryTag.class, (byte) 11, input -> IntArrayBinaryTag.of(readInts(input, input.readInt())), input -> skipFully(input, (long) input.readInt() * Integer.BYTES), (tag, output) -> {
     final int[] value = IntArrayBinaryTagImpl.value(tag);
-    final int length = value.length;
-    output.writeInt(length);
-    for(int i = 0; i < length; i++) {
-      output.writeInt(value[i]);
-    }
+    output.writeInt(value.length);
+    writeInts(output, value);
   });
-  public static final BinaryTagType<LongArrayBinaryTag> LONG_ARRAY = BinaryTagType.register(LongArrayBinaryTag.class, (byte) 12, input -> {
-    final int length = input.readInt();
-    final long[] value = new long[length];
-    for(int i = 0; i < length; i++) {
-      value[i] = input.readLong();
-    }
-    return LongArrayBinaryTag.of(value);
-  }, (tag, output) -> {
+  public static final BinaryTagType<LongArrayBinaryTag> LONG_ARRAY = BinaryTagType.register(LongArrayBinaryTag.class, (byte) 12, input -> LongArrayBinaryTag.of(readLongs(input, input.readInt())), input -> skipFully(input, (long) input.readInt() * Long.BYTES), (tag, output) -> {
     final long[] value = LongArrayBinaryTagImpl.value(tag);
-    final int length = value.length;
-    output.writeInt(length);
-    for(int i = 0; i < length; i++) {
-      output.writeLong(value[i]);
-    }
+    output.writeInt(value.length);
+    writeLongs(output, value);
   });
 
   private BinaryTagTypes() {
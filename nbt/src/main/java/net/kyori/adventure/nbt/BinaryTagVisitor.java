@@ -0,0 +1,191 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A visitor receiving the contents of a binary tag as it is being read, without building a tree of tags.
+ *
+ * <p>Compound and list tags, and the values of a compound tag, may be skipped by returning {@link Result#SKIP}
+ * when they are entered. Skipped tags are jumped over without being decoded.</p>
+ *
+ * <p>All methods do nothing by default, allowing implementations to only handle the parts they are interested in.</p>
+ *
+ * @see BinaryTagIO#readDataInput(java.io.DataInput, BinaryTagVisitor)
+ */
+public interface BinaryTagVisitor {
+  /**
+   * Visits the beginning of a compound tag.
+   *
+   * @return {@link Result#SKIP} to skip the contents of the compound tag
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default @NonNull Result visitCompound() throws IOException {
+    return Result.CONTINUE;
+  }
+
+  /**
+   * Visits the key of a value in a compound tag.
+   *
+   * @param key the key
+   * @param type the type of the value
+   * @return {@link Result#SKIP} to skip the value
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default @NonNull Result visitKey(final @NonNull String key, final @NonNull BinaryTagType<? extends BinaryTag> type) throws IOException {
+    return Result.CONTINUE;
+  }
+
+  /**
+   * Visits the end of a compound tag which was not skipped.
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitCompoundEnd() throws IOException {
+  }
+
+  /**
+   * Visits the beginning of a list tag.
+   *
+   * @param type the type of the elements
+   * @param size the number of elements
+   * @return {@link Result#SKIP} to skip the elements of the list tag
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default @NonNull Result visitList(final @NonNull BinaryTagType<? extends BinaryTag> type, final int size) throws IOException {
+    return Result.CONTINUE;
+  }
+
+  /**
+   * Visits the end of a list tag which was not skipped.
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitListEnd() throws IOException {
+  }
+
+  /**
+   * Visits a {@code byte} value.
+   *
+   * @param value the value
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitByte(final byte value) throws IOException {
+  }
+
+  /**
+   * Visits a {@code short} value.
+   *
+   * @param value the value
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitShort(final short value) throws IOException {
+  }
+
+  /**
+   * Visits an {@code int} value.
+   *
+   * @param value the value
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitInt(final int value) throws IOException {
+  }
+
+  /**
+   * Visits a {@code long} value.
+   *
+   * @param value the value
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitLong(final long value) throws IOException {
+  }
+
+  /**
+   * Visits a {@code float} value.
+   *
+   * @param value the value
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitFloat(final float value) throws IOException {
+  }
+
+  /**
+   * Visits a {@code double} value.
+   *
+   * @param value the value
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitDouble(final double value) throws IOException {
+  }
+
+  /**
+   * Visits a {@link String} value.
+   *
+   * @param value the value
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitString(final @NonNull String value) throws IOException {
+  }
+
+  /**
+   * Visits a {@code byte}-array value.
+   *
+   * @param value the value
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitByteArray(final byte@NonNull[] value) throws IOException {
+  }
+
+  /**
+   * Visits an {@code int}-array value.
+   *
+   * @param value the value
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitIntArray(final int@NonNull[] value) throws IOException {
+  }
+
+  /**
+   * Visits a {@code long}-array value.
+   *
+   * @param value the value
+   * @throws IOException if an exception was encountered while visiting
+   */
+  default void visitLongArray(final long@NonNull[] value) throws IOException {
+  }
+
+  /**
+   * The result of entering a tag.
+   */
+  enum Result {
+    /**
+     * Continue into the tag.
+     */
+    CONTINUE,
+    /**
+     * Skip over the tag.
+     */
+    SKIP;
+  }
+}
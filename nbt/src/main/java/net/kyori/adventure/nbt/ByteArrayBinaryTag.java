@@ -44,6 +44,11 @@ public interface ByteArrayBinaryTag extends BinaryTag {
     return BinaryTagTypes.BYTE_ARRAY;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitByteArray(this, parameter);
+  }
+
   /**
    * Gets the value.
    *
@@ -41,6 +41,11 @@ final class ByteArrayBinaryTagImpl implements ByteArrayBinaryTag {
     return Arrays.copyOf(this.value, this.value.length);
   }
 
+  @Override
+  public int sizeInBytes() {
+    return Integer.BYTES + this.value.length;
+  }
+
   // to avoid copying array internally
   static byte[] value(final ByteArrayBinaryTag tag) {
     return (tag instanceof ByteArrayBinaryTagImpl) ? ((ByteArrayBinaryTagImpl) tag).value : tag.value();
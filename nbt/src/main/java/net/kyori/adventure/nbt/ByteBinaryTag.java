@@ -54,7 +54,7 @@ public interface ByteBinaryTag extends NumberBinaryTag {
     } else if(value == 1) {
       return ONE;
     } else {
-      return new ByteBinaryTagImpl(value);
+      return ByteBinaryTagImpl.CACHE[value - Byte.MIN_VALUE];
     }
   }
 
@@ -63,6 +63,16 @@ public interface ByteBinaryTag extends NumberBinaryTag {
     return BinaryTagTypes.BYTE;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitByte(this, parameter);
+  }
+
+  @Override
+  default int sizeInBytes() {
+    return Byte.BYTES;
+  }
+
   /**
    * Gets the value.
    *
@@ -72,6 +82,14 @@ public interface ByteBinaryTag extends NumberBinaryTag {
 }
 
 final class ByteBinaryTagImpl implements ByteBinaryTag {
+  static final ByteBinaryTagImpl[] CACHE = new ByteBinaryTagImpl[1 << Byte.SIZE];
+
+  static {
+    for(int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new ByteBinaryTagImpl((byte) (i + Byte.MIN_VALUE));
+    }
+  }
+
   private final byte value;
 
   ByteBinaryTagImpl(final byte value) {
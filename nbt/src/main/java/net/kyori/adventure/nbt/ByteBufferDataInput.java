@@ -0,0 +1,178 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link DataInput} reading directly from a {@link ByteBuffer}.
+ *
+ * <p>All reads are absolute and bounds-checked against the limit of the buffer, and never modify the source buffer.</p>
+ */
+final class ByteBufferDataInput implements DataInput {
+  private final ByteBuffer buffer;
+  private final int limit;
+  private int index;
+
+  ByteBufferDataInput(final ByteBuffer buffer) {
+    this(buffer, buffer.position());
+  }
+
+  ByteBufferDataInput(final ByteBuffer buffer, final int index) {
+    this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    this.limit = buffer.limit();
+    this.index = index;
+  }
+
+  /**
+   * Gets the underlying buffer.
+   *
+   * <p>The position and limit of the returned buffer are undefined, only absolute operations should be used.</p>
+   *
+   * @return the buffer
+   */
+  ByteBuffer buffer() {
+    return this.buffer;
+  }
+
+  /**
+   * Gets the index of the next byte to be read.
+   *
+   * @return the index
+   */
+  int index() {
+    return this.index;
+  }
+
+  /**
+   * Reserves {@code length} bytes for reading.
+   *
+   * @param length the number of bytes
+   * @return the index of the first reserved byte
+   * @throws EOFException if there are not enough bytes remaining
+   */
+  int advance(final int length) throws EOFException {
+    final int index = this.index;
+    if(length < 0 || length > this.limit - index) {
+      throw new EOFException(String.format("Tried to read %d bytes at index %d, but only %d were remaining", length, index, this.limit - index));
+    }
+    this.index = index + length;
+    return index;
+  }
+
+  @Override
+  public void readFully(final byte@NonNull[] b) throws IOException {
+    this.readFully(b, 0, b.length);
+  }
+
+  @Override
+  public void readFully(final byte@NonNull[] b, final int off, final int len) throws IOException {
+    this.buffer.position(this.advance(len));
+    this.buffer.get(b, off, len);
+  }
+
+  @Override
+  public int skipBytes(final int n) {
+    final int skipped = Math.max(0, Math.min(n, this.limit - this.index));
+    this.index += skipped;
+    return skipped;
+  }
+
+  @Override
+  public boolean readBoolean() throws IOException {
+    return this.readByte() != 0;
+  }
+
+  @Override
+  public byte readByte() throws IOException {
+    return this.buffer.get(this.advance(Byte.BYTES));
+  }
+
+  @Override
+  public int readUnsignedByte() throws IOException {
+    return this.readByte() & 0xff;
+  }
+
+  @Override
+  public short readShort() throws IOException {
+    return this.buffer.getShort(this.advance(Short.BYTES));
+  }
+
+  @Override
+  public int readUnsignedShort() throws IOException {
+    return this.readShort() & 0xffff;
+  }
+
+  @Override
+  public char readChar() throws IOException {
+    return this.buffer.getChar(this.advance(Character.BYTES));
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    return this.buffer.getInt(this.advance(Integer.BYTES));
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    return this.buffer.getLong(this.advance(Long.BYTES));
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    return this.buffer.getFloat(this.advance(Float.BYTES));
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    return this.buffer.getDouble(this.advance(Double.BYTES));
+  }
+
+  @Override
+  public @Nullable String readLine() {
+    if(this.index >= this.limit) return null;
+    final StringBuilder line = new StringBuilder();
+    while(this.index < this.limit) {
+      final char c = (char) (this.buffer.get(this.index++) & 0xff);
+      if(c == '\n') break;
+      if(c == '\r') {
+        if(this.index < this.limit && this.buffer.get(this.index) == '\n') this.index++;
+        break;
+      }
+      line.append(c);
+    }
+    return line.toString();
+  }
+
+  @Override
+  public @NonNull String readUTF() throws IOException {
+    return ModifiedUtf8.read(this);
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A {@link DataOutput} writing directly into a {@link ByteBuffer}, growing it as required.
+ *
+ * <p>When the current buffer runs out of space, it is replaced by a larger buffer of the same kind (heap or direct)
+ * holding everything written to the old buffer so far.</p>
+ */
+final class ByteBufferDataOutput implements DataOutput {
+  private static final int DEFAULT_CAPACITY = 256;
+  private ByteBuffer buffer;
+
+  ByteBufferDataOutput() {
+    this(ByteBuffer.allocate(DEFAULT_CAPACITY));
+  }
+
+  ByteBufferDataOutput(final ByteBuffer buffer) {
+    this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+  }
+
+  /**
+   * Encodes the payload of {@code tag} into a new array.
+   *
+   * @param tag the tag
+   * @param sizeInBytes the expected size of the payload
+   * @param type the type of the tag
+   * @param <T> the type of the tag
+   * @return the encoded payload
+   * @throws IOException if an exception was encountered while encoding
+   */
+  static <T extends BinaryTag> byte[] encode(final T tag, final int sizeInBytes, final BinaryTagType<T> type) throws IOException {
+    final ByteBufferDataOutput output = new ByteBufferDataOutput(ByteBuffer.allocate(sizeInBytes));
+    type.write(tag, output);
+    final ByteBuffer buffer = output.buffer;
+    return buffer.position() == buffer.capacity() ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  /**
+   * Gets the buffer currently being written to.
+   *
+   * <p>The position of the returned buffer is just after the last written byte.</p>
+   *
+   * @return the buffer
+   */
+  ByteBuffer buffer() {
+    return this.buffer;
+  }
+
+  /**
+   * Ensures that at least {@code length} more bytes can be written without growing.
+   *
+   * @param length the number of bytes
+   * @return the buffer to write to
+   */
+  ByteBuffer ensureWritable(final int length) {
+    final ByteBuffer buffer = this.buffer;
+    if(buffer.remaining() >= length) return buffer;
+    final int required = buffer.position() + length;
+    if(required < 0) throw new OutOfMemoryError("Required buffer size exceeds maximum array size");
+    final int capacity = Math.max(required, buffer.capacity() <= Integer.MAX_VALUE >> 1 ? buffer.capacity() << 1 : Integer.MAX_VALUE);
+    final ByteBuffer grown = buffer.isDirect() ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    buffer.flip();
+    grown.put(buffer);
+    this.buffer = grown; // new buffers are always big-endian
+    return grown;
+  }
+
+  @Override
+  public void write(final int b) {
+    this.ensureWritable(Byte.BYTES).put((byte) b);
+  }
+
+  @Override
+  public void write(final byte@NonNull[] b) {
+    this.write(b, 0, b.length);
+  }
+
+  @Override
+  public void write(final byte@NonNull[] b, final int off, final int len) {
+    this.ensureWritable(len).put(b, off, len);
+  }
+
+  @Override
+  public void writeBoolean(final boolean v) {
+    this.write(v ? 1 : 0);
+  }
+
+  @Override
+  public void writeByte(final int v) {
+    this.write(v);
+  }
+
+  @Override
+  public void writeShort(final int v) {
+    this.ensureWritable(Short.BYTES).putShort((short) v);
+  }
+
+  @Override
+  public void writeChar(final int v) {
+    this.ensureWritable(Character.BYTES).putChar((char) v);
+  }
+
+  @Override
+  public void writeInt(final int v) {
+    this.ensureWritable(Integer.BYTES).putInt(v);
+  }
+
+  @Override
+  public void writeLong(final long v) {
+    this.ensureWritable(Long.BYTES).putLong(v);
+  }
+
+  @Override
+  public void writeFloat(final float v) {
+    this.ensureWritable(Float.BYTES).putFloat(v);
+  }
+
+  @Override
+  public void writeDouble(final double v) {
+    this.ensureWritable(Double.BYTES).putDouble(v);
+  }
+
+  @Override
+  public void writeBytes(final @NonNull String s) {
+    final int length = s.length();
+    final ByteBuffer buffer = this.ensureWritable(length);
+    for(int i = 0; i < length; i++) {
+      buffer.put((byte) s.charAt(i));
+    }
+  }
+
+  @Override
+  public void writeChars(final @NonNull String s) {
+    final int length = s.length();
+    final ByteBuffer buffer = this.ensureWritable(length * Character.BYTES);
+    for(int i = 0; i < length; i++) {
+      buffer.putChar(s.charAt(i));
+    }
+  }
+
+  @Override
+  public void writeUTF(final @NonNull String s) throws IOException {
+    ModifiedUtf8.write(this, s);
+  }
+}
@@ -23,15 +23,39 @@
  */
 package net.kyori.adventure.nbt;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 /**
  * A character buffer designed to be inspected by a parser
+ *
+ * <p>A buffer over a {@link Reader} only holds a window of characters, starting at the current position.
+ * Positions are always counted from the start of the input.</p>
  */
 final class CharBuffer {
+  private static final int READ_SIZE = 8192;
+  private final @Nullable Reader reader;
+  private final @Nullable StringBuilder window;
+  private final char@Nullable[] read;
   private final CharSequence sequence;
+  private boolean exhausted;
+  private int offset; // the position of the first character in the sequence
   private int index;
 
   CharBuffer(final CharSequence sequence) {
     this.sequence = sequence;
+    this.reader = null;
+    this.window = null;
+    this.read = null;
+  }
+
+  CharBuffer(final Reader reader) {
+    this.reader = reader;
+    this.window = new StringBuilder(READ_SIZE);
+    this.read = new char[READ_SIZE];
+    this.sequence = this.window;
   }
 
   /**
@@ -40,11 +64,11 @@ final class CharBuffer {
    * @return The current character
    */
   public char peek() {
-    return this.sequence.charAt(this.index);
+    return this.charAt(this.index);
   }
 
   public char peek(final int offset) {
-    return this.sequence.charAt(this.index + offset);
+    return this.charAt(this.index + offset);
   }
 
   /**
@@ -53,7 +77,60 @@ final class CharBuffer {
    * @return current character
    */
   public char take() {
-    return this.sequence.charAt(this.index++);
+    return this.charAt(this.index++);
+  }
+
+  /**
+   * Gets the current position.
+   *
+   * @return the current position
+   */
+  public int index() {
+    return this.index;
+  }
+
+  /**
+   * Moves to a position.
+   *
+   * <p>Characters before the current position may have been discarded, so this may only move forwards.</p>
+   *
+   * @param index the position
+   */
+  public void index(final int index) {
+    this.index = index;
+  }
+
+  /**
+   * Gets the character at a position, without moving.
+   *
+   * <p>The position must be at or after the current position, and must have been checked with {@link #has(int)}.</p>
+   *
+   * @param index the position
+   * @return the character
+   */
+  public char charAt(final int index) {
+    return this.sequence.charAt(index - this.offset);
+  }
+
+  /**
+   * Checks if there is a character at a position, reading more input if required.
+   *
+   * @param index the position
+   * @return if there is a character
+   */
+  public boolean has(final int index) {
+    return index - this.offset < this.sequence.length() || this.fill(index);
+  }
+
+  /**
+   * Gets the characters between two positions as a string, without moving.
+   *
+   * @param start the start position, inclusive
+   * @param end the end position, exclusive
+   * @return the string
+   */
+  public String substring(final int start, final int end) {
+    return this.sequence.subSequence(start - this.offset, end - this.offset).toString();
   }
 
   public boolean advance() {
@@ -62,11 +139,43 @@ final class CharBuffer {
   }
 
   public boolean hasMore() {
-    return this.index < this.sequence.length();
+    return this.has(this.index);
   }
 
   public boolean hasMore(final int offset) {
-    return this.index + offset < this.sequence.length();
+    return this.has(this.index + offset);
+  }
+
+  /**
+   * Reads from the reader until there is a character at a position, or there is no more input.
+   *
+   * @param index the position
+   * @return if there is a character
+   */
+  private boolean fill(final int index) {
+    final /* @Nullable */ Reader reader = this.reader;
+    final /* @Nullable */ StringBuilder window = this.window;
+    final char /* @Nullable */[] read = this.read;
+    if(reader == null || window == null || read == null || this.exhausted) return false;
+    // discard the characters before the current position, once doing so frees enough space to be worthwhile
+    final int discard = Math.min(this.index - this.offset, window.length());
+    if(discard >= READ_SIZE || discard == window.length()) {
+      window.delete(0, discard);
+      this.offset += discard;
+    }
+    try {
+      while(index - this.offset >= window.length()) {
+        final int count = reader.read(read, 0, read.length);
+        if(count == -1) {
+          this.exhausted = true;
+          return false;
+        }
+        window.append(read, 0, count);
+      }
+    } catch(final IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return true;
   }
 
   /**
@@ -78,10 +187,10 @@ final class CharBuffer {
   public CharSequence takeUntil(char until) throws StringTagParseException {
     until = Character.toLowerCase(until);
     int endIdx = -1;
-    for(int idx = this.index; idx < this.sequence.length(); ++idx) {
-      if(this.sequence.charAt(idx) == Tokens.ESCAPE_MARKER) {
+    for(int idx = this.index; this.has(idx); ++idx) {
+      if(this.charAt(idx) == Tokens.ESCAPE_MARKER) {
         idx++;
-      } else if(Character.toLowerCase(this.sequence.charAt(idx)) == until) {
+      } else if(Character.toLowerCase(this.charAt(idx)) == until) {
         endIdx = idx;
         break;
       }
@@ -90,7 +199,7 @@ final class CharBuffer {
       throw this.makeError("No occurrence of " + until + " was found");
     }
 
-    final CharSequence result = this.sequence.subSequence(this.index, endIdx);
+    final CharSequence result = this.substring(this.index, endIdx);
     this.index = endIdx + 1;
     return result;
   }
@@ -25,6 +25,7 @@ package net.kyori.adventure.nbt;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -55,6 +56,11 @@ public interface CompoundBinaryTag extends BinaryTag, CompoundTagSetter<Compound
     return BinaryTagTypes.COMPOUND;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitCompound(this, parameter);
+  }
+
   /**
    * Gets a set of all keys.
    *
@@ -70,6 +76,51 @@ public interface CompoundBinaryTag extends BinaryTag, CompoundTagSetter<Compound
    */
   @Nullable BinaryTag get(final String key);
 
+  /**
+   * Removes the tag with key {@code key}, optionally providing {@code removedConsumer} with the tag previously associated with {@code key}.
+   *
+   * @param key the key
+   * @param removedConsumer a consumer which receives the tag being removed, if there was one
+   * @return a compound tag
+   */
+  @NonNull CompoundBinaryTag remove(final @NonNull String key, final @Nullable Consumer<BinaryTag> removedConsumer);
+
+  /**
+   * Removes the tag with key {@code key}.
+   *
+   * @param key the key
+   * @return a compound tag
+   */
+  default @NonNull CompoundBinaryTag remove(final @NonNull String key) {
+    return this.remove(key, null);
+  }
+
+  /**
+   * Edits this compound tag, applying all changes made by {@code editor} to a single copy of its tags.
+   *
+   * <p>This is cheaper than chaining calls to {@link #put(String, BinaryTag)} and {@link #remove(String)},
+   * which each create a new compound tag. The {@link Mutable} passed to {@code editor} must not be used
+   * after {@code editor} returns.</p>
+   *
+   * @param editor the editor
+   * @return a compound tag, or this compound tag if {@code editor} made no changes
+   */
+  @NonNull CompoundBinaryTag edit(final @NonNull Consumer<? super Mutable> editor);
+
+  /**
+   * Gets a compound tag equal to this one which keeps its binary encoding after being written once.
+   *
+   * <p>Writing the returned tag again copies the kept encoding instead of encoding its tags from scratch,
+   * which makes this worthwhile for tags that are written many times. The encoding is softly referenced,
+   * so it can be discarded when memory runs low. Tags created from the returned tag, such as by
+   * {@link #edit(Consumer)}, do not keep their encoding.</p>
+   *
+   * @return a compound tag keeping its encoding
+   */
+  default @NonNull CompoundBinaryTag memoized() {
+    return this;
+  }
+
   /**
    * Gets a boolean.
    *
@@ -366,6 +417,40 @@ public interface CompoundBinaryTag extends BinaryTag, CompoundTagSetter<Compound
    */
   long@NonNull[] getLongArray(final @NonNull String key, final long@NonNull[] defaultValue);
 
+  /**
+   * A mutable view of a compound tag, used to edit it.
+   *
+   * @see #edit(Consumer)
+   */
+  interface Mutable extends CompoundTagSetter<Mutable> {
+    /**
+     * Gets a tag.
+     *
+     * @param key the key
+     * @return a tag
+     */
+    @Nullable BinaryTag get(final String key);
+
+    /**
+     * Removes the tag with key {@code key}, optionally providing {@code removedConsumer} with the tag previously associated with {@code key}.
+     *
+     * @param key the key
+     * @param removedConsumer a consumer which receives the tag being removed, if there was one
+     * @return this mutable compound
+     */
+    @NonNull Mutable remove(final @NonNull String key, final @Nullable Consumer<BinaryTag> removedConsumer);
+
+    /**
+     * Removes the tag with key {@code key}.
+     *
+     * @param key the key
+     * @return this mutable compound
+     */
+    default @NonNull Mutable remove(final @NonNull String key) {
+      return this.remove(key, null);
+    }
+  }
+
   /**
    * A compound tag builder.
    */
@@ -23,8 +23,11 @@
  */
 package net.kyori.adventure.nbt;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -37,13 +40,44 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import static java.util.Objects.requireNonNull;
 
 final class CompoundBinaryTagImpl implements CompoundBinaryTag {
-  static final CompoundBinaryTag EMPTY = new CompoundBinaryTagImpl(Collections.emptyMap());
+  static final CompoundBinaryTag EMPTY = new CompoundBinaryTagImpl(HashTrieMap.empty());
   private final Map<String, BinaryTag> tags;
   private final int hashCode;
+  private final boolean memoized;
+  private int sizeInBytes; // 0 until computed, as the payload always holds at least the end tag
+  private volatile @Nullable Reference<byte[]> encoded;
+  // the tags as a persistent map, once converted for an update
+  private @Nullable HashTrieMap<String, BinaryTag> trie;
 
   CompoundBinaryTagImpl(final Map<String, BinaryTag> tags) {
-    this.tags = Collections.unmodifiableMap(tags);
-    this.hashCode = tags.hashCode();
+    this(tags instanceof HashTrieMap ? tags : Collections.unmodifiableMap(tags), tags.hashCode(), false);
+  }
+
+  private CompoundBinaryTagImpl(final Map<String, BinaryTag> tags, final int hashCode, final boolean memoized) {
+    this.tags = tags;
+    this.hashCode = hashCode;
+    this.memoized = memoized;
+  }
+
+  /**
+   * Writes the kept encoding of {@code tag}, if it is {@link #memoized() memoized}.
+   *
+   * @param tag the tag
+   * @param output the output
+   * @return {@code true} if the encoding was written
+   * @throws IOException if an exception was encountered while writing
+   */
+  static boolean writeMemoized(final CompoundBinaryTag tag, final DataOutput output) throws IOException {
+    if(!(tag instanceof CompoundBinaryTagImpl) || !((CompoundBinaryTagImpl) tag).memoized) return false;
+    final CompoundBinaryTagImpl impl = (CompoundBinaryTagImpl) tag;
+    final /* @Nullable */ Reference<byte[]> reference = impl.encoded;
+    byte[] encoded = reference != null ? reference.get() : null;
+    if(encoded == null) {
+      encoded = ByteBufferDataOutput.encode(new CompoundBinaryTagImpl(impl.tags, impl.hashCode, false), impl.sizeInBytes(), BinaryTagTypes.COMPOUND);
+      impl.encoded = new SoftReference<>(encoded); // volatile, so readers see a filled array; racing writers at worst encode twice
+    }
+    output.write(encoded);
+    return true;
   }
 
   public boolean contains(final @NonNull String key, final @NonNull BinaryTagType<?> type) {
@@ -63,7 +97,52 @@ final class CompoundBinaryTagImpl implements CompoundBinaryTag {
 
   @Override
   public @NonNull CompoundBinaryTag put(final @NonNull String key, @NonNull final BinaryTag tag) {
-    return this.edit(map -> map.put(key, tag));
+    requireNonNull(key, "key");
+    requireNonNull(tag, "tag");
+    final HashTrieMap<String, BinaryTag> tags = this.trie();
+    final HashTrieMap<String, BinaryTag> updated = tags.plus(key, tag);
+    return updated == tags ? this : new CompoundBinaryTagImpl(updated);
+  }
+
+  @Override
+  public @NonNull CompoundBinaryTag remove(final @NonNull String key, final @Nullable Consumer<BinaryTag> removedConsumer) {
+    final /* @Nullable */ BinaryTag removed = this.tags.get(key);
+    if(removed == null) return this;
+    if(removedConsumer != null) {
+      removedConsumer.accept(removed);
+    }
+    return new CompoundBinaryTagImpl(this.trie().minus(key));
+  }
+
+  @Override
+  public @NonNull CompoundBinaryTag edit(final @NonNull Consumer<? super Mutable> editor) {
+    final CompoundTagEditor mutable = new CompoundTagEditor(this);
+    editor.accept(mutable);
+    final /* @Nullable */ Map<String, BinaryTag> tags = mutable.finish();
+    return tags == null ? this : new CompoundBinaryTagImpl(tags);
+  }
+
+  /**
+   * Gets the tags of this compound as a persistent map, so that updates share structure with it.
+   *
+   * <p>Compounds read from a source or created by a builder are backed by a hash map. It is converted on the first
+   * update, and the conversion is kept, so later updates of this compound share it instead of converting again.
+   * Updated compounds are backed by the persistent map directly.</p>
+   *
+   * @return the tags
+   */
+  @SuppressWarnings("unchecked")
+  private HashTrieMap<String, BinaryTag> trie() {
+    if(this.tags instanceof HashTrieMap) {
+      return (HashTrieMap<String, BinaryTag>) this.tags;
+    }
+    /* @Nullable */ HashTrieMap<String, BinaryTag> trie = this.trie;
+    if(trie == null) {
+      // the map only has final fields, so it is safely published; racing updates at worst convert twice
+      trie = HashTrieMap.copyOf(this.tags);
+      this.trie = trie;
+    }
+    return trie;
   }
 
   @Override
@@ -197,15 +276,32 @@ final class CompoundBinaryTagImpl implements CompoundBinaryTag {
     return defaultValue;
   }
 
-  private CompoundBinaryTag edit(final Consumer<Map<String, BinaryTag>> consumer) {
-    final Map<String, BinaryTag> tags = new HashMap<>(this.tags);
-    consumer.accept(tags);
-    return new CompoundBinaryTagImpl(tags);
+  @Override
+  public boolean equals(final Object that) {
+    if(this == that) return true;
+    if(that instanceof CompoundBinaryTagImpl) return this.tags.equals(((CompoundBinaryTagImpl) that).tags);
+    return that instanceof LazyCompoundBinaryTag && this.tags.equals(((LazyCompoundBinaryTag) that).tags());
+  }
+
+  @Override
+  public @NonNull CompoundBinaryTag memoized() {
+    if(this.memoized) return this;
+    final CompoundBinaryTagImpl memoized = new CompoundBinaryTagImpl(this.tags, this.hashCode, true);
+    memoized.sizeInBytes = this.sizeInBytes;
+    return memoized;
   }
 
   @Override
-  public boolean equals(final Object that) {
-    return this == that || (that instanceof CompoundBinaryTagImpl && this.tags.equals(((CompoundBinaryTagImpl) that).tags));
+  public int sizeInBytes() {
+    int sizeInBytes = this.sizeInBytes;
+    if(sizeInBytes == 0) {
+      sizeInBytes = Byte.BYTES; // end
+      for(final Map.Entry<String, BinaryTag> entry : this.tags.entrySet()) {
+        sizeInBytes += Byte.BYTES + Short.BYTES + ModifiedUtf8.encodedLength(entry.getKey()) + entry.getValue().sizeInBytes();
+      }
+      this.sizeInBytes = sizeInBytes;
+    }
+    return sizeInBytes;
   }
 
   @Override
@@ -0,0 +1,209 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A table of compound tag keys, used to share key strings between compound tags as they are read.
+ *
+ * <p>Keys are matched against the table by their encoded bytes, so a key which is already in
+ * the table is read without allocating a new string. Keys the table is created with are always kept.
+ * Other keys are added as they are read, up to the capacity of the table, after which they replace
+ * each other.</p>
+ *
+ * <p>A table is safe to use from multiple threads at once.</p>
+ *
+ * @see BinaryTagIO#readDataInput(java.io.DataInput, CompoundKeyTable)
+ */
+public final class CompoundKeyTable {
+  private static final int MAX_KEY_LENGTH = 64;
+  private static final int PROBES = 4;
+  private static final Set<String> VANILLA_KEYS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+    // chunks
+    "DataVersion", "Level", "xPos", "zPos", "LastUpdate", "InhabitedTime", "Status", "isLightOn", "Biomes",
+    "Heightmaps", "MOTION_BLOCKING", "MOTION_BLOCKING_NO_LEAVES", "OCEAN_FLOOR", "WORLD_SURFACE",
+    "Sections", "Y", "Palette", "BlockStates", "BlockLight", "SkyLight", "Name", "Properties",
+    "Entities", "TileEntities", "TileTicks", "LiquidTicks", "PostProcessing", "Lights", "CarvingMasks",
+    "Structures", "Starts", "References", "i", "p", "t", "x", "y", "z",
+    // entities
+    "id", "UUID", "Pos", "Motion", "Rotation", "FallDistance", "Fire", "Air", "OnGround", "Invulnerable",
+    "PortalCooldown", "CustomName", "CustomNameVisible", "Silent", "NoGravity", "Glowing", "Tags", "Passengers",
+    "Health", "HurtTime", "HurtByTimestamp", "DeathTime", "AbsorptionAmount", "FallFlying", "Brain", "memories",
+    "Attributes", "Base", "Modifiers", "Amount", "Operation", "ActiveEffects", "Id", "Amplifier", "Duration",
+    "Ambient", "ShowParticles", "ShowIcon", "HandItems", "ArmorItems", "HandDropChances", "ArmorDropChances",
+    "LeftHanded", "PersistenceRequired", "CanPickUpLoot", "DeathLootTable", "DeathLootTableSeed", "Age",
+    "PickupDelay", "Item", "Owner", "Thrower",
+    // items
+    "Count", "Slot", "tag", "Damage", "Items", "Inventory", "EnderItems", "Enchantments", "StoredEnchantments",
+    "lvl", "display", "Lore", "color", "RepairCost", "Unbreakable", "CustomModelData", "HideFlags",
+    "BlockEntityTag", "EntityTag", "AttributeModifiers", "AttributeName"
+  )));
+  private final Entry[] pinned;
+  private final Entry[] entries;
+
+  /**
+   * Gets a set of keys commonly found in chunk, entity and item data.
+   *
+   * @return a set of keys
+   */
+  public static @NonNull Set<String> vanillaKeys() {
+    return VANILLA_KEYS;
+  }
+
+  /**
+   * Creates a key table.
+   *
+   * @param capacity the maximum number of keys to add as they are read
+   * @return a key table
+   */
+  public static @NonNull CompoundKeyTable create(final int capacity) {
+    return create(capacity, Collections.emptySet());
+  }
+
+  /**
+   * Creates a key table, which always contains {@code keys}.
+   *
+   * @param capacity the maximum number of keys to add as they are read, in addition to {@code keys}
+   * @param keys the keys to always keep in the table, such as {@link #vanillaKeys()}
+   * @return a key table
+   */
+  public static @NonNull CompoundKeyTable create(final int capacity, final @NonNull Iterable<String> keys) {
+    if(capacity < 0) throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+    return new CompoundKeyTable(capacity, requireNonNull(keys, "keys"));
+  }
+
+  private CompoundKeyTable(final int capacity, final Iterable<String> keys) {
+    final Set<String> unique = new LinkedHashSet<>();
+    for(final String key : keys) {
+      unique.add(requireNonNull(key, "key"));
+    }
+    this.pinned = new Entry[tableSize(unique.size())];
+    for(final String key : unique) {
+      final byte[] bytes = encode(key);
+      final Entry entry = new Entry(hash(bytes, 0, bytes.length), bytes, key);
+      final int mask = this.pinned.length - 1;
+      int index = entry.hash & mask;
+      while(this.pinned[index] != null) {
+        index = (index + 1) & mask;
+      }
+      this.pinned[index] = entry;
+    }
+    this.entries = new Entry[capacity == 0 ? 0 : Integer.highestOneBit(Math.min(capacity, 1 << 29) * 2 - 1)];
+  }
+
+  // at least half empty, so that probing for a missing key ends quickly
+  private static int tableSize(final int size) {
+    return Math.max(2, Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1);
+  }
+
+  static byte[] encode(final String key) {
+    final int length = ModifiedUtf8.encodedLength(key);
+    if(length == key.length()) {
+      return key.getBytes(StandardCharsets.ISO_8859_1);
+    }
+    final byte[] bytes = new byte[length];
+    ModifiedUtf8.encode(key, length, bytes, 0);
+    return bytes;
+  }
+
+  static boolean matches(final byte[] key, final byte[] bytes, final int offset, final int length) {
+    if(key.length != length) return false;
+    for(int i = 0; i < length; i++) {
+      if(key[i] != bytes[offset + i]) return false;
+    }
+    return true;
+  }
+
+  private static int hash(final byte[] bytes, final int offset, final int length) {
+    int hash = length;
+    for(int i = offset, end = offset + length; i < end; i++) {
+      hash = 31 * hash + bytes[i];
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Gets the key encoded by {@code length} bytes of modified UTF-8 in {@code bytes}, from the table if possible.
+   *
+   * @param bytes the bytes
+   * @param offset the offset of the first byte
+   * @param length the number of bytes
+   * @return the key
+   * @throws UTFDataFormatException if the bytes are not valid modified UTF-8
+   */
+  @NonNull String intern(final byte@NonNull[] bytes, final int offset, final int length) throws UTFDataFormatException {
+    final int hash = hash(bytes, offset, length);
+    final Entry[] pinned = this.pinned;
+    final int pinnedMask = pinned.length - 1;
+    for(int index = hash & pinnedMask; pinned[index] != null; index = (index + 1) & pinnedMask) {
+      if(pinned[index].matches(hash, bytes, offset, length)) return pinned[index].key;
+    }
+
+    final Entry[] entries = this.entries;
+    if(entries.length == 0 || length > MAX_KEY_LENGTH) {
+      return ModifiedUtf8.decode(bytes, offset, length);
+    }
+    final int mask = entries.length - 1;
+    final int home = hash & mask;
+    int free = -1;
+    for(int probe = 0; probe < PROBES; probe++) {
+      final int index = (home + probe) & mask;
+      final /* @Nullable */ Entry entry = entries[index];
+      if(entry == null) {
+        free = index;
+        break;
+      }
+      if(entry.matches(hash, bytes, offset, length)) return entry.key;
+    }
+    final String key = ModifiedUtf8.decode(bytes, offset, length);
+    // entries are immutable, so they can be published without synchronization
+    entries[free != -1 ? free : home] = new Entry(hash, Arrays.copyOfRange(bytes, offset, offset + length), key);
+    return key;
+  }
+
+  private static final class Entry {
+    final int hash;
+    final byte[] bytes;
+    final String key;
+
+    Entry(final int hash, final byte[] bytes, final String key) {
+      this.hash = hash;
+      this.bytes = bytes;
+      this.key = key;
+    }
+
+    boolean matches(final int hash, final byte[] bytes, final int offset, final int length) {
+      return this.hash == hash && CompoundKeyTable.matches(this.bytes, bytes, offset, length);
+    }
+  }
+}
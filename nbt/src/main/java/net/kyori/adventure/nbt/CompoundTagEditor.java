@@ -0,0 +1,95 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+final class CompoundTagEditor implements CompoundBinaryTag.Mutable {
+  private final CompoundBinaryTag source;
+  private @Nullable Map<String, BinaryTag> tags; // copied from source on the first change
+  private boolean finished;
+
+  CompoundTagEditor(final CompoundBinaryTag source) {
+    this.source = source;
+  }
+
+  @Override
+  public @Nullable BinaryTag get(final String key) {
+    this.checkNotFinished();
+    return this.tags != null ? this.tags.get(key) : this.source.get(key);
+  }
+
+  @Override
+  public CompoundBinaryTag.@NonNull Mutable put(final @NonNull String key, final @NonNull BinaryTag tag) {
+    requireNonNull(key, "key");
+    requireNonNull(tag, "tag");
+    if(this.get(key) != tag) {
+      this.copy().put(key, tag);
+    }
+    return this;
+  }
+
+  @Override
+  public CompoundBinaryTag.@NonNull Mutable remove(final @NonNull String key, final @Nullable Consumer<BinaryTag> removedConsumer) {
+    final /* @Nullable */ BinaryTag removed = this.get(key);
+    if(removed != null) {
+      this.copy().remove(key);
+      if(removedConsumer != null) {
+        removedConsumer.accept(removed);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Finishes editing, after which this editor can no longer be used.
+   *
+   * @return the edited tags, or {@code null} if no changes were made
+   */
+  @Nullable Map<String, BinaryTag> finish() {
+    this.finished = true;
+    return this.tags;
+  }
+
+  private void checkNotFinished() {
+    if(this.finished) throw new IllegalStateException("Cannot use a mutable compound after its edit has finished");
+  }
+
+  private Map<String, BinaryTag> copy() {
+    if(this.tags == null) {
+      final Map<String, BinaryTag> tags = new HashMap<>((int) (this.source.keySet().size() / 0.75f) + 1);
+      for(final Map.Entry<String, ? extends BinaryTag> entry : this.source) {
+        tags.put(entry.getKey(), entry.getValue());
+      }
+      this.tags = tags;
+    }
+    return this.tags;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A compression format for binary tags.
+ *
+ * @see BinaryTagIO#readCompressedInputStream(InputStream, Compression)
+ * @see BinaryTagIO#writeCompressedOutputStream(CompoundBinaryTag, OutputStream, Compression)
+ */
+public interface Compression {
+  /**
+   * Gets a compression which leaves data uncompressed.
+   *
+   * @return a compression
+   */
+  static @NonNull Compression none() {
+    return CompressionImpl.NONE;
+  }
+
+  /**
+   * Gets a GZIP compression with the default compression level.
+   *
+   * @return a compression
+   */
+  static @NonNull Compression gzip() {
+    return CompressionImpl.GZIP;
+  }
+
+  /**
+   * Gets a GZIP compression.
+   *
+   * @param level the compression level, from {@code 0} to {@code 9}, or {@code -1} for the default level
+   * @return a compression
+   */
+  static @NonNull Compression gzip(final int level) {
+    return new CompressionImpl(CompressionImpl.Format.GZIP, level);
+  }
+
+  /**
+   * Gets a zlib compression with the default compression level, as used by region files.
+   *
+   * @return a compression
+   */
+  static @NonNull Compression zlib() {
+    return CompressionImpl.ZLIB;
+  }
+
+  /**
+   * Gets a zlib compression.
+   *
+   * @param level the compression level, from {@code 0} to {@code 9}, or {@code -1} for the default level
+   * @return a compression
+   */
+  static @NonNull Compression zlib(final int level) {
+    return new CompressionImpl(CompressionImpl.Format.ZLIB, level);
+  }
+
+  /**
+   * Gets a raw deflate compression, without any header or checksum, with the default compression level.
+   *
+   * @return a compression
+   */
+  static @NonNull Compression deflate() {
+    return CompressionImpl.DEFLATE;
+  }
+
+  /**
+   * Gets a raw deflate compression, without any header or checksum.
+   *
+   * @param level the compression level, from {@code 0} to {@code 9}, or {@code -1} for the default level
+   * @return a compression
+   */
+  static @NonNull Compression deflate(final int level) {
+    return new CompressionImpl(CompressionImpl.Format.DEFLATE, level);
+  }
+
+  /**
+   * Wraps {@code input} to decompress the data read from it.
+   *
+   * <p>Closing the returned stream closes {@code input}.</p>
+   *
+   * @param input the input stream
+   * @return the decompressing input stream
+   * @throws IOException if an exception was encountered while reading the compression header
+   */
+  @NonNull InputStream decompress(final @NonNull InputStream input) throws IOException;
+
+  /**
+   * Wraps {@code output} to compress the data written to it.
+   *
+   * <p>Closing the returned stream finishes the compressed data, and closes {@code output}.</p>
+   *
+   * @param output the output stream
+   * @return the compressing output stream
+   * @throws IOException if an exception was encountered while writing the compression header
+   */
+  @NonNull OutputStream compress(final @NonNull OutputStream output) throws IOException;
+}
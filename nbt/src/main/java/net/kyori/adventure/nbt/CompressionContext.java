@@ -0,0 +1,357 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * The per-thread state used by the built-in compressions when reading and writing compound tags.
+ *
+ * <p>A context keeps its native inflaters and deflaters and its buffers between calls, instead of allocating them
+ * for every tag. Tags are decoded as they are inflated, and deflated as they are encoded, through fixed-size
+ * chunk buffers, so a context holds on to two chunks of memory no matter how large the tags it handles are.</p>
+ */
+final class CompressionContext {
+  private static final int CHUNK_SIZE = 8192;
+  private static final int GZIP_MAGIC = 0x8b1f;
+  private static final int GZIP_FHCRC = 2;
+  private static final int GZIP_FEXTRA = 4;
+  private static final int GZIP_FNAME = 8;
+  private static final int GZIP_FCOMMENT = 16;
+  private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+  private static final ThreadLocal<CompressionContext> CONTEXT = ThreadLocal.withInitial(() -> new CompressionContext(true));
+  // compressed data, as read from or written to the underlying stream
+  private final byte[] chunk = new byte[CHUNK_SIZE];
+  // uncompressed data, as inflated for or encoded by a tag
+  private final byte[] data = new byte[CHUNK_SIZE];
+  private final CRC32 crc = new CRC32();
+  private final DataInputStream inflating = new DataInputStream(new Inflating());
+  private final DataOutputStream deflating = new DataOutputStream(new Deflating());
+  private Inflater zlibInflater;
+  private Inflater rawInflater;
+  private Deflater zlibDeflater;
+  private Deflater rawDeflater;
+  private final boolean shared;
+  private int position;
+  private int limit;
+  private boolean inUse;
+  // the state of the current call
+  private Inflater inflater;
+  private Deflater deflater;
+  private InputStream input;
+  private OutputStream output;
+  private boolean gzip;
+  private int dataPosition;
+  private int dataLimit;
+  private int length;
+  private boolean ended;
+
+  private CompressionContext(final boolean shared) {
+    this.shared = shared;
+  }
+
+  /**
+   * Acquires the context of the current thread, or a new context if it is already in use.
+   *
+   * @return a context, which must be {@link #release() released} after use
+   */
+  static CompressionContext acquire() {
+    final CompressionContext context = CONTEXT.get();
+    if(context.inUse) return new CompressionContext(false);
+    context.inUse = true;
+    return context;
+  }
+
+  /**
+   * Releases this context, so it can be acquired again.
+   */
+  void release() {
+    this.input = null;
+    this.output = null;
+    if(this.shared) {
+      this.inUse = false;
+    } else {
+      // contexts which are not shared end their native state immediately, rather than waiting to be collected
+      if(this.zlibInflater != null) this.zlibInflater.end();
+      if(this.rawInflater != null) this.rawInflater.end();
+      if(this.zlibDeflater != null) this.zlibDeflater.end();
+      if(this.rawDeflater != null) this.rawDeflater.end();
+    }
+  }
+
+  /**
+   * Starts decompressing {@code input}.
+   *
+   * <p>The returned input inflates data as it is read, and is only valid until this context is released.
+   * Once the tag has been read, {@link #endDecompress()} must be called to check the end of the data.</p>
+   *
+   * @param format the compression format
+   * @param input the input
+   * @return an input reading the decompressed data
+   * @throws IOException if an exception was encountered while decompressing
+   */
+  DataInput decompress(final CompressionImpl.Format format, final InputStream input) throws IOException {
+    this.input = input;
+    this.position = 0;
+    this.limit = 0;
+    this.dataPosition = 0;
+    this.dataLimit = 0;
+    this.length = 0;
+    this.ended = false;
+    this.gzip = format == CompressionImpl.Format.GZIP;
+    if(this.gzip) {
+      this.readGzipHeader(input);
+      this.crc.reset();
+    }
+    this.inflater = this.inflater(format == CompressionImpl.Format.ZLIB);
+    this.inflater.setInput(this.chunk, this.position, this.limit - this.position);
+    return this.inflating;
+  }
+
+  /**
+   * Inflates the rest of the data, and checks the GZIP trailer if there is one.
+   *
+   * @throws IOException if an exception was encountered while decompressing
+   */
+  void endDecompress() throws IOException {
+    while(this.inflate()) {
+      // data after the tag is ignored, but still checked
+    }
+  }
+
+  /**
+   * Inflates the next chunk of data.
+   *
+   * @return {@code false} if the end of the data was reached
+   * @throws IOException if an exception was encountered while decompressing
+   */
+  private boolean inflate() throws IOException {
+    if(this.ended) return false;
+    final Inflater inflater = this.inflater;
+    try {
+      int inflated;
+      while((inflated = inflater.inflate(this.data, 0, CHUNK_SIZE)) == 0) {
+        if(inflater.finished()) {
+          this.ended = true;
+          this.position = this.limit - inflater.getRemaining();
+          if(this.gzip) {
+            if(this.readIntLE(this.input) != (int) this.crc.getValue()) throw new ZipException("Corrupt GZIP trailer");
+            if(this.readIntLE(this.input) != this.length) throw new ZipException("Corrupt GZIP trailer");
+          }
+          return false;
+        } else if(inflater.needsDictionary()) {
+          throw new ZipException("Compressed data requires a preset dictionary");
+        } else if(inflater.needsInput()) {
+          this.fill(this.input);
+          inflater.setInput(this.chunk, 0, this.limit);
+        }
+      }
+      if(this.gzip) this.crc.update(this.data, 0, inflated);
+      this.length += inflated;
+      this.dataPosition = 0;
+      this.dataLimit = inflated;
+      return true;
+    } catch(final DataFormatException e) {
+      throw new ZipException(e.getMessage());
+    }
+  }
+
+  /**
+   * Encodes {@code tag} and writes it to {@code output}, compressed.
+   *
+   * @param format the compression format
+   * @param level the compression level
+   * @param tag the compound tag
+   * @param output the output
+   * @throws IOException if an exception was encountered while writing
+   */
+  void compress(final CompressionImpl.Format format, final int level, final CompoundBinaryTag tag, final OutputStream output) throws IOException {
+    this.output = output;
+    this.dataPosition = 0;
+    this.length = 0;
+    this.gzip = format == CompressionImpl.Format.GZIP;
+    if(this.gzip) {
+      output.write(GZIP_HEADER);
+      this.crc.reset();
+    }
+    this.deflater = this.deflater(format == CompressionImpl.Format.ZLIB, level);
+    BinaryTagIO.writeDataOutput(tag, this.deflating);
+    this.deflate();
+    this.deflater.finish();
+    while(!this.deflater.finished()) {
+      output.write(this.chunk, 0, this.deflater.deflate(this.chunk));
+    }
+    if(this.gzip) {
+      writeIntLE(output, (int) this.crc.getValue());
+      writeIntLE(output, this.length);
+    }
+  }
+
+  /**
+   * Deflates the encoded data, writing whatever compressed data is ready.
+   *
+   * @throws IOException if an exception was encountered while writing
+   */
+  private void deflate() throws IOException {
+    final int encoded = this.dataPosition;
+    if(encoded == 0) return;
+    if(this.gzip) this.crc.update(this.data, 0, encoded);
+    this.length += encoded;
+    this.dataPosition = 0;
+    final Deflater deflater = this.deflater;
+    deflater.setInput(this.data, 0, encoded);
+    while(!deflater.needsInput()) {
+      this.output.write(this.chunk, 0, deflater.deflate(this.chunk));
+    }
+  }
+
+  private Inflater inflater(final boolean zlib) {
+    if(zlib) {
+      if(this.zlibInflater == null) this.zlibInflater = new Inflater();
+      this.zlibInflater.reset();
+      return this.zlibInflater;
+    }
+    if(this.rawInflater == null) this.rawInflater = new Inflater(true);
+    this.rawInflater.reset();
+    return this.rawInflater;
+  }
+
+  private Deflater deflater(final boolean zlib, final int level) {
+    final Deflater deflater;
+    if(zlib) {
+      if(this.zlibDeflater == null) this.zlibDeflater = new Deflater(level);
+      deflater = this.zlibDeflater;
+    } else {
+      if(this.rawDeflater == null) this.rawDeflater = new Deflater(level, true);
+      deflater = this.rawDeflater;
+    }
+    deflater.reset();
+    deflater.setLevel(level);
+    return deflater;
+  }
+
+  private void fill(final InputStream input) throws IOException {
+    final int read = input.read(this.chunk);
+    if(read == -1) throw new EOFException("Unexpected end of compressed data");
+    this.position = 0;
+    this.limit = read;
+  }
+
+  private int readByte(final InputStream input) throws IOException {
+    if(this.position == this.limit) this.fill(input);
+    return this.chunk[this.position++] & 0xff;
+  }
+
+  private int readShortLE(final InputStream input) throws IOException {
+    return this.readByte(input) | this.readByte(input) << 8;
+  }
+
+  private int readIntLE(final InputStream input) throws IOException {
+    return this.readShortLE(input) | this.readShortLE(input) << 16;
+  }
+
+  private void skip(final InputStream input, final int length) throws IOException {
+    for(int i = 0; i < length; i++) {
+      this.readByte(input);
+    }
+  }
+
+  private void readGzipHeader(final InputStream input) throws IOException {
+    if(this.readShortLE(input) != GZIP_MAGIC) throw new ZipException("Not in GZIP format");
+    if(this.readByte(input) != Deflater.DEFLATED) throw new ZipException("Unsupported compression method");
+    final int flags = this.readByte(input);
+    this.skip(input, 6); // modification time, extra flags, operating system
+    if((flags & GZIP_FEXTRA) != 0) this.skip(input, this.readShortLE(input));
+    if((flags & GZIP_FNAME) != 0) {
+      while(this.readByte(input) != 0) {
+        // skip file name
+      }
+    }
+    if((flags & GZIP_FCOMMENT) != 0) {
+      while(this.readByte(input) != 0) {
+        // skip comment
+      }
+    }
+    if((flags & GZIP_FHCRC) != 0) this.skip(input, 2);
+  }
+
+  private static void writeIntLE(final OutputStream output, final int value) throws IOException {
+    output.write(value);
+    output.write(value >>> 8);
+    output.write(value >>> 16);
+    output.write(value >>> 24);
+  }
+
+  private final class Inflating extends InputStream {
+    @Override
+    public int read() throws IOException {
+      final CompressionContext context = CompressionContext.this;
+      if(context.dataPosition == context.dataLimit && !context.inflate()) return -1;
+      return context.data[context.dataPosition++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      if(len == 0) return 0;
+      final CompressionContext context = CompressionContext.this;
+      if(context.dataPosition == context.dataLimit && !context.inflate()) return -1;
+      final int read = Math.min(len, context.dataLimit - context.dataPosition);
+      System.arraycopy(context.data, context.dataPosition, b, off, read);
+      context.dataPosition += read;
+      return read;
+    }
+  }
+
+  private final class Deflating extends OutputStream {
+    @Override
+    public void write(final int b) throws IOException {
+      final CompressionContext context = CompressionContext.this;
+      if(context.dataPosition == CHUNK_SIZE) context.deflate();
+      context.data[context.dataPosition++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      final CompressionContext context = CompressionContext.this;
+      for(int index = off, end = off + len; index < end; ) {
+        if(context.dataPosition == CHUNK_SIZE) context.deflate();
+        final int written = Math.min(end - index, CHUNK_SIZE - context.dataPosition);
+        System.arraycopy(b, index, context.data, context.dataPosition, written);
+        context.dataPosition += written;
+        index += written;
+      }
+    }
+  }
+}
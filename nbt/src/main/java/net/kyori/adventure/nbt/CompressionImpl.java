@@ -0,0 +1,150 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+final class CompressionImpl implements Compression {
+  static final Compression NONE = new CompressionImpl(Format.NONE, Deflater.DEFAULT_COMPRESSION);
+  static final Compression GZIP = new CompressionImpl(Format.GZIP, Deflater.DEFAULT_COMPRESSION);
+  static final Compression ZLIB = new CompressionImpl(Format.ZLIB, Deflater.DEFAULT_COMPRESSION);
+  static final Compression DEFLATE = new CompressionImpl(Format.DEFLATE, Deflater.DEFAULT_COMPRESSION);
+  private final Format format;
+  private final int level;
+
+  CompressionImpl(final Format format, final int level) {
+    if(level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+      throw new IllegalArgumentException("Invalid compression level " + level);
+    }
+    this.format = format;
+    this.level = level;
+  }
+
+  Format format() {
+    return this.format;
+  }
+
+  int level() {
+    return this.level;
+  }
+
+  @Override
+  public @NonNull InputStream decompress(final @NonNull InputStream input) throws IOException {
+    switch(this.format) {
+      case GZIP:
+        return new GZIPInputStream(input);
+      case ZLIB:
+        return new EndingInflaterInputStream(input, new Inflater());
+      case DEFLATE:
+        return new EndingInflaterInputStream(input, new Inflater(true));
+      default:
+        return input;
+    }
+  }
+
+  @Override
+  public @NonNull OutputStream compress(final @NonNull OutputStream output) throws IOException {
+    switch(this.format) {
+      case GZIP:
+        return new GZIPOutputStream(output) {
+          {
+            this.def.setLevel(CompressionImpl.this.level);
+          }
+        };
+      case ZLIB:
+        return new EndingDeflaterOutputStream(output, new Deflater(this.level));
+      case DEFLATE:
+        return new EndingDeflaterOutputStream(output, new Deflater(this.level, true));
+      default:
+        return output;
+    }
+  }
+
+  @Override
+  public boolean equals(final @Nullable Object other) {
+    if(this == other) return true;
+    if(other == null || this.getClass() != other.getClass()) return false;
+    final CompressionImpl that = (CompressionImpl) other;
+    return this.format == that.format && (this.format == Format.NONE || this.level == that.level);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * this.format.hashCode() + (this.format == Format.NONE ? 0 : this.level);
+  }
+
+  @Override
+  public String toString() {
+    return this.format == Format.NONE ? "none" : this.format.name().toLowerCase(Locale.ROOT) + "(" + this.level + ")";
+  }
+
+  enum Format {
+    NONE,
+    GZIP,
+    ZLIB,
+    DEFLATE;
+  }
+
+  // streams given an inflater or deflater do not end it when they are closed
+  private static final class EndingInflaterInputStream extends InflaterInputStream {
+    EndingInflaterInputStream(final InputStream input, final Inflater inflater) {
+      super(input, inflater);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        this.inf.end();
+      }
+    }
+  }
+
+  private static final class EndingDeflaterOutputStream extends DeflaterOutputStream {
+    EndingDeflaterOutputStream(final OutputStream output, final Deflater deflater) {
+      super(output, deflater);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        this.def.end();
+      }
+    }
+  }
+}
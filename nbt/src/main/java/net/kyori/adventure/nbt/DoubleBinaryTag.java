@@ -39,6 +39,8 @@ public interface DoubleBinaryTag extends NumberBinaryTag {
    * @return a binary tag
    */
   static @NonNull DoubleBinaryTag of(final double value) {
+    final int index = NumberTagCache.index(value);
+    if(index != -1) return DoubleBinaryTagImpl.CACHE[index];
     return new DoubleBinaryTagImpl(value);
   }
 
@@ -47,6 +49,16 @@ public interface DoubleBinaryTag extends NumberBinaryTag {
     return BinaryTagTypes.DOUBLE;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitDouble(this, parameter);
+  }
+
+  @Override
+  default int sizeInBytes() {
+    return Double.BYTES;
+  }
+
   /**
    * Gets the value.
    *
@@ -56,6 +68,14 @@ public interface DoubleBinaryTag extends NumberBinaryTag {
 }
 
 final class DoubleBinaryTagImpl implements DoubleBinaryTag {
+  static final DoubleBinaryTagImpl[] CACHE = new DoubleBinaryTagImpl[NumberTagCache.SIZE];
+
+  static {
+    for(int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new DoubleBinaryTagImpl(i + NumberTagCache.LOW);
+    }
+  }
+
   private final double value;
 
   DoubleBinaryTagImpl(final double value) {
@@ -42,6 +42,16 @@ public interface EndBinaryTag extends BinaryTag {
   default @NonNull BinaryTagType<EndBinaryTag> type() {
     return BinaryTagTypes.END;
   }
+
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitEnd(this, parameter);
+  }
+
+  @Override
+  default int sizeInBytes() {
+    return 0;
+  }
 }
 
 final class EndBinaryTagImpl implements EndBinaryTag {
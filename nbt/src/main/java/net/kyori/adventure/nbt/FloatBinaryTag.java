@@ -39,6 +39,8 @@ public interface FloatBinaryTag extends NumberBinaryTag {
    * @return a binary tag
    */
   static @NonNull FloatBinaryTag of(final float value) {
+    final int index = NumberTagCache.index(value);
+    if(index != -1) return FloatBinaryTagImpl.CACHE[index];
     return new FloatBinaryTagImpl(value);
   }
 
@@ -47,6 +49,16 @@ public interface FloatBinaryTag extends NumberBinaryTag {
     return BinaryTagTypes.FLOAT;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitFloat(this, parameter);
+  }
+
+  @Override
+  default int sizeInBytes() {
+    return Float.BYTES;
+  }
+
   /**
    * Gets the value.
    *
@@ -56,6 +68,14 @@ public interface FloatBinaryTag extends NumberBinaryTag {
 }
 
 final class FloatBinaryTagImpl implements FloatBinaryTag {
+  static final FloatBinaryTagImpl[] CACHE = new FloatBinaryTagImpl[NumberTagCache.SIZE];
+
+  static {
+    for(int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new FloatBinaryTagImpl(i + NumberTagCache.LOW);
+    }
+  }
+
   private final float value;
 
   FloatBinaryTagImpl(final float value) {
@@ -0,0 +1,398 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable map backed by a hash array mapped trie.
+ *
+ * <p>Updates return a new map which shares all unchanged nodes with this map,
+ * making {@link #plus(Object, Object)} and {@link #minus(Object)} {@code O(log n)}.</p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class HashTrieMap<K, V> extends AbstractMap<K, V> {
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final int MAX_DEPTH = 7; // ceil(32 / BITS)
+  private static final HashTrieMap<?, ?> EMPTY = new HashTrieMap<>(new BitmapNode(0, new Object[0]), 0, 0);
+  private final Node root;
+  private final int size;
+  private final int hashCode;
+  private @Nullable Set<Entry<K, V>> entrySet;
+
+  private HashTrieMap(final Node root, final int size, final int hashCode) {
+    this.root = root;
+    this.size = size;
+    this.hashCode = hashCode;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <K, V> @NonNull HashTrieMap<K, V> empty() {
+    return (HashTrieMap<K, V>) EMPTY;
+  }
+
+  static <K, V> @NonNull HashTrieMap<K, V> copyOf(final @NonNull Map<? extends K, ? extends V> map) {
+    HashTrieMap<K, V> copy = empty();
+    for(final Entry<? extends K, ? extends V> entry : map.entrySet()) {
+      copy = copy.plus(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  /**
+   * Gets a map with {@code key} mapped to {@code value}.
+   *
+   * @param key the key
+   * @param value the value
+   * @return a map, or this map if {@code key} is already mapped to {@code value}
+   */
+  @NonNull HashTrieMap<K, V> plus(final @NonNull K key, final @NonNull V value) {
+    final Change change = new Change();
+    final Node root = this.root.plus(hash(key), 0, key, value, change);
+    if(root == this.root) return this;
+    if(change.previous == null) {
+      return new HashTrieMap<>(root, this.size + 1, this.hashCode + entryHash(key, value));
+    }
+    return new HashTrieMap<>(root, this.size, this.hashCode - entryHash(key, change.previous) + entryHash(key, value));
+  }
+
+  /**
+   * Gets a map without a mapping for {@code key}.
+   *
+   * @param key the key
+   * @return a map, or this map if there is no mapping for {@code key}
+   */
+  @NonNull HashTrieMap<K, V> minus(final @NonNull Object key) {
+    final Change change = new Change();
+    final Node root = this.root.minus(hash(key), 0, key, change);
+    if(change.previous == null) return this;
+    return new HashTrieMap<>(root == null ? EMPTY.root : root, this.size - 1, this.hashCode - entryHash(key, change.previous));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @Nullable V get(final Object key) {
+    if(key == null) return null;
+    return (V) this.root.get(hash(key), 0, key);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return this.get(key) != null; // values are never null
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hashCode;
+  }
+
+  @Override
+  public @NonNull Set<Entry<K, V>> entrySet() {
+    if(this.entrySet == null) {
+      this.entrySet = new AbstractSet<Entry<K, V>>() {
+        @Override
+        public @NonNull Iterator<Entry<K, V>> iterator() {
+          return new EntryIterator<>(HashTrieMap.this.root);
+        }
+
+        @Override
+        public int size() {
+          return HashTrieMap.this.size;
+        }
+      };
+    }
+    return this.entrySet;
+  }
+
+  private static int hash(final Object key) {
+    final int hash = key.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  private static int entryHash(final Object key, final Object value) {
+    return key.hashCode() ^ value.hashCode();
+  }
+
+  private static int index(final int hash, final int shift) {
+    return (hash >>> shift) & MASK;
+  }
+
+  private static Object[] insertPair(final Object[] array, final int at, final Object key, final Object value) {
+    final Object[] result = new Object[array.length + 2];
+    System.arraycopy(array, 0, result, 0, at);
+    result[at] = key;
+    result[at + 1] = value;
+    System.arraycopy(array, at, result, at + 2, array.length - at);
+    return result;
+  }
+
+  private static Object[] removePair(final Object[] array, final int at) {
+    final Object[] result = new Object[array.length - 2];
+    System.arraycopy(array, 0, result, 0, at);
+    System.arraycopy(array, at + 2, result, at, array.length - at - 2);
+    return result;
+  }
+
+  private static Object[] replace(final Object[] array, final int at, final Object value) {
+    final Object[] result = array.clone();
+    result[at] = value;
+    return result;
+  }
+
+  /**
+   * Records the value replaced or removed by an update.
+   */
+  static final class Change {
+    @Nullable Object previous;
+  }
+
+  /**
+   * A node of the trie.
+   *
+   * <p>Nodes store key-value pairs in {@code array}. A pair with a {@code null} key holds a child node as its value.</p>
+   */
+  abstract static class Node {
+    final Object[] array;
+
+    Node(final Object[] array) {
+      this.array = array;
+    }
+
+    abstract @Nullable Object get(final int hash, final int shift, final Object key);
+
+    abstract Node plus(final int hash, final int shift, final Object key, final Object value, final Change change);
+
+    abstract @Nullable Node minus(final int hash, final int shift, final Object key, final Change change);
+
+    static Node merge(final int shift, final Object key0, final Object value0, final int hash1, final Object key1, final Object value1) {
+      final int hash0 = hash(key0);
+      if(hash0 == hash1 || shift >= MAX_DEPTH * BITS) {
+        return new CollisionNode(hash0, new Object[]{key0, value0, key1, value1});
+      }
+      final int index0 = index(hash0, shift);
+      final int index1 = index(hash1, shift);
+      if(index0 == index1) {
+        return new BitmapNode(1 << index0, new Object[]{null, merge(shift + BITS, key0, value0, hash1, key1, value1)});
+      }
+      final Object[] array = index0 < index1 ? new Object[]{key0, value0, key1, value1} : new Object[]{key1, value1, key0, value0};
+      return new BitmapNode((1 << index0) | (1 << index1), array);
+    }
+  }
+
+  /**
+   * A node holding up to 32 pairs, selected by 5 bits of the hash of their keys.
+   */
+  static final class BitmapNode extends Node {
+    private final int bitmap;
+
+    BitmapNode(final int bitmap, final Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    private int offset(final int bit) {
+      return Integer.bitCount(this.bitmap & (bit - 1)) << 1;
+    }
+
+    @Override
+    @Nullable Object get(final int hash, final int shift, final Object key) {
+      final int bit = 1 << index(hash, shift);
+      if((this.bitmap & bit) == 0) return null;
+      final int offset = this.offset(bit);
+      final Object existing = this.array[offset];
+      if(existing == null) return ((Node) this.array[offset + 1]).get(hash, shift + BITS, key);
+      return key.equals(existing) ? this.array[offset + 1] : null;
+    }
+
+    @Override
+    Node plus(final int hash, final int shift, final Object key, final Object value, final Change change) {
+      final int bit = 1 << index(hash, shift);
+      final int offset = this.offset(bit);
+      if((this.bitmap & bit) == 0) {
+        return new BitmapNode(this.bitmap | bit, insertPair(this.array, offset, key, value));
+      }
+      final Object existing = this.array[offset];
+      final Object existingValue = this.array[offset + 1];
+      if(existing == null) {
+        final Node child = ((Node) existingValue).plus(hash, shift + BITS, key, value, change);
+        return child == existingValue ? this : new BitmapNode(this.bitmap, replace(this.array, offset + 1, child));
+      }
+      if(key.equals(existing)) {
+        if(value == existingValue) return this;
+        change.previous = existingValue;
+        return new BitmapNode(this.bitmap, replace(this.array, offset + 1, value));
+      }
+      final Object[] array = replace(this.array, offset, null);
+      array[offset + 1] = merge(shift + BITS, existing, existingValue, hash, key, value);
+      return new BitmapNode(this.bitmap, array);
+    }
+
+    @Override
+    @Nullable Node minus(final int hash, final int shift, final Object key, final Change change) {
+      final int bit = 1 << index(hash, shift);
+      if((this.bitmap & bit) == 0) return this;
+      final int offset = this.offset(bit);
+      final Object existing = this.array[offset];
+      final Object existingValue = this.array[offset + 1];
+      if(existing == null) {
+        final Node child = ((Node) existingValue).minus(hash, shift + BITS, key, change);
+        if(child == existingValue) return this;
+        if(child != null) {
+          if(child.array.length == 2 && child.array[0] != null) {
+            // pull a lone remaining pair up into this node
+            final Object[] array = replace(this.array, offset, child.array[0]);
+            array[offset + 1] = child.array[1];
+            return new BitmapNode(this.bitmap, array);
+          }
+          return new BitmapNode(this.bitmap, replace(this.array, offset + 1, child));
+        }
+      } else if(key.equals(existing)) {
+        change.previous = existingValue;
+      } else {
+        return this;
+      }
+      if(this.bitmap == bit) return null;
+      return new BitmapNode(this.bitmap ^ bit, removePair(this.array, offset));
+    }
+  }
+
+  /**
+   * A node holding pairs whose keys all have the same hash.
+   */
+  static final class CollisionNode extends Node {
+    private final int hash;
+
+    CollisionNode(final int hash, final Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    private int offset(final Object key) {
+      for(int i = 0; i < this.array.length; i += 2) {
+        if(key.equals(this.array[i])) return i;
+      }
+      return -1;
+    }
+
+    @Override
+    @Nullable Object get(final int hash, final int shift, final Object key) {
+      if(hash != this.hash) return null;
+      final int offset = this.offset(key);
+      return offset == -1 ? null : this.array[offset + 1];
+    }
+
+    @Override
+    Node plus(final int hash, final int shift, final Object key, final Object value, final Change change) {
+      if(hash != this.hash) {
+        // the new key only shares a prefix with the colliding keys, so split this node
+        return new BitmapNode(1 << index(this.hash, shift), new Object[]{null, this}).plus(hash, shift, key, value, change);
+      }
+      final int offset = this.offset(key);
+      if(offset == -1) return new CollisionNode(hash, insertPair(this.array, this.array.length, key, value));
+      if(this.array[offset + 1] == value) return this;
+      change.previous = this.array[offset + 1];
+      return new CollisionNode(hash, replace(this.array, offset + 1, value));
+    }
+
+    @Override
+    @Nullable Node minus(final int hash, final int shift, final Object key, final Change change) {
+      if(hash != this.hash) return this;
+      final int offset = this.offset(key);
+      if(offset == -1) return this;
+      change.previous = this.array[offset + 1];
+      if(this.array.length == 2) return null;
+      return new CollisionNode(hash, removePair(this.array, offset));
+    }
+  }
+
+  /**
+   * A depth-first iterator over the pairs of a trie.
+   */
+  static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+    private final Object[][] arrays = new Object[MAX_DEPTH + 2][];
+    private final int[] offsets = new int[MAX_DEPTH + 2];
+    private int depth;
+    private @Nullable Entry<K, V> next;
+
+    EntryIterator(final Node root) {
+      this.arrays[0] = root.array;
+      this.next = this.advance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private @Nullable Entry<K, V> advance() {
+      while(this.depth >= 0) {
+        final Object[] array = this.arrays[this.depth];
+        final int offset = this.offsets[this.depth];
+        if(offset == array.length) {
+          this.depth--;
+          continue;
+        }
+        this.offsets[this.depth] = offset + 2;
+        final Object key = array[offset];
+        if(key == null) {
+          this.depth++;
+          this.arrays[this.depth] = ((Node) array[offset + 1]).array;
+          this.offsets[this.depth] = 0;
+        } else {
+          return new SimpleImmutableEntry<>((K) key, (V) array[offset + 1]);
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next != null;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      final Entry<K, V> next = this.next;
+      if(next == null) throw new NoSuchElementException();
+      this.next = this.advance();
+      return next;
+    }
+  }
+}
@@ -23,11 +23,19 @@
  */
 package net.kyori.adventure.nbt;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 
 final class IOStreamUtil {
+  private static final int CHUNK_SIZE = 8192;
+
   private IOStreamUtil() {
   }
 
@@ -68,4 +76,114 @@ final class IOStreamUtil {
       }
     };
   }
+
+  static void skipFully(final DataInput input, final long length) throws IOException {
+    if(length < 0) {
+      throw new IOException("Cannot skip a negative number of bytes: " + length);
+    }
+    long remaining = length;
+    while(remaining > 0) {
+      final int skipped = input.skipBytes((int) Math.min(remaining, Integer.MAX_VALUE));
+      if(skipped > 0) {
+        remaining -= skipped;
+      } else {
+        input.readByte(); // make progress, or fail at the end of the input
+        remaining--;
+      }
+    }
+  }
+
+  static int[] readInts(final DataInput input, final int length) throws IOException {
+    final int bytes = byteLength(length, Integer.BYTES);
+    if(input instanceof ByteBufferDataInput) {
+      final ByteBufferDataInput in = (ByteBufferDataInput) input;
+      final ByteBuffer buffer = in.buffer();
+      buffer.position(in.advance(bytes));
+      final int[] value = new int[length];
+      buffer.asIntBuffer().get(value);
+      return value;
+    }
+    final int[] value = new int[length];
+    final byte[] chunk = new byte[Math.min(bytes, CHUNK_SIZE)];
+    final IntBuffer view = ByteBuffer.wrap(chunk).asIntBuffer();
+    for(int i = 0; i < length; ) {
+      final int count = Math.min(length - i, view.capacity());
+      input.readFully(chunk, 0, count * Integer.BYTES);
+      view.clear();
+      view.get(value, i, count);
+      i += count;
+    }
+    return value;
+  }
+
+  static long[] readLongs(final DataInput input, final int length) throws IOException {
+    final int bytes = byteLength(length, Long.BYTES);
+    if(input instanceof ByteBufferDataInput) {
+      final ByteBufferDataInput in = (ByteBufferDataInput) input;
+      final ByteBuffer buffer = in.buffer();
+      buffer.position(in.advance(bytes));
+      final long[] value = new long[length];
+      buffer.asLongBuffer().get(value);
+      return value;
+    }
+    final long[] value = new long[length];
+    final byte[] chunk = new byte[Math.min(bytes, CHUNK_SIZE)];
+    final LongBuffer view = ByteBuffer.wrap(chunk).asLongBuffer();
+    for(int i = 0; i < length; ) {
+      final int count = Math.min(length - i, view.capacity());
+      input.readFully(chunk, 0, count * Long.BYTES);
+      view.clear();
+      view.get(value, i, count);
+      i += count;
+    }
+    return value;
+  }
+
+  static void writeInts(final DataOutput output, final int[] value) throws IOException {
+    final int bytes = value.length * Integer.BYTES;
+    if(output instanceof ByteBufferDataOutput) {
+      final ByteBuffer buffer = ((ByteBufferDataOutput) output).ensureWritable(bytes);
+      buffer.asIntBuffer().put(value);
+      buffer.position(buffer.position() + bytes);
+      return;
+    }
+    final byte[] chunk = new byte[Math.min(bytes, CHUNK_SIZE)];
+    final IntBuffer view = ByteBuffer.wrap(chunk).asIntBuffer();
+    for(int i = 0; i < value.length; ) {
+      final int count = Math.min(value.length - i, view.capacity());
+      view.clear();
+      view.put(value, i, count);
+      output.write(chunk, 0, count * Integer.BYTES);
+      i += count;
+    }
+  }
+
+  static void writeLongs(final DataOutput output, final long[] value) throws IOException {
+    final int bytes = value.length * Long.BYTES;
+    if(output instanceof ByteBufferDataOutput) {
+      final ByteBuffer buffer = ((ByteBufferDataOutput) output).ensureWritable(bytes);
+      buffer.asLongBuffer().put(value);
+      buffer.position(buffer.position() + bytes);
+      return;
+    }
+    final byte[] chunk = new byte[Math.min(bytes, CHUNK_SIZE)];
+    final LongBuffer view = ByteBuffer.wrap(chunk).asLongBuffer();
+    for(int i = 0; i < value.length; ) {
+      final int count = Math.min(value.length - i, view.capacity());
+      view.clear();
+      view.put(value, i, count);
+      output.write(chunk, 0, count * Long.BYTES);
+      i += count;
+    }
+  }
+
+  private static int byteLength(final int length, final int size) throws IOException {
+    if(length < 0) {
+      throw new IOException("Negative array length: " + length);
+    }
+    if(length > Integer.MAX_VALUE / size) {
+      throw new EOFException("Array of " + length + " elements is too large to read");
+    }
+    return length * size;
+  }
 }
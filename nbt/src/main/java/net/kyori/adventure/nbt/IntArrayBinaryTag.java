@@ -44,6 +44,11 @@ public interface IntArrayBinaryTag extends BinaryTag {
     return BinaryTagTypes.INT_ARRAY;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitIntArray(this, parameter);
+  }
+
   /**
    * Gets the value.
    *
@@ -41,6 +41,11 @@ final class IntArrayBinaryTagImpl implements IntArrayBinaryTag {
     return Arrays.copyOf(this.value, this.value.length);
   }
 
+  @Override
+  public int sizeInBytes() {
+    return Integer.BYTES + Integer.BYTES * this.value.length;
+  }
+
   // to avoid copying array internally
   static int[] value(final IntArrayBinaryTag tag) {
     return (tag instanceof IntArrayBinaryTagImpl) ? ((IntArrayBinaryTagImpl) tag).value : tag.value();
@@ -39,6 +39,8 @@ public interface IntBinaryTag extends NumberBinaryTag {
    * @return a binary tag
    */
   static @NonNull IntBinaryTag of(final int value) {
+    final int index = NumberTagCache.index(value);
+    if(index != -1) return IntBinaryTagImpl.CACHE[index];
     return new IntBinaryTagImpl(value);
   }
 
@@ -47,6 +49,16 @@ public interface IntBinaryTag extends NumberBinaryTag {
     return BinaryTagTypes.INT;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitInt(this, parameter);
+  }
+
+  @Override
+  default int sizeInBytes() {
+    return Integer.BYTES;
+  }
+
   /**
    * Gets the value.
    *
@@ -56,6 +68,14 @@ public interface IntBinaryTag extends NumberBinaryTag {
 }
 
 final class IntBinaryTagImpl implements IntBinaryTag {
+  static final IntBinaryTagImpl[] CACHE = new IntBinaryTagImpl[NumberTagCache.SIZE];
+
+  static {
+    for(int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new IntBinaryTagImpl(i + NumberTagCache.LOW);
+    }
+  }
+
   private final int value;
 
   IntBinaryTagImpl(final int value) {
@@ -0,0 +1,434 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import net.kyori.examination.ExaminableProperty;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A compound tag which decodes its elements from their binary representation on demand.
+ *
+ * <p>Only the keys and the locations of the values are read when the tag is created,
+ * values are decoded and cached the first time they are requested. Nested compounds
+ * are lazy as well, and are written by copying their original encoding.</p>
+ */
+final class LazyCompoundBinaryTag implements CompoundBinaryTag {
+  private static final int INITIAL_CAPACITY = 8;
+  private final ByteBuffer source;
+  private final int start;
+  private final int end;
+  private final String[] keys;
+  private final BinaryTagType<? extends BinaryTag>[] types;
+  private final int[] offsets;
+  private final int[] slots; // open addressing table of entry index + 1, 0 marks an empty slot
+  private final @Nullable BinaryTag[] values;
+  private int hashCode;
+
+  private LazyCompoundBinaryTag(final ByteBuffer source, final int start, final int end, final String[] keys, final BinaryTagType<? extends BinaryTag>[] types, final int[] offsets, final int[] slots) {
+    this.source = source;
+    this.start = start;
+    this.end = end;
+    this.keys = keys;
+    this.types = types;
+    this.offsets = offsets;
+    this.slots = slots;
+    this.values = new BinaryTag[keys.length];
+  }
+
+  /**
+   * Indexes the compound tag payload starting at {@code start} in {@code source}.
+   *
+   * <p>The source buffer must be big-endian, and neither its contents nor its limit may be modified
+   * while the returned tag is in use.</p>
+   *
+   * @param source the source buffer
+   * @param start the index of the first entry of the compound tag
+   * @return the compound tag
+   * @throws IOException if an exception was encountered while indexing the compound tag
+   */
+  static @NonNull LazyCompoundBinaryTag read(final @NonNull ByteBuffer source, final int start) throws IOException {
+    final ByteBufferDataInput input = new ByteBufferDataInput(source, start);
+    String[] keys = new String[INITIAL_CAPACITY];
+    BinaryTagType<? extends BinaryTag>[] types = new BinaryTagType<?>[INITIAL_CAPACITY];
+    int[] offsets = new int[INITIAL_CAPACITY];
+    int size = 0;
+    BinaryTagType<? extends BinaryTag> type;
+    while((type = BinaryTagType.of(input.readByte())) != BinaryTagTypes.END) {
+      if(size == keys.length) {
+        keys = Arrays.copyOf(keys, size << 1);
+        types = Arrays.copyOf(types, size << 1);
+        offsets = Arrays.copyOf(offsets, size << 1);
+      }
+      keys[size] = ModifiedUtf8.read(input);
+      types[size] = type;
+      offsets[size] = input.index();
+      size++;
+      type.skip(input);
+    }
+
+    final int[] slots = new int[Integer.highestOneBit(Math.max(size, 1) << 1) << 1];
+    int kept = 0;
+    for(int i = 0; i < size; i++) {
+      final int slot = slot(slots, keys, keys[i]);
+      if(slots[slot] != 0) {
+        // invalid, but possible - like a map, only the last value for a key is kept
+        final int existing = slots[slot] - 1;
+        types[existing] = types[i];
+        offsets[existing] = offsets[i];
+      } else {
+        keys[kept] = keys[i];
+        types[kept] = types[i];
+        offsets[kept] = offsets[i];
+        slots[slot] = ++kept;
+      }
+    }
+    return new LazyCompoundBinaryTag(source, start, input.index(), Arrays.copyOf(keys, kept), Arrays.copyOf(types, kept), Arrays.copyOf(offsets, kept), slots);
+  }
+
+  private static int slot(final int[] slots, final String[] keys, final String key) {
+    final int mask = slots.length - 1;
+    final int hash = key.hashCode();
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    while(slots[slot] != 0 && !keys[slots[slot] - 1].equals(key)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Gets the index just after the end of this tag in the source buffer.
+   *
+   * @return the end index
+   */
+  int end() {
+    return this.end;
+  }
+
+  /**
+   * Writes the original encoding of this tag.
+   *
+   * @param output the output
+   * @throws IOException if an exception was encountered while writing
+   */
+  void write(final @NonNull DataOutput output) throws IOException {
+    final int length = this.end - this.start;
+    if(this.source.hasArray()) {
+      output.write(this.source.array(), this.source.arrayOffset() + this.start, length);
+      return;
+    }
+    final ByteBuffer encoded = this.source.duplicate();
+    encoded.limit(this.end);
+    encoded.position(this.start);
+    if(output instanceof ByteBufferDataOutput) {
+      ((ByteBufferDataOutput) output).ensureWritable(length).put(encoded);
+    } else {
+      final byte[] chunk = new byte[Math.min(length, 8192)];
+      while(encoded.hasRemaining()) {
+        final int read = Math.min(chunk.length, encoded.remaining());
+        encoded.get(chunk, 0, read);
+        output.write(chunk, 0, read);
+      }
+    }
+  }
+
+  private int indexOf(final String key) {
+    return this.slots[slot(this.slots, this.keys, key)] - 1;
+  }
+
+  private BinaryTag value(final int index) {
+    BinaryTag value = this.values[index];
+    if(value == null) {
+      try {
+        value = this.decode(this.types[index], this.offsets[index]);
+      } catch(final IOException e) {
+        throw new UncheckedIOException("Could not decode value of '" + this.keys[index] + "'", e);
+      }
+      this.values[index] = value;
+    }
+    return value;
+  }
+
+  private BinaryTag decode(final BinaryTagType<? extends BinaryTag> type, final int offset) throws IOException {
+    if(type == BinaryTagTypes.COMPOUND) {
+      return read(this.source, offset);
+    } else if(type == BinaryTagTypes.LIST && this.source.get(offset) == BinaryTagTypes.COMPOUND.id()) {
+      final int length = this.source.getInt(offset + Byte.BYTES);
+      final List<BinaryTag> tags = new ArrayList<>(length);
+      int index = offset + Byte.BYTES + Integer.BYTES;
+      for(int i = 0; i < length; i++) {
+        final LazyCompoundBinaryTag tag = read(this.source, index);
+        tags.add(tag);
+        index = tag.end;
+      }
+      return ListBinaryTag.of(BinaryTagTypes.COMPOUND, tags);
+    }
+    return type.read(new ByteBufferDataInput(this.source, offset));
+  }
+
+  private @Nullable BinaryTag tag(final String key, final BinaryTagType<?> type) {
+    final int index = this.indexOf(key);
+    if(index != -1 && type.test(this.types[index])) {
+      return this.value(index);
+    }
+    return null;
+  }
+
+  /**
+   * Decodes all values of this tag into a map.
+   *
+   * @return the tags
+   */
+  Map<String, BinaryTag> tags() {
+    final Map<String, BinaryTag> tags = new HashMap<>();
+    for(int i = 0; i < this.keys.length; i++) {
+      tags.put(this.keys[i], this.value(i));
+    }
+    return tags;
+  }
+
+  @Override
+  public @NonNull Set<String> keySet() {
+    return new AbstractSet<String>() {
+      @Override
+      public boolean contains(final Object o) {
+        return o instanceof String && LazyCompoundBinaryTag.this.indexOf((String) o) != -1;
+      }
+
+      @Override
+      public Iterator<String> iterator() {
+        return Arrays.asList(LazyCompoundBinaryTag.this.keys).iterator();
+      }
+
+      @Override
+      public int size() {
+        return LazyCompoundBinaryTag.this.keys.length;
+      }
+    };
+  }
+
+  @Override
+  public @Nullable BinaryTag get(final String key) {
+    final int index = this.indexOf(key);
+    return index == -1 ? null : this.value(index);
+  }
+
+  @Override
+  public @NonNull CompoundBinaryTag put(final @NonNull String key, final @NonNull BinaryTag tag) {
+    final Map<String, BinaryTag> tags = this.tags();
+    tags.put(key, tag);
+    return new CompoundBinaryTagImpl(tags);
+  }
+
+  @Override
+  public @NonNull CompoundBinaryTag edit(final @NonNull Consumer<? super Mutable> editor) {
+    final CompoundTagEditor mutable = new CompoundTagEditor(this);
+    editor.accept(mutable);
+    final /* @Nullable */ Map<String, BinaryTag> tags = mutable.finish();
+    return tags == null ? this : new CompoundBinaryTagImpl(tags);
+  }
+
+  @Override
+  public @NonNull CompoundBinaryTag remove(final @NonNull String key, final @Nullable Consumer<BinaryTag> removedConsumer) {
+    final int index = this.indexOf(key);
+    if(index == -1) return this;
+    if(removedConsumer != null) {
+      removedConsumer.accept(this.value(index));
+    }
+    final Map<String, BinaryTag> tags = this.tags();
+    tags.remove(key);
+    return new CompoundBinaryTagImpl(tags);
+  }
+
+  @Override
+  public byte getByte(final @NonNull String key, final byte defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.BYTE);
+    return tag != null ? ((NumberBinaryTag) tag).byteValue() : defaultValue;
+  }
+
+  @Override
+  public short getShort(final @NonNull String key, final short defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.SHORT);
+    return tag != null ? ((NumberBinaryTag) tag).shortValue() : defaultValue;
+  }
+
+  @Override
+  public int getInt(final @NonNull String key, final int defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.INT);
+    return tag != null ? ((NumberBinaryTag) tag).intValue() : defaultValue;
+  }
+
+  @Override
+  public long getLong(final @NonNull String key, final long defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.LONG);
+    return tag != null ? ((NumberBinaryTag) tag).longValue() : defaultValue;
+  }
+
+  @Override
+  public float getFloat(final @NonNull String key, final float defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.FLOAT);
+    return tag != null ? ((NumberBinaryTag) tag).floatValue() : defaultValue;
+  }
+
+  @Override
+  public double getDouble(final @NonNull String key, final double defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.DOUBLE);
+    return tag != null ? ((NumberBinaryTag) tag).doubleValue() : defaultValue;
+  }
+
+  @Override
+  public byte@NonNull[] getByteArray(final @NonNull String key) {
+    return this.getByteArray(key, new byte[0]);
+  }
+
+  @Override
+  public byte@NonNull[] getByteArray(final @NonNull String key, final byte@NonNull[] defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.BYTE_ARRAY);
+    return tag != null ? ((ByteArrayBinaryTag) tag).value() : defaultValue;
+  }
+
+  @Override
+  public @NonNull String getString(final @NonNull String key, final @NonNull String defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.STRING);
+    return tag != null ? ((StringBinaryTag) tag).value() : defaultValue;
+  }
+
+  @Override
+  public @NonNull ListBinaryTag getList(final @NonNull String key, final @NonNull ListBinaryTag defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.LIST);
+    return tag != null ? (ListBinaryTag) tag : defaultValue;
+  }
+
+  @Override
+  public @NonNull ListBinaryTag getList(final @NonNull String key, final @NonNull BinaryTagType<? extends BinaryTag> expectedType, final @NonNull ListBinaryTag defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.LIST);
+    if(tag != null && expectedType.test(((ListBinaryTag) tag).listType())) {
+      return (ListBinaryTag) tag;
+    }
+    return defaultValue;
+  }
+
+  @Override
+  public @NonNull CompoundBinaryTag getCompound(final @NonNull String key, final @NonNull CompoundBinaryTag defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.COMPOUND);
+    return tag != null ? (CompoundBinaryTag) tag : defaultValue;
+  }
+
+  @Override
+  public int@NonNull[] getIntArray(final @NonNull String key) {
+    return this.getIntArray(key, new int[0]);
+  }
+
+  @Override
+  public int@NonNull[] getIntArray(final @NonNull String key, final int@NonNull[] defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.INT_ARRAY);
+    return tag != null ? ((IntArrayBinaryTag) tag).value() : defaultValue;
+  }
+
+  @Override
+  public long@NonNull[] getLongArray(final @NonNull String key) {
+    return this.getLongArray(key, new long[0]);
+  }
+
+  @Override
+  public long@NonNull[] getLongArray(final @NonNull String key, final long@NonNull[] defaultValue) {
+    final BinaryTag tag = this.tag(key, BinaryTagTypes.LONG_ARRAY);
+    return tag != null ? ((LongArrayBinaryTag) tag).value() : defaultValue;
+  }
+
+  @Override
+  public boolean equals(final Object that) {
+    if(this == that) return true;
+    if(that instanceof LazyCompoundBinaryTag) return this.tags().equals(((LazyCompoundBinaryTag) that).tags());
+    return that instanceof CompoundBinaryTagImpl && that.equals(this);
+  }
+
+  @Override
+  public int sizeInBytes() {
+    return this.end - this.start;
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = this.hashCode;
+    if(hashCode == 0) {
+      // same as the hash code of a map holding the same entries
+      for(int i = 0; i < this.keys.length; i++) {
+        hashCode += this.keys[i].hashCode() ^ this.value(i).hashCode();
+      }
+      this.hashCode = hashCode;
+    }
+    return hashCode;
+  }
+
+  @Override
+  public @NonNull Stream<? extends ExaminableProperty> examinableProperties() {
+    return Stream.of(ExaminableProperty.of("tags", this.tags()));
+  }
+
+  @Override
+  public @NonNull Iterator<Map.Entry<String, ? extends BinaryTag>> iterator() {
+    return new Iterator<Map.Entry<String, ? extends BinaryTag>>() {
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        return this.index < LazyCompoundBinaryTag.this.keys.length;
+      }
+
+      @Override
+      public Map.Entry<String, ? extends BinaryTag> next() {
+        if(!this.hasNext()) throw new NoSuchElementException();
+        final int index = this.index++;
+        return new AbstractMap.SimpleImmutableEntry<>(LazyCompoundBinaryTag.this.keys[index], LazyCompoundBinaryTag.this.value(index));
+      }
+    };
+  }
+
+  @Override
+  public void forEach(final @NonNull Consumer<? super Map.Entry<String, ? extends BinaryTag>> action) {
+    requireNonNull(action, "action");
+    for(int i = 0; i < this.keys.length; i++) {
+      action.accept(new AbstractMap.SimpleImmutableEntry<>(this.keys[i], this.value(i)));
+    }
+  }
+}
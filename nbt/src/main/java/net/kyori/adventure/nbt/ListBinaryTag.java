@@ -25,6 +25,9 @@ package net.kyori.adventure.nbt;
 
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -80,6 +83,11 @@ public interface ListBinaryTag extends ListTagSetter<ListBinaryTag, BinaryTag>,
     return BinaryTagTypes.LIST;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitList(this, parameter);
+  }
+
   /**
    * Gets the type of element stored in this list.
    *
@@ -122,6 +130,32 @@ public interface ListBinaryTag extends ListTagSetter<ListBinaryTag, BinaryTag>,
    */
   @NonNull ListBinaryTag remove(final int index, final @Nullable Consumer<BinaryTag> removedConsumer);
 
+  /**
+   * Edits this list tag, applying all changes made by {@code editor} to a single copy of its tags.
+   *
+   * <p>This is cheaper than chaining calls to {@link #add(BinaryTag)}, {@link #set(int, BinaryTag, Consumer)}
+   * and {@link #remove(int, Consumer)}, which each copy all tags. The {@link Mutable} passed to {@code editor}
+   * must not be used after {@code editor} returns.</p>
+   *
+   * @param editor the editor
+   * @return a list tag, or this list tag if {@code editor} made no changes
+   */
+  @NonNull ListBinaryTag edit(final @NonNull Consumer<? super Mutable> editor);
+
+  /**
+   * Gets a list tag equal to this one which keeps its binary encoding after being written once.
+   *
+   * <p>Writing the returned tag again copies the kept encoding instead of encoding its tags from scratch,
+   * which makes this worthwhile for tags that are written many times. The encoding is softly referenced,
+   * so it can be discarded when memory runs low. Tags created from the returned tag, such as by
+   * {@link #edit(Consumer)}, do not keep their encoding.</p>
+   *
+   * @return a list tag keeping its encoding
+   */
+  default @NonNull ListBinaryTag memoized() {
+    return this;
+  }
+
   /**
    * Gets a byte.
    *
@@ -409,6 +443,81 @@ public interface ListBinaryTag extends ListTagSetter<ListBinaryTag, BinaryTag>,
     return defaultValue;
   }
 
+  /**
+   * Gets a stream of the values in this list as ints.
+   *
+   * <p>Tags which are not numbers are mapped to {@code 0}, as in {@link #getInt(int)}.</p>
+   *
+   * @return a stream of ints
+   */
+  default @NonNull IntStream intStream() {
+    return IntStream.range(0, this.size()).map(this::getInt);
+  }
+
+  /**
+   * Gets a stream of the values in this list as longs.
+   *
+   * <p>Tags which are not numbers are mapped to {@code 0}, as in {@link #getLong(int)}.</p>
+   *
+   * @return a stream of longs
+   */
+  default @NonNull LongStream longStream() {
+    return IntStream.range(0, this.size()).mapToLong(this::getLong);
+  }
+
+  /**
+   * Gets a stream of the values in this list as doubles.
+   *
+   * <p>Tags which are not numbers are mapped to {@code 0}, as in {@link #getDouble(int)}.</p>
+   *
+   * @return a stream of doubles
+   */
+  default @NonNull DoubleStream doubleStream() {
+    return IntStream.range(0, this.size()).mapToDouble(this::getDouble);
+  }
+
+  /**
+   * A mutable view of a list tag, used to edit it.
+   *
+   * @see #edit(Consumer)
+   */
+  interface Mutable extends ListTagSetter<Mutable, BinaryTag> {
+    /**
+     * Gets the size.
+     *
+     * @return the size
+     */
+    int size();
+
+    /**
+     * Gets a tag.
+     *
+     * @param index the index
+     * @return the tag
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @NonNull BinaryTag get(final @NonNegative int index);
+
+    /**
+     * Sets the tag at index {@code index} to {@code tag}, optionally providing {@code removedConsumer} with the tag previously at index {@code index}.
+     *
+     * @param index the index
+     * @param tag the tag
+     * @param removedConsumer a consumer which receives the tag being removed at index {@code index}
+     * @return this mutable list
+     */
+    @NonNull Mutable set(final int index, final @NonNull BinaryTag tag, final @Nullable Consumer<BinaryTag> removedConsumer);
+
+    /**
+     * Removes the tag at index {@code index}, optionally providing {@code removedConsumer} with the tag previously at index {@code index}.
+     *
+     * @param index the index
+     * @param removedConsumer a consumer which receives the tag being removed at index {@code index}
+     * @return this mutable list
+     */
+    @NonNull Mutable remove(final int index, final @Nullable Consumer<BinaryTag> removedConsumer);
+  }
+
   /**
    * A list tag builder.
    *
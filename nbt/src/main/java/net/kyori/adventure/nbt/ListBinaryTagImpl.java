@@ -23,6 +23,10 @@
  */
 package net.kyori.adventure.nbt;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -30,6 +34,9 @@ import java.util.List;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import net.kyori.examination.ExaminableProperty;
 import org.checkerframework.checker.index.qual.NonNegative;
@@ -41,11 +48,52 @@ final class ListBinaryTagImpl implements ListBinaryTag {
   private final List<? extends BinaryTag> tags;
   private final BinaryTagType<? extends BinaryTag> type;
   private final int hashCode;
+  private final boolean memoized;
+  private int sizeInBytes; // 0 until computed, as the payload always holds at least the type and length
+  private volatile @Nullable Reference<byte[]> encoded;
 
   ListBinaryTagImpl(final BinaryTagType<? extends BinaryTag> type, final List<? extends BinaryTag> tags) {
-    this.tags = tags;
+    this.tags = PrimitiveTagList.compact(type, tags);
     this.type = type;
-    this.hashCode = tags.hashCode();
+    this.hashCode = this.tags.hashCode();
+    this.memoized = false;
+  }
+
+  private ListBinaryTagImpl(final ListBinaryTagImpl tag, final boolean memoized) {
+    this.tags = tag.tags;
+    this.type = tag.type;
+    this.hashCode = tag.hashCode;
+    this.memoized = memoized;
+    this.sizeInBytes = tag.sizeInBytes;
+  }
+
+  /**
+   * Writes the kept encoding of {@code tag}, if it is {@link #memoized() memoized}.
+   *
+   * @param tag the tag
+   * @param output the output
+   * @return {@code true} if the encoding was written
+   * @throws IOException if an exception was encountered while writing
+   */
+  static boolean writeMemoized(final ListBinaryTag tag, final DataOutput output) throws IOException {
+    if(!(tag instanceof ListBinaryTagImpl) || !((ListBinaryTagImpl) tag).memoized) return false;
+    final ListBinaryTagImpl impl = (ListBinaryTagImpl) tag;
+    final /* @Nullable */ Reference<byte[]> reference = impl.encoded;
+    byte[] encoded = reference != null ? reference.get() : null;
+    if(encoded == null) {
+      encoded = ByteBufferDataOutput.encode(new ListBinaryTagImpl(impl, false), impl.sizeInBytes(), BinaryTagTypes.LIST);
+      impl.encoded = new SoftReference<>(encoded); // volatile, so readers see a filled array; racing writers at worst encode twice
+    }
+    output.write(encoded);
+    return true;
+  }
+
+  // to avoid creating tags for the elements of numeric lists
+  static @Nullable PrimitiveTagList primitives(final ListBinaryTag tag) {
+    if(tag instanceof ListBinaryTagImpl && ((ListBinaryTagImpl) tag).tags instanceof PrimitiveTagList) {
+      return (PrimitiveTagList) ((ListBinaryTagImpl) tag).tags;
+    }
+    return null;
   }
 
   @Override
@@ -63,6 +111,60 @@ final class ListBinaryTagImpl implements ListBinaryTag {
     return this.tags.get(index);
   }
 
+  @Override
+  public byte getByte(final @NonNegative int index, final byte defaultValue) {
+    if(this.tags instanceof PrimitiveTagList) return ((PrimitiveTagList) this.tags).byteValue(index);
+    return ListBinaryTag.super.getByte(index, defaultValue);
+  }
+
+  @Override
+  public short getShort(final @NonNegative int index, final short defaultValue) {
+    if(this.tags instanceof PrimitiveTagList) return ((PrimitiveTagList) this.tags).shortValue(index);
+    return ListBinaryTag.super.getShort(index, defaultValue);
+  }
+
+  @Override
+  public int getInt(final @NonNegative int index, final int defaultValue) {
+    if(this.tags instanceof PrimitiveTagList) return ((PrimitiveTagList) this.tags).intValue(index);
+    return ListBinaryTag.super.getInt(index, defaultValue);
+  }
+
+  @Override
+  public long getLong(final @NonNegative int index, final long defaultValue) {
+    if(this.tags instanceof PrimitiveTagList) return ((PrimitiveTagList) this.tags).longValue(index);
+    return ListBinaryTag.super.getLong(index, defaultValue);
+  }
+
+  @Override
+  public float getFloat(final @NonNegative int index, final float defaultValue) {
+    if(this.tags instanceof PrimitiveTagList) return ((PrimitiveTagList) this.tags).floatValue(index);
+    return ListBinaryTag.super.getFloat(index, defaultValue);
+  }
+
+  @Override
+  public double getDouble(final @NonNegative int index, final double defaultValue) {
+    if(this.tags instanceof PrimitiveTagList) return ((PrimitiveTagList) this.tags).doubleValue(index);
+    return ListBinaryTag.super.getDouble(index, defaultValue);
+  }
+
+  @Override
+  public @NonNull IntStream intStream() {
+    if(this.tags instanceof PrimitiveTagList) return ((PrimitiveTagList) this.tags).intStream();
+    return ListBinaryTag.super.intStream();
+  }
+
+  @Override
+  public @NonNull LongStream longStream() {
+    if(this.tags instanceof PrimitiveTagList) return ((PrimitiveTagList) this.tags).longStream();
+    return ListBinaryTag.super.longStream();
+  }
+
+  @Override
+  public @NonNull DoubleStream doubleStream() {
+    if(this.tags instanceof PrimitiveTagList) return ((PrimitiveTagList) this.tags).doubleStream();
+    return ListBinaryTag.super.doubleStream();
+  }
+
   @Override
   public @NonNull ListBinaryTag set(final int index, final @NonNull BinaryTag newTag, final @Nullable Consumer<BinaryTag> removedConsumer) {
     return this.edit(tags -> {
@@ -94,6 +196,14 @@ final class ListBinaryTagImpl implements ListBinaryTag {
     }, tag.type());
   }
 
+  @Override
+  public @NonNull ListBinaryTag edit(final @NonNull Consumer<? super Mutable> editor) {
+    final ListTagEditor mutable = new ListTagEditor(this.type, this.tags);
+    editor.accept(mutable);
+    final /* @Nullable */ List<BinaryTag> tags = mutable.finish();
+    return tags == null ? this : new ListBinaryTagImpl(mutable.type(), tags);
+  }
+
   // An end tag cannot be an element in a list tag
   static void noAddEnd(final BinaryTag tag) {
     if(tag.type() == BinaryTagTypes.END) {
@@ -155,6 +265,29 @@ final class ListBinaryTagImpl implements ListBinaryTag {
     return this == that || (that instanceof ListBinaryTagImpl && this.tags.equals(((ListBinaryTagImpl) that).tags));
   }
 
+  @Override
+  public @NonNull ListBinaryTag memoized() {
+    return this.memoized ? this : new ListBinaryTagImpl(this, true);
+  }
+
+  @Override
+  public int sizeInBytes() {
+    int sizeInBytes = this.sizeInBytes;
+    if(sizeInBytes == 0) {
+      sizeInBytes = Byte.BYTES + Integer.BYTES;
+      final int fixedSize = this.type.fixedSize();
+      if(fixedSize != -1) {
+        sizeInBytes += fixedSize * this.tags.size();
+      } else {
+        for(final BinaryTag tag : this.tags) {
+          sizeInBytes += tag.sizeInBytes();
+        }
+      }
+      this.sizeInBytes = sizeInBytes;
+    }
+    return sizeInBytes;
+  }
+
   @Override
   public int hashCode() {
     return this.hashCode;
@@ -0,0 +1,121 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+final class ListTagEditor implements ListBinaryTag.Mutable {
+  private final List<? extends BinaryTag> source;
+  private @Nullable List<BinaryTag> tags; // copied from source on the first change
+  private BinaryTagType<? extends BinaryTag> type;
+  private boolean finished;
+
+  ListTagEditor(final BinaryTagType<? extends BinaryTag> type, final List<? extends BinaryTag> source) {
+    this.type = type;
+    this.source = source;
+  }
+
+  @Override
+  public int size() {
+    return this.view().size();
+  }
+
+  @Override
+  public @NonNull BinaryTag get(final @NonNegative int index) {
+    return this.view().get(index);
+  }
+
+  @Override
+  public ListBinaryTag.@NonNull Mutable add(final BinaryTag tag) {
+    this.check(tag);
+    this.copy().add(tag);
+    return this;
+  }
+
+  @Override
+  public ListBinaryTag.@NonNull Mutable set(final int index, final @NonNull BinaryTag tag, final @Nullable Consumer<BinaryTag> removedConsumer) {
+    this.check(tag);
+    final BinaryTag oldTag = this.copy().set(index, tag);
+    if(removedConsumer != null) {
+      removedConsumer.accept(oldTag);
+    }
+    return this;
+  }
+
+  @Override
+  public ListBinaryTag.@NonNull Mutable remove(final int index, final @Nullable Consumer<BinaryTag> removedConsumer) {
+    this.view();
+    final BinaryTag tag = this.copy().remove(index);
+    if(removedConsumer != null) {
+      removedConsumer.accept(tag);
+    }
+    return this;
+  }
+
+  /**
+   * Gets the element type, which is set by the first tag added to an empty list.
+   *
+   * @return the element type
+   */
+  BinaryTagType<? extends BinaryTag> type() {
+    return this.type;
+  }
+
+  /**
+   * Finishes editing, after which this editor can no longer be used.
+   *
+   * @return the edited tags, or {@code null} if no changes were made
+   */
+  @Nullable List<BinaryTag> finish() {
+    this.finished = true;
+    return this.tags;
+  }
+
+  private void check(final BinaryTag tag) {
+    this.view();
+    ListBinaryTagImpl.noAddEnd(tag);
+    // set the type if it has not yet been set
+    if(this.type == BinaryTagTypes.END) {
+      this.type = tag.type();
+    }
+    ListBinaryTagImpl.mustBeSameType(tag, this.type);
+  }
+
+  private List<? extends BinaryTag> view() {
+    if(this.finished) throw new IllegalStateException("Cannot use a mutable list after its edit has finished");
+    return this.tags != null ? this.tags : this.source;
+  }
+
+  private List<BinaryTag> copy() {
+    if(this.tags == null) {
+      this.tags = new ArrayList<>(this.source);
+    }
+    return this.tags;
+  }
+}
@@ -44,6 +44,11 @@ public interface LongArrayBinaryTag extends BinaryTag {
     return BinaryTagTypes.LONG_ARRAY;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitLongArray(this, parameter);
+  }
+
   /**
    * Gets the value.
    *
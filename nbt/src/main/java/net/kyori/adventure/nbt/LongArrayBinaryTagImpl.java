@@ -41,6 +41,11 @@ final class LongArrayBinaryTagImpl implements LongArrayBinaryTag {
     return Arrays.copyOf(this.value, this.value.length);
   }
 
+  @Override
+  public int sizeInBytes() {
+    return Integer.BYTES + Long.BYTES * this.value.length;
+  }
+
   // to avoid copying array internally
   static long[] value(final LongArrayBinaryTag tag) {
     return (tag instanceof LongArrayBinaryTagImpl) ? ((LongArrayBinaryTagImpl) tag).value : tag.value();
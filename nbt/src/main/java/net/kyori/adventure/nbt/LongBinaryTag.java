@@ -39,6 +39,8 @@ public interface LongBinaryTag extends NumberBinaryTag {
    * @return a binary tag
    */
   static @NonNull LongBinaryTag of(final long value) {
+    final int index = NumberTagCache.index(value);
+    if(index != -1) return LongBinaryTagImpl.CACHE[index];
     return new LongBinaryTagImpl(value);
   }
 
@@ -47,6 +49,16 @@ public interface LongBinaryTag extends NumberBinaryTag {
     return BinaryTagTypes.LONG;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitLong(this, parameter);
+  }
+
+  @Override
+  default int sizeInBytes() {
+    return Long.BYTES;
+  }
+
   /**
    * Gets the value.
    *
@@ -56,6 +68,14 @@ public interface LongBinaryTag extends NumberBinaryTag {
 }
 
 final class LongBinaryTagImpl implements LongBinaryTag {
+  static final LongBinaryTagImpl[] CACHE = new LongBinaryTagImpl[NumberTagCache.SIZE];
+
+  static {
+    for(int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new LongBinaryTagImpl(i + NumberTagCache.LOW);
+    }
+  }
+
   private final long value;
 
   LongBinaryTagImpl(final long value) {
@@ -0,0 +1,187 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Reads and writes strings in the modified UTF-8 encoding used by {@link DataInput#readUTF()} and {@link DataOutput#writeUTF(String)}.
+ *
+ * <p>Most strings in tags are ASCII, which is encoded the same in modified UTF-8 and Latin-1. Such strings are
+ * decoded as Latin-1, and are read straight from the backing array of a buffer where possible.</p>
+ */
+final class ModifiedUtf8 {
+  private static final int MAX_LENGTH = 0xffff;
+
+  private ModifiedUtf8() {
+  }
+
+  /**
+   * Reads a string.
+   *
+   * @param input the input
+   * @return the string
+   * @throws IOException if an exception was encountered while reading
+   * @see DataInput#readUTF()
+   */
+  static @NonNull String read(final @NonNull DataInput input) throws IOException {
+    final int length = input.readUnsignedShort();
+    if(input instanceof ByteBufferDataInput) {
+      final ByteBufferDataInput in = (ByteBufferDataInput) input;
+      final ByteBuffer buffer = in.buffer();
+      final int index = in.advance(length);
+      if(buffer.hasArray()) {
+        return decode(buffer.array(), buffer.arrayOffset() + index, length);
+      }
+      final byte[] bytes = new byte[length];
+      buffer.position(index);
+      buffer.get(bytes);
+      return decode(bytes, 0, length);
+    }
+    final byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return decode(bytes, 0, length);
+  }
+
+  /**
+   * Writes a string.
+   *
+   * @param output the output
+   * @param value the string
+   * @throws IOException if an exception was encountered while writing
+   * @see DataOutput#writeUTF(String)
+   */
+  static void write(final @NonNull DataOutput output, final @NonNull String value) throws IOException {
+    final int length = encodedLength(value);
+    if(length > MAX_LENGTH) {
+      throw new UTFDataFormatException("encoded string too long: " + length + " bytes");
+    }
+    if(output instanceof ByteBufferDataOutput) {
+      final ByteBuffer buffer = ((ByteBufferDataOutput) output).ensureWritable(Short.BYTES + length);
+      buffer.putShort((short) length);
+      if(buffer.hasArray()) {
+        final int position = buffer.position();
+        encode(value, length, buffer.array(), buffer.arrayOffset() + position);
+        buffer.position(position + length);
+      } else {
+        final byte[] bytes = new byte[length];
+        encode(value, length, bytes, 0);
+        buffer.put(bytes);
+      }
+      return;
+    }
+    final byte[] bytes = new byte[Short.BYTES + length];
+    bytes[0] = (byte) (length >>> 8);
+    bytes[1] = (byte) length;
+    encode(value, length, bytes, Short.BYTES);
+    output.write(bytes);
+  }
+
+  /**
+   * Gets the number of bytes needed to encode a string, excluding the two byte length prefix.
+   *
+   * @param value the string
+   * @return the number of bytes
+   */
+  static int encodedLength(final @NonNull String value) {
+    final int length = value.length();
+    int encodedLength = length;
+    for(int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      if(c == 0 || c > 0x7f) {
+        encodedLength += c > 0x7ff ? 2 : 1;
+      }
+    }
+    return encodedLength;
+  }
+
+  static String decode(final byte[] bytes, final int offset, final int length) throws UTFDataFormatException {
+    final int end = offset + length;
+    int i = offset;
+    while(i < end && bytes[i] >= 0) {
+      i++;
+    }
+    if(i == end) {
+      return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+    }
+    final char[] chars = new char[length];
+    int count = 0;
+    for(int j = offset; j < i; j++) {
+      chars[count++] = (char) bytes[j];
+    }
+    while(i < end) {
+      final int c = bytes[i] & 0xff;
+      if(c < 0x80) {
+        chars[count++] = (char) c;
+        i++;
+      } else if((c & 0xe0) == 0xc0) {
+        if(i + 2 > end) throw new UTFDataFormatException("malformed input: partial character at end");
+        final int c2 = bytes[i + 1];
+        if((c2 & 0xc0) != 0x80) throw new UTFDataFormatException("malformed input around byte " + (i + 1 - offset));
+        chars[count++] = (char) (((c & 0x1f) << 6) | (c2 & 0x3f));
+        i += 2;
+      } else if((c & 0xf0) == 0xe0) {
+        if(i + 3 > end) throw new UTFDataFormatException("malformed input: partial character at end");
+        final int c2 = bytes[i + 1];
+        final int c3 = bytes[i + 2];
+        if((c2 & 0xc0) != 0x80 || (c3 & 0xc0) != 0x80) throw new UTFDataFormatException("malformed input around byte " + (i + 2 - offset));
+        chars[count++] = (char) (((c & 0x0f) << 12) | ((c2 & 0x3f) << 6) | (c3 & 0x3f));
+        i += 3;
+      } else {
+        throw new UTFDataFormatException("malformed input around byte " + (i - offset));
+      }
+    }
+    return new String(chars, 0, count);
+  }
+
+  static void encode(final String value, final int encodedLength, final byte[] bytes, final int offset) {
+    final int length = value.length();
+    if(encodedLength == length) { // every character is encoded as a single byte
+      for(int i = 0; i < length; i++) {
+        bytes[offset + i] = (byte) value.charAt(i);
+      }
+      return;
+    }
+    int index = offset;
+    for(int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      if(c != 0 && c <= 0x7f) {
+        bytes[index++] = (byte) c;
+      } else if(c > 0x7ff) {
+        bytes[index++] = (byte) (0xe0 | ((c >> 12) & 0x0f));
+        bytes[index++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        bytes[index++] = (byte) (0x80 | (c & 0x3f));
+      } else {
+        bytes[index++] = (byte) (0xc0 | ((c >> 6) & 0x1f));
+        bytes[index++] = (byte) (0x80 | (c & 0x3f));
+      }
+    }
+  }
+}
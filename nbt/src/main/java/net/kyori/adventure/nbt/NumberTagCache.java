@@ -0,0 +1,60 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+/**
+ * The range of values for which numeric tags are shared instead of allocated.
+ */
+final class NumberTagCache {
+  static final int LOW = -128;
+  static final int HIGH = 1024;
+  static final int SIZE = HIGH - LOW + 1;
+
+  private NumberTagCache() {
+  }
+
+  /**
+   * Gets the cache index of {@code value}.
+   *
+   * @param value the value
+   * @return the index, or {@code -1} if {@code value} is not cached
+   */
+  static int index(final long value) {
+    return value >= LOW && value <= HIGH ? (int) value - LOW : -1;
+  }
+
+  /**
+   * Gets the cache index of {@code value}.
+   *
+   * <p>Only integral values are cached. {@code -0.0} and {@code NaN} never are.</p>
+   *
+   * @param value the value
+   * @return the index, or {@code -1} if {@code value} is not cached
+   */
+  static int index(final double value) {
+    final int iv = (int) value;
+    if(iv != value || (iv == 0 && Double.doubleToRawLongBits(value) != 0L)) return -1;
+    return index(iv);
+  }
+}
@@ -0,0 +1,448 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * An immutable list of numeric tags, backed by an array of their values.
+ *
+ * <p>Tags are only created when they are requested through {@link #get(int)}. The value accessors
+ * avoid creating tags where the requested type matches the type of the backing array.</p>
+ */
+abstract class PrimitiveTagList extends AbstractList<BinaryTag> implements RandomAccess {
+  /**
+   * Stores a list of tags as a primitive list, if all tags are numbers of the type {@code type}.
+   *
+   * @param type the element type
+   * @param tags the tags
+   * @return a primitive list, or {@code tags}
+   */
+  static @NonNull List<? extends BinaryTag> compact(final @NonNull BinaryTagType<? extends BinaryTag> type, final @NonNull List<? extends BinaryTag> tags) {
+    if(tags instanceof PrimitiveTagList || !type.numeric() || tags.isEmpty() || !(tags instanceof RandomAccess)) return tags;
+    final int size = tags.size();
+    for(int i = 0; i < size; i++) {
+      if(tags.get(i).type() != type) return tags;
+    }
+    if(type == BinaryTagTypes.BYTE) {
+      final byte[] value = new byte[size];
+      for(int i = 0; i < size; i++) {
+        value[i] = ((ByteBinaryTag) tags.get(i)).value();
+      }
+      return new OfByte(value);
+    } else if(type == BinaryTagTypes.SHORT) {
+      final short[] value = new short[size];
+      for(int i = 0; i < size; i++) {
+        value[i] = ((ShortBinaryTag) tags.get(i)).value();
+      }
+      return new OfShort(value);
+    } else if(type == BinaryTagTypes.INT) {
+      final int[] value = new int[size];
+      for(int i = 0; i < size; i++) {
+        value[i] = ((IntBinaryTag) tags.get(i)).value();
+      }
+      return new OfInt(value);
+    } else if(type == BinaryTagTypes.LONG) {
+      final long[] value = new long[size];
+      for(int i = 0; i < size; i++) {
+        value[i] = ((LongBinaryTag) tags.get(i)).value();
+      }
+      return new OfLong(value);
+    } else if(type == BinaryTagTypes.FLOAT) {
+      final float[] value = new float[size];
+      for(int i = 0; i < size; i++) {
+        value[i] = ((FloatBinaryTag) tags.get(i)).value();
+      }
+      return new OfFloat(value);
+    } else if(type == BinaryTagTypes.DOUBLE) {
+      final double[] value = new double[size];
+      for(int i = 0; i < size; i++) {
+        value[i] = ((DoubleBinaryTag) tags.get(i)).value();
+      }
+      return new OfDouble(value);
+    }
+    return tags;
+  }
+
+  /**
+   * Reads the elements of a list of numeric tags.
+   *
+   * @param input the input
+   * @param type the element type, which must be numeric
+   * @param length the number of elements
+   * @return a primitive list
+   * @throws IOException if an exception was encountered while reading
+   */
+  static @NonNull PrimitiveTagList read(final @NonNull DataInput input, final @NonNull BinaryTagType<? extends BinaryTag> type, final int length) throws IOException {
+    if(length < 0) throw new IOException("Negative list length: " + length);
+    if(type == BinaryTagTypes.BYTE) {
+      final byte[] value = new byte[length];
+      input.readFully(value);
+      return new OfByte(value);
+    } else if(type == BinaryTagTypes.SHORT) {
+      final short[] value = new short[length];
+      for(int i = 0; i < length; i++) {
+        value[i] = input.readShort();
+      }
+      return new OfShort(value);
+    } else if(type == BinaryTagTypes.INT) {
+      return new OfInt(IOStreamUtil.readInts(input, length));
+    } else if(type == BinaryTagTypes.LONG) {
+      return new OfLong(IOStreamUtil.readLongs(input, length));
+    } else if(type == BinaryTagTypes.FLOAT) {
+      final float[] value = new float[length];
+      for(int i = 0; i < length; i++) {
+        value[i] = input.readFloat();
+      }
+      return new OfFloat(value);
+    } else if(type == BinaryTagTypes.DOUBLE) {
+      final double[] value = new double[length];
+      for(int i = 0; i < length; i++) {
+        value[i] = input.readDouble();
+      }
+      return new OfDouble(value);
+    }
+    throw new IOException("Not a numeric tag type: " + type);
+  }
+
+  /**
+   * Writes the elements of this list.
+   *
+   * @param output the output
+   * @throws IOException if an exception was encountered while writing
+   */
+  abstract void write(final @NonNull DataOutput output) throws IOException;
+
+  private NumberBinaryTag number(final int index) {
+    return (NumberBinaryTag) this.get(index);
+  }
+
+  byte byteValue(final int index) {
+    return this.number(index).byteValue();
+  }
+
+  short shortValue(final int index) {
+    return this.number(index).shortValue();
+  }
+
+  int intValue(final int index) {
+    return this.number(index).intValue();
+  }
+
+  long longValue(final int index) {
+    return this.number(index).longValue();
+  }
+
+  float floatValue(final int index) {
+    return this.number(index).floatValue();
+  }
+
+  double doubleValue(final int index) {
+    return this.number(index).doubleValue();
+  }
+
+  @NonNull IntStream intStream() {
+    return IntStream.range(0, this.size()).map(this::intValue);
+  }
+
+  @NonNull LongStream longStream() {
+    return IntStream.range(0, this.size()).mapToLong(this::longValue);
+  }
+
+  @NonNull DoubleStream doubleStream() {
+    return IntStream.range(0, this.size()).mapToDouble(this::doubleValue);
+  }
+
+  static final class OfByte extends PrimitiveTagList {
+    private final byte[] value;
+
+    OfByte(final byte[] value) {
+      this.value = value;
+    }
+
+    @Override
+    public BinaryTag get(final int index) {
+      return ByteBinaryTag.of(this.value[index]);
+    }
+
+    @Override
+    public int size() {
+      return this.value.length;
+    }
+
+    @Override
+    void write(final @NonNull DataOutput output) throws IOException {
+      output.write(this.value);
+    }
+
+    @Override
+    byte byteValue(final int index) {
+      return this.value[index];
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(other instanceof OfByte) return Arrays.equals(this.value, ((OfByte) other).value);
+      return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(this.value); // matches Byte.hashCode of each element
+    }
+  }
+
+  static final class OfShort extends PrimitiveTagList {
+    private final short[] value;
+
+    OfShort(final short[] value) {
+      this.value = value;
+    }
+
+    @Override
+    public BinaryTag get(final int index) {
+      return ShortBinaryTag.of(this.value[index]);
+    }
+
+    @Override
+    public int size() {
+      return this.value.length;
+    }
+
+    @Override
+    void write(final @NonNull DataOutput output) throws IOException {
+      for(final short value : this.value) {
+        output.writeShort(value);
+      }
+    }
+
+    @Override
+    short shortValue(final int index) {
+      return this.value[index];
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(other instanceof OfShort) return Arrays.equals(this.value, ((OfShort) other).value);
+      return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(this.value); // matches Short.hashCode of each element
+    }
+  }
+
+  static final class OfInt extends PrimitiveTagList {
+    private final int[] value;
+
+    OfInt(final int[] value) {
+      this.value = value;
+    }
+
+    @Override
+    public BinaryTag get(final int index) {
+      return IntBinaryTag.of(this.value[index]);
+    }
+
+    @Override
+    public int size() {
+      return this.value.length;
+    }
+
+    @Override
+    void write(final @NonNull DataOutput output) throws IOException {
+      IOStreamUtil.writeInts(output, this.value);
+    }
+
+    @Override
+    int intValue(final int index) {
+      return this.value[index];
+    }
+
+    @Override
+    @NonNull IntStream intStream() {
+      return Arrays.stream(this.value);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(other instanceof OfInt) return Arrays.equals(this.value, ((OfInt) other).value);
+      return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(this.value); // matches Integer.hashCode of each element
+    }
+  }
+
+  static final class OfLong extends PrimitiveTagList {
+    private final long[] value;
+
+    OfLong(final long[] value) {
+      this.value = value;
+    }
+
+    @Override
+    public BinaryTag get(final int index) {
+      return LongBinaryTag.of(this.value[index]);
+    }
+
+    @Override
+    public int size() {
+      return this.value.length;
+    }
+
+    @Override
+    void write(final @NonNull DataOutput output) throws IOException {
+      IOStreamUtil.writeLongs(output, this.value);
+    }
+
+    @Override
+    long longValue(final int index) {
+      return this.value[index];
+    }
+
+    @Override
+    @NonNull LongStream longStream() {
+      return Arrays.stream(this.value);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(other instanceof OfLong) return Arrays.equals(this.value, ((OfLong) other).value);
+      return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(this.value); // matches Long.hashCode of each element
+    }
+  }
+
+  static final class OfFloat extends PrimitiveTagList {
+    private final float[] value;
+
+    OfFloat(final float[] value) {
+      this.value = value;
+    }
+
+    @Override
+    public BinaryTag get(final int index) {
+      return FloatBinaryTag.of(this.value[index]);
+    }
+
+    @Override
+    public int size() {
+      return this.value.length;
+    }
+
+    @Override
+    void write(final @NonNull DataOutput output) throws IOException {
+      for(final float value : this.value) {
+        output.writeFloat(value);
+      }
+    }
+
+    @Override
+    float floatValue(final int index) {
+      return this.value[index];
+    }
+
+    @Override
+    double doubleValue(final int index) {
+      return this.value[index];
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      // Arrays.equals compares floatToIntBits, as FloatBinaryTag does
+      if(other instanceof OfFloat) return Arrays.equals(this.value, ((OfFloat) other).value);
+      return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(this.value); // matches Float.hashCode of each element
+    }
+  }
+
+  static final class OfDouble extends PrimitiveTagList {
+    private final double[] value;
+
+    OfDouble(final double[] value) {
+      this.value = value;
+    }
+
+    @Override
+    public BinaryTag get(final int index) {
+      return DoubleBinaryTag.of(this.value[index]);
+    }
+
+    @Override
+    public int size() {
+      return this.value.length;
+    }
+
+    @Override
+    void write(final @NonNull DataOutput output) throws IOException {
+      for(final double value : this.value) {
+        output.writeDouble(value);
+      }
+    }
+
+    @Override
+    double doubleValue(final int index) {
+      return this.value[index];
+    }
+
+    @Override
+    @NonNull DoubleStream doubleStream() {
+      return Arrays.stream(this.value);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      // Arrays.equals compares doubleToLongBits, as DoubleBinaryTag does
+      if(other instanceof OfDouble) return Arrays.equals(this.value, ((OfDouble) other).value);
+      return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(this.value); // matches Double.hashCode of each element
+    }
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A region file in the Anvil format, holding the compound tags of up to 32 by 32 chunks.
+ *
+ * <p>The location and timestamp tables are mapped into memory, and single chunks are read and written
+ * at their position in the file. Chunks are written with zlib compression, into the first run of free
+ * sectors which is large enough to hold them.</p>
+ *
+ * <p>Chunk coordinates may be given either relative to the region or as absolute chunk coordinates,
+ * as only their lowest five bits are used.</p>
+ *
+ * <p>A region file is safe to use from multiple threads at once. Chunks are decompressed and decoded
+ * outside of its lock, so several chunks can be read in parallel.</p>
+ */
+public final class RegionFile implements Closeable {
+  private static final int SECTOR_BYTES = 4096;
+  private static final int HEADER_SECTORS = 2;
+  private static final int MAX_SECTORS = 0xff;
+  private static final int CHUNK_HEADER_BYTES = Integer.BYTES + Byte.BYTES;
+  private static final byte GZIP = 1;
+  private static final byte ZLIB = 2;
+  private static final byte NONE = 3;
+  private static final int EXTERNAL = 0x80;
+  private final FileChannel channel;
+  private final IntBuffer locations;
+  private final IntBuffer timestamps;
+  private final BitSet used = new BitSet();
+
+  private RegionFile(final FileChannel channel, final MappedByteBuffer header) {
+    this.channel = channel;
+    header.position(0).limit(SECTOR_BYTES);
+    this.locations = header.slice().asIntBuffer();
+    header.position(SECTOR_BYTES).limit(HEADER_SECTORS * SECTOR_BYTES);
+    this.timestamps = header.slice().asIntBuffer();
+    this.used.set(0, HEADER_SECTORS);
+    for(int i = 0; i < this.locations.limit(); i++) {
+      final int location = this.locations.get(i);
+      if(offset(location) >= HEADER_SECTORS) {
+        this.used.set(offset(location), offset(location) + sectors(location));
+      }
+    }
+  }
+
+  /**
+   * Opens the region file at {@code path}, creating it if it does not exist.
+   *
+   * @param path the path
+   * @return the region file
+   * @throws IOException if an exception was encountered while opening the region file
+   */
+  public static @NonNull RegionFile open(final @NonNull Path path) throws IOException {
+    final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      // mapping extends a new file to the size of the header
+      return new RegionFile(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SECTORS * SECTOR_BYTES));
+    } catch(final IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Checks if the region file holds a chunk.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @return {@code true} if the region file holds the chunk
+   */
+  public synchronized boolean contains(final int x, final int z) {
+    return this.locations.get(index(x, z)) != 0;
+  }
+
+  /**
+   * Gets the time a chunk was last written.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @return the time in seconds since the epoch, or {@code 0} if the chunk has never been written
+   */
+  public synchronized int timestamp(final int x, final int z) {
+    return this.timestamps.get(index(x, z));
+  }
+
+  /**
+   * Reads a chunk.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @return the compound tag of the chunk, or {@code null} if the region file does not hold the chunk
+   * @throws IOException if an exception was encountered while reading the chunk
+   */
+  public @Nullable CompoundBinaryTag read(final int x, final int z) throws IOException {
+    final /* @Nullable */ ByteBuffer data = this.readData(x, z);
+    if(data == null) return null;
+    // decode outside of the lock, so chunks can be decoded in parallel
+    final byte compression = data.get();
+    switch(compression) {
+      case GZIP:
+        return BinaryTagIO.readCompressedInputStream(new ByteArrayInputStream(data.array(), data.position(), data.remaining()), Compression.gzip());
+      case ZLIB:
+        return BinaryTagIO.readCompressedInputStream(new ByteArrayInputStream(data.array(), data.position(), data.remaining()), Compression.zlib());
+      case NONE:
+        return BinaryTagIO.readByteBuffer(data);
+      default:
+        throw new IOException(String.format("Chunk %d, %d has an unknown compression type %d", x, z, compression));
+    }
+  }
+
+  private synchronized @Nullable ByteBuffer readData(final int x, final int z) throws IOException {
+    final int location = this.locations.get(index(x, z));
+    if(location == 0) return null;
+    final int offset = offset(location);
+    if(offset < HEADER_SECTORS) {
+      throw new IOException(String.format("Chunk %d, %d has an invalid sector offset %d", x, z, offset));
+    }
+    final ByteBuffer header = ByteBuffer.allocate(CHUNK_HEADER_BYTES);
+    this.readFully(header, (long) offset * SECTOR_BYTES);
+    final int length = header.getInt(0) - Byte.BYTES;
+    final byte compression = header.get(Integer.BYTES);
+    if(length < 0 || length + CHUNK_HEADER_BYTES > sectors(location) * SECTOR_BYTES) {
+      throw new IOException(String.format("Chunk %d, %d has an invalid length %d", x, z, length));
+    }
+    if((compression & EXTERNAL) != 0) {
+      throw new IOException(String.format("Chunk %d, %d is stored outside of the region file, which is not supported", x, z));
+    }
+    final ByteBuffer data = ByteBuffer.allocate(Byte.BYTES + length);
+    this.readFully(data, (long) offset * SECTOR_BYTES + Integer.BYTES);
+    data.flip();
+    return data;
+  }
+
+  /**
+   * Writes a chunk, replacing the chunk currently held at its coordinates.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @param tag the compound tag of the chunk
+   * @throws IOException if an exception was encountered while writing the chunk
+   */
+  public synchronized void write(final int x, final int z, final @NonNull CompoundBinaryTag tag) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    bytes.write(new byte[CHUNK_HEADER_BYTES]);
+    BinaryTagIO.writeCompressedOutputStream(tag, bytes, Compression.zlib());
+    final int sectors = (bytes.size() + SECTOR_BYTES - 1) / SECTOR_BYTES;
+    if(sectors > MAX_SECTORS) {
+      throw new IOException(String.format("Chunk %d, %d is too large to be stored in a region file (%d bytes)", x, z, bytes.size()));
+    }
+    final ByteBuffer data = ByteBuffer.wrap(Arrays.copyOf(bytes.toByteArray(), sectors * SECTOR_BYTES));
+    data.putInt(0, bytes.size() - Integer.BYTES).put(Integer.BYTES, ZLIB);
+
+    // the old sectors stay in use until the new copy is written, so a failed write never loses the old chunk
+    final int index = index(x, z);
+    final int old = this.locations.get(index);
+    final int offset = this.allocate(sectors);
+    this.writeFully(data, (long) offset * SECTOR_BYTES);
+    this.used.set(offset, offset + sectors);
+    this.locations.put(index, offset << 8 | sectors);
+    this.timestamps.put(index, (int) (System.currentTimeMillis() / 1000));
+    this.release(old);
+  }
+
+  /**
+   * Removes a chunk.
+   *
+   * <p>The sectors of the chunk are reused by later writes, but the file does not shrink until it is {@link #compact() compacted}.</p>
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   */
+  public synchronized void remove(final int x, final int z) {
+    final int index = index(x, z);
+    this.release(this.locations.get(index));
+    this.locations.put(index, 0);
+    this.timestamps.put(index, 0);
+  }
+
+  /**
+   * Moves all chunks to the start of the file, removing the free sectors between them, and truncates the file.
+   *
+   * @throws IOException if an exception was encountered while compacting the region file
+   */
+  public synchronized void compact() throws IOException {
+    // sort chunks by their offset, so every chunk moves towards the start of the file
+    final long[] chunks = new long[this.locations.limit()];
+    int count = 0;
+    for(int i = 0; i < this.locations.limit(); i++) {
+      final int location = this.locations.get(i);
+      if(location != 0) {
+        chunks[count++] = (long) offset(location) << 32 | i;
+      }
+    }
+    Arrays.sort(chunks, 0, count);
+
+    int next = HEADER_SECTORS;
+    for(int i = 0; i < count; i++) {
+      final int index = (int) chunks[i];
+      final int location = this.locations.get(index);
+      final int offset = offset(location);
+      final int sectors = sectors(location);
+      if(offset < next) {
+        throw new IOException(String.format("Chunk at index %d overlaps another chunk at sector %d", index, offset));
+      }
+      if(offset != next) {
+        final ByteBuffer data = ByteBuffer.allocate(sectors * SECTOR_BYTES);
+        this.readFully(data, (long) offset * SECTOR_BYTES);
+        data.flip();
+        this.writeFully(data, (long) next * SECTOR_BYTES);
+        this.locations.put(index, next << 8 | sectors);
+      }
+      next += sectors;
+    }
+    this.used.clear();
+    this.used.set(0, next);
+    this.channel.truncate((long) next * SECTOR_BYTES);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    this.channel.close();
+  }
+
+  private static int index(final int x, final int z) {
+    return (x & 31) | (z & 31) << 5;
+  }
+
+  private static int offset(final int location) {
+    return location >>> 8;
+  }
+
+  private static int sectors(final int location) {
+    return location & MAX_SECTORS;
+  }
+
+  private void release(final int location) {
+    if(location != 0 && offset(location) >= HEADER_SECTORS) {
+      this.used.clear(offset(location), offset(location) + sectors(location));
+    }
+  }
+
+  private int allocate(final int sectors) {
+    int start = this.used.nextClearBit(HEADER_SECTORS);
+    while(true) {
+      final int end = this.used.nextSetBit(start);
+      if(end == -1 || end - start >= sectors) return start;
+      start = this.used.nextClearBit(end);
+    }
+  }
+
+  private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+    while(buffer.hasRemaining()) {
+      if(this.channel.read(buffer, position + buffer.position()) == -1) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  private void writeFully(final ByteBuffer buffer, final long position) throws IOException {
+    while(buffer.hasRemaining()) {
+      this.channel.write(buffer, position + buffer.position());
+    }
+  }
+}
@@ -39,6 +39,8 @@ public interface ShortBinaryTag extends NumberBinaryTag {
    * @return a binary tag
    */
   static @NonNull ShortBinaryTag of(final short value) {
+    final int index = NumberTagCache.index(value);
+    if(index != -1) return ShortBinaryTagImpl.CACHE[index];
     return new ShortBinaryTagImpl(value);
   }
 
@@ -47,6 +49,16 @@ public interface ShortBinaryTag extends NumberBinaryTag {
     return BinaryTagTypes.SHORT;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitShort(this, parameter);
+  }
+
+  @Override
+  default int sizeInBytes() {
+    return Short.BYTES;
+  }
+
   /**
    * Gets the value.
    *
@@ -56,6 +68,14 @@ public interface ShortBinaryTag extends NumberBinaryTag {
 }
 
 final class ShortBinaryTagImpl implements ShortBinaryTag {
+  static final ShortBinaryTagImpl[] CACHE = new ShortBinaryTagImpl[NumberTagCache.SIZE];
+
+  static {
+    for(int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new ShortBinaryTagImpl((short) (i + NumberTagCache.LOW));
+    }
+  }
+
   private final short value;
 
   ShortBinaryTagImpl(final short value) {
@@ -35,6 +35,8 @@ public interface StringBinaryTag extends BinaryTag {
   /**
    * Creates a binary tag holding a {@link String} value.
    *
+   * <p>To share tags for short, repeated values, see {@link StringTagPool}.</p>
+   *
    * @param value the value
    * @return a binary tag
    */
@@ -47,6 +49,16 @@ public interface StringBinaryTag extends BinaryTag {
     return BinaryTagTypes.STRING;
   }
 
+  @Override
+  default <R, P, X extends Exception> R accept(final @NonNull BinaryTagTreeVisitor<R, P, X> visitor, final P parameter) throws X {
+    return visitor.visitString(this, parameter);
+  }
+
+  @Override
+  default int sizeInBytes() {
+    return Short.BYTES + ModifiedUtf8.encodedLength(this.value());
+  }
+
   /**
    * Gets the value.
    *
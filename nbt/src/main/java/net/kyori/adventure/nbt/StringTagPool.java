@@ -0,0 +1,129 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.UTFDataFormatException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bounded pool of string tags, used to share tags for short, repeated values such as item ids.
+ *
+ * <p>Values of up to 64 characters are kept in a fixed number of slots. A value is looked up in a single slot,
+ * and replaces whatever that slot held before when it is not found, so the pool never grows.
+ * When reading, values are matched by their encoded bytes, so a value which is already pooled is read without
+ * allocating a new string or tag.</p>
+ *
+ * <p>A pool is safe to use from multiple threads at once.</p>
+ *
+ * @see BinaryTagIO#readDataInput(java.io.DataInput, CompoundKeyTable, StringTagPool)
+ * @see TagStringIO.Builder#stringPool(StringTagPool)
+ */
+public final class StringTagPool {
+  private static final int MAX_LENGTH = 64;
+  private final StringBinaryTag[] tags;
+
+  /**
+   * Creates a string tag pool.
+   *
+   * @param capacity the maximum number of tags to keep, rounded up to a power of two
+   * @return a string tag pool
+   */
+  public static @NonNull StringTagPool create(final int capacity) {
+    if(capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    return new StringTagPool(Integer.highestOneBit(Math.min(capacity, 1 << 29) * 2 - 1));
+  }
+
+  private StringTagPool(final int size) {
+    this.tags = new StringBinaryTag[size];
+  }
+
+  // for ascii values, equal to the hash of their encoded bytes
+  private static int hash(final String value) {
+    final int length = value.length();
+    int hash = length;
+    for(int i = 0; i < length; i++) {
+      hash = 31 * hash + value.charAt(i);
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Gets a tag holding {@code value}, from the pool if possible.
+   *
+   * @param value the value
+   * @return a string tag
+   */
+  public @NonNull StringBinaryTag of(final @NonNull String value) {
+    requireNonNull(value, "value");
+    if(value.length() > MAX_LENGTH) return StringBinaryTag.of(value);
+    final StringBinaryTag[] tags = this.tags;
+    final int index = hash(value) & (tags.length - 1);
+    final /* @Nullable */ StringBinaryTag pooled = tags[index];
+    if(pooled != null && pooled.value().equals(value)) return pooled;
+    return this.put(index, value);
+  }
+
+  /**
+   * Gets a tag holding the value encoded by {@code length} bytes of modified UTF-8 in {@code bytes},
+   * from the pool if possible.
+   *
+   * @param bytes the bytes
+   * @param offset the offset of the first byte
+   * @param length the number of bytes
+   * @return a string tag
+   * @throws UTFDataFormatException if the bytes are not valid modified UTF-8
+   */
+  @NonNull StringBinaryTag intern(final byte@NonNull[] bytes, final int offset, final int length) throws UTFDataFormatException {
+    if(length > MAX_LENGTH) return StringBinaryTag.of(ModifiedUtf8.decode(bytes, offset, length));
+    int hash = length;
+    for(int i = offset, end = offset + length; i < end; i++) {
+      final byte b = bytes[i];
+      if(b < 0) return this.of(ModifiedUtf8.decode(bytes, offset, length)); // not ascii, match by value
+      hash = 31 * hash + b;
+    }
+    final StringBinaryTag[] tags = this.tags;
+    final int index = (hash ^ (hash >>> 16)) & (tags.length - 1);
+    final /* @Nullable */ StringBinaryTag pooled = tags[index];
+    if(pooled != null && matches(pooled.value(), bytes, offset, length)) return pooled;
+    return this.put(index, ModifiedUtf8.decode(bytes, offset, length));
+  }
+
+  private static boolean matches(final String value, final byte[] bytes, final int offset, final int length) {
+    if(value.length() != length) return false;
+    for(int i = 0; i < length; i++) {
+      if(value.charAt(i) != bytes[offset + i]) return false;
+    }
+    return true;
+  }
+
+  private StringBinaryTag put(final int index, final String value) {
+    final StringBinaryTag tag = StringBinaryTag.of(value);
+    // tags are immutable, so they can be published without synchronization. a racing write to the same slot
+    // may replace a tag for a different value, which only costs a later miss
+    this.tags[index] = tag;
+    return tag;
+  }
+}
@@ -23,10 +23,23 @@
  */
 package net.kyori.adventure.nbt;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * A holder for string tag format options.
@@ -55,11 +68,15 @@ public final class TagStringIO {
   private final boolean acceptLegacy;
   private final boolean emitLegacy;
   private final String indent;
+  private final ListBreaking listBreaking;
+  private final @Nullable StringTagPool stringPool;
 
   private TagStringIO(final @NonNull Builder builder) {
     this.acceptLegacy = builder.acceptLegacy;
     this.emitLegacy = builder.emitLegacy;
     this.indent = builder.indent;
+    this.listBreaking = builder.listBreaking;
+    this.stringPool = builder.stringPool;
   }
 
   /**
@@ -74,6 +91,32 @@ public final class TagStringIO {
       final CharBuffer buffer = new CharBuffer(input);
       final TagStringReader parser = new TagStringReader(buffer);
       parser.legacy(this.acceptLegacy);
+      parser.stringPool(this.stringPool);
+      final CompoundBinaryTag tag = parser.compound();
+      if(buffer.skipWhitespace().hasMore()) {
+        throw new IOException("Document had trailing content after first CompoundTag");
+      }
+      return tag;
+    } catch(final StringTagParseException ex) {
+      throw new IOException(ex);
+    }
+  }
+
+  /**
+   * Reads a compound tag structure from a reader.
+   *
+   * <p>Input is read in chunks rather than all at once. The provided {@link Reader} will remain open after reading a tag.</p>
+   *
+   * @param input reader to read from
+   * @return the compound tag
+   * @throws IOException if any IO or syntax errors occur while parsing
+   */
+  public CompoundBinaryTag fromReader(final Reader input) throws IOException {
+    try {
+      final CharBuffer buffer = new CharBuffer(input);
+      final TagStringReader parser = new TagStringReader(buffer);
+      parser.legacy(this.acceptLegacy);
+      parser.stringPool(this.stringPool);
       final CompoundBinaryTag tag = parser.compound();
       if(buffer.skipWhitespace().hasMore()) {
         throw new IOException("Document had trailing content after first CompoundTag");
@@ -81,9 +124,46 @@ public final class TagStringIO {
       return tag;
     } catch(final StringTagParseException ex) {
       throw new IOException(ex);
+    } catch(final UncheckedIOException ex) {
+      throw ex.getCause();
     }
   }
 
+  /**
+   * Reads a sequence of compound tags from a reader, separated by whitespace.
+   *
+   * <p>Input is read in chunks as tags are requested, so only the tag being parsed is held in memory.
+   * The returned stream does not close the provided {@link Reader}.</p>
+   *
+   * <p>Any IO or syntax errors will be thrown from the stream as an {@link UncheckedIOException}.</p>
+   *
+   * @param input reader to read from
+   * @return a stream of compound tags
+   */
+  public @NonNull Stream<CompoundBinaryTag> streamFromReader(final @NonNull Reader input) {
+    final CharBuffer buffer = new CharBuffer(input);
+    final TagStringReader parser = new TagStringReader(buffer);
+    parser.legacy(this.acceptLegacy);
+    parser.stringPool(this.stringPool);
+    final Iterator<CompoundBinaryTag> tags = new Iterator<CompoundBinaryTag>() {
+      @Override
+      public boolean hasNext() {
+        return buffer.skipWhitespace().hasMore();
+      }
+
+      @Override
+      public CompoundBinaryTag next() {
+        if(!this.hasNext()) throw new NoSuchElementException();
+        try {
+          return parser.compound();
+        } catch(final StringTagParseException ex) {
+          throw new UncheckedIOException(new IOException(ex));
+        }
+      }
+    };
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(tags, Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
   /**
    * Get a string representation of the provided tag.
    * 
@@ -93,10 +173,7 @@ public final class TagStringIO {
    */
   public String asString(final CompoundBinaryTag input) throws IOException {
     final StringBuilder sb = new StringBuilder();
-    try(final TagStringWriter emit = new TagStringWriter(sb, this.indent)) {
-      emit.legacy(this.emitLegacy);
-      emit.writeTag(input);
-    }
+    this.toWriter(input, sb);
     return sb.toString();
   }
 
@@ -110,12 +187,116 @@ public final class TagStringIO {
    * @throws IOException if any IO or syntax errors occur while parsing
    */
   public void toWriter(final CompoundBinaryTag input, final Writer dest) throws IOException {
+    this.toWriter(input, (Appendable) dest);
+  }
+
+  /**
+   * Writes a tag in string format to any {@link Appendable}, such as a {@link StringBuilder}.
+   *
+   * <p>If {@code dest} is {@link java.io.Closeable}, it will remain open after writing a tag.</p>
+   *
+   * @param input Tag to write
+   * @param dest Appendable to write to
+   * @throws IOException if any errors occur writing
+   */
+  public void toWriter(final CompoundBinaryTag input, final Appendable dest) throws IOException {
     try(final TagStringWriter emit = new TagStringWriter(dest, this.indent)) {
-      emit.legacy(this.emitLegacy);
+      emit.legacy(this.emitLegacy).listBreaking(this.listBreaking);
       emit.writeTag(input);
     }
   }
 
+  /**
+   * Converts a binary compound tag directly to its string representation, without creating tags.
+   *
+   * @param input binary input to read from
+   * @return serialized form
+   * @throws IOException if any errors occur reading or writing
+   * @see BinaryTagIO#readDataInput(DataInput)
+   */
+  public String transcodeToString(final DataInput input) throws IOException {
+    final StringBuilder sb = new StringBuilder();
+    this.transcodeToWriter(input, sb);
+    return sb.toString();
+  }
+
+  /**
+   * Converts a binary compound tag directly to its string representation, without creating tags.
+   *
+   * <p>The provided {@link Writer} will remain open after writing a tag.</p>
+   *
+   * @param input binary input to read from
+   * @param dest Writer to write to
+   * @throws IOException if any errors occur reading or writing
+   * @see BinaryTagIO#readDataInput(DataInput)
+   */
+  public void transcodeToWriter(final DataInput input, final Writer dest) throws IOException {
+    this.transcodeToWriter(input, (Appendable) dest);
+  }
+
+  /**
+   * Converts a binary compound tag directly to its string representation, without creating tags,
+   * writing it to any {@link Appendable}, such as a {@link StringBuilder}.
+   *
+   * <p>If {@code dest} is {@link java.io.Closeable}, it will remain open after writing a tag.</p>
+   *
+   * @param input binary input to read from
+   * @param dest Appendable to write to
+   * @throws IOException if any errors occur reading or writing
+   * @see BinaryTagIO#readDataInput(DataInput)
+   */
+  public void transcodeToWriter(final DataInput input, final Appendable dest) throws IOException {
+    try(final TagStringWriter emit = new TagStringWriter(dest, this.indent)) {
+      emit.legacy(this.emitLegacy).listBreaking(this.listBreaking);
+      BinaryTagIO.readDataInput(input, new TagStringTranscoder(emit));
+    }
+  }
+
+  /**
+   * Converts the string representation of a compound tag directly to its binary form, without creating tags.
+   *
+   * @param input Input data
+   * @param output binary output to write to
+   * @throws IOException on any syntax errors, or errors writing
+   * @see BinaryTagIO#writeDataOutput(CompoundBinaryTag, DataOutput)
+   */
+  public void transcodeFromString(final String input, final DataOutput output) throws IOException {
+    this.transcode(new CharBuffer(input), output);
+  }
+
+  /**
+   * Converts the string representation of a compound tag directly to its binary form, without creating tags.
+   *
+   * <p>The provided {@link Reader} will remain open after reading a tag.</p>
+   *
+   * @param input reader to read from
+   * @param output binary output to write to
+   * @throws IOException if any IO or syntax errors occur
+   * @see BinaryTagIO#writeDataOutput(CompoundBinaryTag, DataOutput)
+   */
+  public void transcodeFromReader(final Reader input, final DataOutput output) throws IOException {
+    try {
+      this.transcode(new CharBuffer(input), output);
+    } catch(final UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  private void transcode(final CharBuffer buffer, final DataOutput output) throws IOException {
+    try {
+      final TagStringReader parser = new TagStringReader(buffer);
+      parser.legacy(this.acceptLegacy);
+      output.writeByte(BinaryTagTypes.COMPOUND.id());
+      output.writeUTF(""); // write empty name
+      parser.compound(output);
+      if(buffer.skipWhitespace().hasMore()) {
+        throw new IOException("Document had trailing content after first CompoundTag");
+      }
+    } catch(final StringTagParseException ex) {
+      throw new IOException(ex);
+    }
+  }
+
   /**
    * Builder for a SNBT I/O handler.
    */
@@ -123,6 +304,8 @@ public final class TagStringIO {
     private boolean acceptLegacy = true;
     private boolean emitLegacy = false;
     private String indent = "";
+    private ListBreaking listBreaking = ListBreaking.nonScalarElements();
+    private @Nullable StringTagPool stringPool;
 
     Builder() {
     }
@@ -165,6 +348,32 @@ public final class TagStringIO {
       return this;
     }
 
+    /**
+     * Set when the elements of a list are placed on their own lines while pretty-printing.
+     *
+     * <p>By default, only lists of compound, list and array tags are broken.</p>
+     *
+     * @param listBreaking the list breaking strategy
+     * @return this builder
+     */
+    public @NonNull Builder listBreaking(final @NonNull ListBreaking listBreaking) {
+      this.listBreaking = requireNonNull(listBreaking, "listBreaking");
+      return this;
+    }
+
+    /**
+     * Set the pool to share string tags through while reading.
+     *
+     * <p>By default, string tags are not pooled.</p>
+     *
+     * @param stringPool the string tag pool, or {@code null} to not pool string tags
+     * @return this builder
+     */
+    public @NonNull Builder stringPool(final @Nullable StringTagPool stringPool) {
+      this.stringPool = stringPool;
+      return this;
+    }
+
     /**
      * Configure whether or not the resulting IO configuration will accept legacy-formatted data.
      * 
@@ -201,4 +410,50 @@ public final class TagStringIO {
       return new TagStringIO(this);
     }
   }
+
+  /**
+   * Decides when the elements of a list are placed on their own lines while pretty-printing.
+   */
+  @FunctionalInterface
+  public interface ListBreaking {
+    /**
+     * Breaks lists of compound, list and array tags, keeping lists of other tags on one line.
+     *
+     * @return the list breaking strategy
+     */
+    static @NonNull ListBreaking nonScalarElements() {
+      return (type, size) -> type == BinaryTagTypes.COMPOUND
+        || type == BinaryTagTypes.LIST
+        || type == BinaryTagTypes.BYTE_ARRAY
+        || type == BinaryTagTypes.INT_ARRAY
+        || type == BinaryTagTypes.LONG_ARRAY;
+    }
+
+    /**
+     * Breaks all non-empty lists.
+     *
+     * @return the list breaking strategy
+     */
+    static @NonNull ListBreaking always() {
+      return (type, size) -> size > 0;
+    }
+
+    /**
+     * Keeps all lists on one line.
+     *
+     * @return the list breaking strategy
+     */
+    static @NonNull ListBreaking never() {
+      return (type, size) -> false;
+    }
+
+    /**
+     * Gets whether the elements of a list should be placed on their own lines.
+     *
+     * @param type the type of the elements
+     * @param size the number of elements
+     * @return whether to break lines between elements
+     */
+    boolean breakElements(@NonNull BinaryTagType<? extends BinaryTag> type, int size);
+  }
 }
@@ -23,18 +23,41 @@
  */
 package net.kyori.adventure.nbt;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.IntStream;
-import java.util.stream.LongStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 final class TagStringReader {
   private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
   private static final int[] EMPTY_INT_ARRAY = new int[0];
   private static final long[] EMPTY_LONG_ARRAY = new long[0];
+  private static final int INITIAL_ARRAY_CAPACITY = 16;
+  private static final int INVALID = 0;
+  private static final int INEXACT = 1;
+  private static final int EXACT = 2;
+  private static final int MAX_DIGITS = 18; // always fit in a long
+  private static final int MAX_EXPONENT = 100000;
+  // a mantissa of up to this many digits, and a power of ten within the table, are exactly representable
+  private static final int FLOAT_EXACT_DIGITS = 7;
+  private static final int DOUBLE_EXACT_DIGITS = 15;
+  private static final float[] FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+  private static final double[] DOUBLE_POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
 
   private final CharBuffer buffer;
   private boolean acceptLegacy;
+  private @Nullable StringTagPool stringPool;
+  // the results of parsing numbers, to avoid allocating
+  private long integer;
+  private double decimal;
+  private boolean negative;
+  private long mantissa;
+  private int digits;
+  private int exponent;
 
   TagStringReader(final CharBuffer buffer) {
     this.buffer = buffer;
@@ -78,6 +101,143 @@ final class TagStringReader {
     throw this.buffer.makeError("Reached end of file without end of list tag!");
   }
 
+  /**
+   * Reads a compound tag, writing its binary encoding to {@code output} instead of creating tags.
+   *
+   * <p>Elements of list tags are encoded into a buffer first, as the number of elements precedes them.</p>
+   *
+   * @param output the output
+   * @throws IOException if the input is not a valid compound tag, or an error occurs writing
+   */
+  public void compound(final DataOutput output) throws IOException {
+    this.buffer.expect(Tokens.COMPOUND_BEGIN);
+    if(!this.buffer.takeIf(Tokens.COMPOUND_END)) {
+      this.compoundEntries(output);
+    }
+    output.writeByte(BinaryTagTypes.END.id());
+  }
+
+  private void compoundEntries(final DataOutput output) throws IOException {
+    while(this.buffer.hasMore()) {
+      final String key = this.key();
+      final /* @Nullable */ BinaryTagType<?> type = this.type();
+      if(type == null) {
+        final BinaryTag tag = this.scalar();
+        output.writeByte(tag.type().id());
+        ModifiedUtf8.write(output, key);
+        BinaryTagType.write(tag.type(), tag, output);
+      } else {
+        output.writeByte(type.id());
+        ModifiedUtf8.write(output, key);
+        this.payload(type, output);
+      }
+      if(this.separatorOrCompleteWith(Tokens.COMPOUND_END)) {
+        return;
+      }
+    }
+    throw this.buffer.makeError("Unterminated compound tag!");
+  }
+
+  /**
+   * Reads a list tag, writing its binary encoding to {@code output} instead of creating tags.
+   *
+   * @param output the output
+   * @throws IOException if the input is not a valid list tag, or an error occurs writing
+   */
+  public void list(final DataOutput output) throws IOException {
+    this.buffer.expect(Tokens.ARRAY_BEGIN);
+    final boolean prefixedIndex = this.acceptLegacy && this.buffer.peek() == '0' && this.buffer.peek(1) == ':';
+    if(!prefixedIndex && this.buffer.takeIf(Tokens.ARRAY_END)) {
+      output.writeByte(BinaryTagTypes.END.id());
+      output.writeInt(0);
+      return;
+    }
+    final ByteBufferDataOutput elements = new ByteBufferDataOutput();
+    /* @Nullable */ BinaryTagType<?> listType = null;
+    int size = 0;
+    while(this.buffer.hasMore()) {
+      if(prefixedIndex) {
+        this.buffer.takeUntil(':');
+      }
+
+      final /* @Nullable */ BinaryTagType<?> type = this.type();
+      final /* @Nullable */ BinaryTag scalar = type == null ? this.scalar() : null;
+      final BinaryTagType<?> elementType = scalar != null ? scalar.type() : type;
+      if(listType == null) {
+        listType = elementType;
+      } else if(listType != elementType) {
+        throw this.buffer.makeError("All elements of a list must be of the same type!");
+      }
+      if(scalar != null) {
+        BinaryTagType.write(elementType, scalar, elements);
+      } else {
+        this.payload(elementType, elements);
+      }
+      size++;
+
+      if(this.separatorOrCompleteWith(Tokens.ARRAY_END)) {
+        final ByteBuffer encoded = elements.buffer();
+        output.writeByte(listType.id());
+        output.writeInt(size);
+        output.write(encoded.array(), encoded.arrayOffset(), encoded.position());
+        return;
+      }
+    }
+    throw this.buffer.makeError("Reached end of file without end of list tag!");
+  }
+
+  /**
+   * Gets the type of the next tag, without reading it.
+   *
+   * @return the type, or {@code null} for a scalar, which must be read to know its type
+   * @throws StringTagParseException if the next tag is an array of an unknown type
+   */
+  private /* @Nullable */ BinaryTagType<?> type() throws StringTagParseException {
+    final char startToken = this.buffer.skipWhitespace().peek();
+    switch(startToken) {
+      case Tokens.COMPOUND_BEGIN:
+        return BinaryTagTypes.COMPOUND;
+      case Tokens.ARRAY_BEGIN:
+        if(this.buffer.hasMore(2) && this.buffer.peek(2) == ';') {
+          final char elementType = Character.toLowerCase(this.buffer.peek(1));
+          if(elementType == Tokens.TYPE_BYTE) {
+            return BinaryTagTypes.BYTE_ARRAY;
+          } else if(elementType == Tokens.TYPE_INT) {
+            return BinaryTagTypes.INT_ARRAY;
+          } else if(elementType == Tokens.TYPE_LONG) {
+            return BinaryTagTypes.LONG_ARRAY;
+          }
+          throw this.buffer.makeError("Type " + elementType + " is not a valid element type in an array!");
+        }
+        return BinaryTagTypes.LIST;
+      case Tokens.SINGLE_QUOTE:
+      case Tokens.DOUBLE_QUOTE:
+        return BinaryTagTypes.STRING;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Reads a tag of a type from {@link #type()}, writing its binary encoding to {@code output}.
+   *
+   * @param type the type of the tag
+   * @param output the output
+   * @throws IOException if the input is not a valid tag, or an error occurs writing
+   */
+  private void payload(final BinaryTagType<?> type, final DataOutput output) throws IOException {
+    if(type == BinaryTagTypes.COMPOUND) {
+      this.compound(output);
+    } else if(type == BinaryTagTypes.LIST) {
+      this.list(output);
+    } else if(type == BinaryTagTypes.STRING) {
+      final char quote = this.buffer.take();
+      ModifiedUtf8.write(output, unescape(this.buffer.takeUntil(quote).toString()));
+    } else {
+      BinaryTagType.write(type, this.array(this.buffer.peek(1)), output);
+    }
+  }
+
   /**
    * Similar to a list tag in syntax, but returning a single array tag rather than a list of tags.
    *
@@ -105,21 +265,21 @@ final class TagStringReader {
       return EMPTY_BYTE_ARRAY;
     }
 
-    final List<Byte> bytes = new ArrayList<>();
+    byte[] bytes = new byte[INITIAL_ARRAY_CAPACITY];
+    int size = 0;
     while(this.buffer.hasMore()) {
-      final CharSequence value = this.buffer.skipWhitespace().takeUntil(Tokens.TYPE_BYTE);
-      try {
-        bytes.add(Byte.valueOf(value.toString()));
-      } catch(final NumberFormatException ex) {
+      final int start = this.buffer.skipWhitespace().index();
+      final int end = this.indexOfSuffix(Tokens.TYPE_BYTE);
+      if(!this.parseInteger(start, end, Byte.MIN_VALUE, Byte.MAX_VALUE)) {
         throw this.buffer.makeError("All elements of a byte array must be bytes!");
       }
+      if(size == bytes.length) {
+        bytes = Arrays.copyOf(bytes, size << 1);
+      }
+      bytes[size++] = (byte) this.integer;
 
       if(this.separatorOrCompleteWith(Tokens.ARRAY_END)) {
-        final byte[] result = new byte[bytes.size()];
-        for(int i = 0; i < bytes.size(); ++i) { // todo yikes, let's do less boxing
-          result[i] = bytes.get(i);
-        }
-        return result;
+        return Arrays.copyOf(bytes, size);
       }
     }
     throw this.buffer.makeError("Reached end of document without array close");
@@ -130,15 +290,25 @@ final class TagStringReader {
       return EMPTY_INT_ARRAY;
     }
 
-    final IntStream.Builder builder = IntStream.builder();
+    int[] ints = new int[INITIAL_ARRAY_CAPACITY];
+    int size = 0;
     while(this.buffer.hasMore()) {
-      final BinaryTag value = this.tag();
-      if(!(value instanceof IntBinaryTag)) {
+      final int start = this.buffer.skipWhitespace().index();
+      int end = start;
+      while(this.buffer.has(end) && Tokens.id(this.buffer.charAt(end))) {
+        end++;
+      }
+      if(!this.parseInteger(start, end, Integer.MIN_VALUE, Integer.MAX_VALUE)) {
         throw this.buffer.makeError("All elements of an int array must be ints!");
       }
-      builder.add(((IntBinaryTag) value).intValue());
+      this.buffer.index(end);
+      if(size == ints.length) {
+        ints = Arrays.copyOf(ints, size << 1);
+      }
+      ints[size++] = (int) this.integer;
+
       if(this.separatorOrCompleteWith(Tokens.ARRAY_END)) {
-        return builder.build().toArray();
+        return Arrays.copyOf(ints, size);
       }
     }
     throw this.buffer.makeError("Reached end of document without array close");
@@ -149,22 +319,46 @@ final class TagStringReader {
       return EMPTY_LONG_ARRAY;
     }
 
-    final LongStream.Builder longs = LongStream.builder();
+    long[] longs = new long[INITIAL_ARRAY_CAPACITY];
+    int size = 0;
     while(this.buffer.hasMore()) {
-      final CharSequence value = this.buffer.skipWhitespace().takeUntil(Tokens.TYPE_LONG);
-      try {
-        longs.add(Long.parseLong(value.toString()));
-      } catch(final NumberFormatException ex) {
+      final int start = this.buffer.skipWhitespace().index();
+      final int end = this.indexOfSuffix(Tokens.TYPE_LONG);
+      if(!this.parseInteger(start, end, Long.MIN_VALUE, Long.MAX_VALUE)) {
         throw this.buffer.makeError("All elements of a long array must be longs!");
       }
+      if(size == longs.length) {
+        longs = Arrays.copyOf(longs, size << 1);
+      }
+      longs[size++] = this.integer;
 
       if(this.separatorOrCompleteWith(Tokens.ARRAY_END)) {
-        return longs.build().toArray();
+        return Arrays.copyOf(longs, size);
       }
     }
     throw this.buffer.makeError("Reached end of document without array close");
   }
 
+  /**
+   * Finds the next occurrence of a type suffix, and moves past it.
+   *
+   * @param suffix the lower case suffix
+   * @return the position of the suffix
+   * @throws StringTagParseException if there is no such suffix
+   */
+  private int indexOfSuffix(final char suffix) throws StringTagParseException {
+    for(int i = this.buffer.index(); this.buffer.has(i); i++) {
+      final char c = this.buffer.charAt(i);
+      if(c == Tokens.ESCAPE_MARKER) {
+        i++;
+      } else if(Character.toLowerCase(c) == suffix) {
+        this.buffer.index(i + 1);
+        return i;
+      }
+    }
+    throw this.buffer.makeError("No occurrence of " + suffix + " was found");
+  }
+
   public String key() throws StringTagParseException {
     this.buffer.skipWhitespace();
     final char starChar = this.buffer.peek();
@@ -173,6 +367,17 @@ final class TagStringReader {
         return unescape(this.buffer.takeUntil(this.buffer.take()).toString());
       }
 
+      final int start = this.buffer.index();
+      int end = start;
+      while(this.buffer.has(end) && Tokens.id(this.buffer.charAt(end))) {
+        end++;
+      }
+      if(!this.acceptLegacy || !this.buffer.has(end) || this.buffer.charAt(end) == Tokens.COMPOUND_KEY_TERMINATOR) {
+        final String key = this.buffer.substring(start, end);
+        this.buffer.index(end);
+        return key;
+      }
+
       final StringBuilder builder = new StringBuilder();
       while(this.buffer.hasMore()) {
         final char peek = this.buffer.peek();
@@ -214,7 +419,7 @@ final class TagStringReader {
       case Tokens.DOUBLE_QUOTE:
         // definitely a string tag
         this.buffer.advance();
-        return StringBinaryTag.of(unescape(this.buffer.takeUntil(startToken).toString()));
+        return this.string(unescape(this.buffer.takeUntil(startToken).toString()));
       default: // scalar
         return this.scalar();
     }
@@ -227,42 +432,99 @@ final class TagStringReader {
    * @return a parsed tag
    */
   private BinaryTag scalar() {
-    final StringBuilder builder = new StringBuilder();
+    final int start = this.buffer.index();
     boolean possiblyNumeric = true;
-    while(this.buffer.hasMore()) {
-      final char current = this.buffer.peek();
+    boolean numeric = true; // if every character so far is a possible part of a number
+    int end = start;
+    while(this.buffer.has(end)) {
+      final char current = this.buffer.charAt(end);
+      if(current == Tokens.ESCAPE_MARKER) {
+        return this.escapedScalar(start);
+      } else if(!Tokens.id(current)) { // end of value
+        break;
+      }
       if(possiblyNumeric && !Tokens.numeric(current)) {
-        if(builder.length() != 0) {
-          BinaryTag result = null;
-          try {
-            switch(Character.toLowerCase(current)) { // try to read and return as a number
-              // case Tokens.TYPE_INTEGER: // handled below, ints are ~special~
-              case Tokens.TYPE_BYTE:
-                result = ByteBinaryTag.of(Byte.parseByte(builder.toString()));
-                break;
-              case Tokens.TYPE_SHORT:
-                result = ShortBinaryTag.of(Short.parseShort(builder.toString()));
-                break;
-              case Tokens.TYPE_LONG:
-                result = LongBinaryTag.of(Long.parseLong(builder.toString()));
-                break;
-              case Tokens.TYPE_FLOAT:
-                result = FloatBinaryTag.of(Float.parseFloat(builder.toString()));
-                break;
-              case Tokens.TYPE_DOUBLE:
-                result = DoubleBinaryTag.of(Double.parseDouble(builder.toString()));
-                break;
-            }
-          } catch(final NumberFormatException ex) {
-            possiblyNumeric = false; // fallback to treating as a String
-          }
+        if(end != start) {
+          final /* @Nullable */ BinaryTag result = this.suffixed(Character.toLowerCase(current), start, end, numeric);
           if(result != null) {
-            this.buffer.take();
+            this.buffer.index(end + 1);
             return result;
           }
+          if(this.suffix(current)) {
+            possiblyNumeric = false; // fallback to treating as a String
+          }
         }
+        numeric = false;
+      }
+      end++;
+    }
+    final BinaryTag result = this.unsuffixed(start, end, possiblyNumeric && numeric, possiblyNumeric);
+    this.buffer.index(end);
+    return result;
+  }
+
+  private BinaryTag unsuffixed(final int start, final int end, final boolean numeric, final boolean possiblyNumeric) {
+    // if we run out of content without an explicit value separator, then we're either an integer or string tag -- all others have a character at the end
+    if(possiblyNumeric) {
+      if(numeric && this.parseInteger(start, end, Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+        return IntBinaryTag.of((int) this.integer);
+      }
+      if(this.parseDouble(start, end, numeric)) {
+        return DoubleBinaryTag.of(this.decimal);
       }
-      if(current == '\\') { // escape -- we are significantly more lenient than original format at the moment
+    }
+
+    if(this.matchesIgnoreCase(start, end, Tokens.LITERAL_TRUE)) {
+      return ByteBinaryTag.ONE;
+    } else if(this.matchesIgnoreCase(start, end, Tokens.LITERAL_FALSE)) {
+      return ByteBinaryTag.ZERO;
+    }
+    return this.string(this.buffer.substring(start, end));
+  }
+
+  private boolean suffix(final char c) {
+    switch(Character.toLowerCase(c)) {
+      case Tokens.TYPE_BYTE:
+      case Tokens.TYPE_SHORT:
+      case Tokens.TYPE_LONG:
+      case Tokens.TYPE_FLOAT:
+      case Tokens.TYPE_DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private /* @Nullable */ BinaryTag suffixed(final char suffix, final int start, final int end, final boolean numeric) {
+    switch(suffix) { // try to read and return as a number
+      // case Tokens.TYPE_INTEGER: // handled below, ints are ~special~
+      case Tokens.TYPE_BYTE:
+        return numeric && this.parseInteger(start, end, Byte.MIN_VALUE, Byte.MAX_VALUE) ? ByteBinaryTag.of((byte) this.integer) : null;
+      case Tokens.TYPE_SHORT:
+        return numeric && this.parseInteger(start, end, Short.MIN_VALUE, Short.MAX_VALUE) ? ShortBinaryTag.of((short) this.integer) : null;
+      case Tokens.TYPE_LONG:
+        return numeric && this.parseInteger(start, end, Long.MIN_VALUE, Long.MAX_VALUE) ? LongBinaryTag.of(this.integer) : null;
+      case Tokens.TYPE_FLOAT:
+        return this.parseFloat(start, end, numeric) ? FloatBinaryTag.of((float) this.decimal) : null;
+      case Tokens.TYPE_DOUBLE:
+        return this.parseDouble(start, end, numeric) ? DoubleBinaryTag.of(this.decimal) : null;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Reads a scalar containing escapes, which is always a string.
+   *
+   * @param start the position of the start of the scalar
+   * @return a parsed tag
+   */
+  private BinaryTag escapedScalar(final int start) {
+    this.buffer.index(start);
+    final StringBuilder builder = new StringBuilder();
+    while(this.buffer.hasMore()) {
+      final char current = this.buffer.peek();
+      if(current == Tokens.ESCAPE_MARKER) { // escape -- we are significantly more lenient than original format at the moment
         this.buffer.advance();
         builder.append(this.buffer.take());
       } else if(Tokens.id(current)) {
@@ -271,27 +533,166 @@ final class TagStringReader {
         break;
       }
     }
-    // if we run out of content without an explicit value separator, then we're either an integer or string tag -- all others have a character at the end
-    final String built = builder.toString();
-    if(possiblyNumeric) {
-      try {
-        return IntBinaryTag.of(Integer.parseInt(built));
-      } catch(final NumberFormatException ex) {
-        try {
-          return DoubleBinaryTag.of(Double.parseDouble(built));
-        } catch(final NumberFormatException ex2) {
-          // ignore
-        }
-      }
+    return this.string(builder.toString());
+  }
+
+  private boolean matchesIgnoreCase(final int start, final int end, final String literal) {
+    if(end - start != literal.length()) return false;
+    for(int i = 0; i < literal.length(); i++) {
+      if(Character.toLowerCase(this.buffer.charAt(start + i)) != literal.charAt(i)) return false;
     }
+    return true;
+  }
 
-    if(built.equalsIgnoreCase(Tokens.LITERAL_TRUE)) {
-      return ByteBinaryTag.ONE;
-    } else if(built.equalsIgnoreCase(Tokens.LITERAL_FALSE)) {
-      return ByteBinaryTag.ZERO;
+  /**
+   * Parses the characters between two positions as an integer, accepting the same input as {@link Long#parseLong(String)}.
+   *
+   * <p>On success, the value is stored in {@link #integer}.</p>
+   *
+   * @param start the start position, inclusive
+   * @param end the end position, exclusive
+   * @param min the smallest accepted value
+   * @param max the largest accepted value
+   * @return if the characters are an integer between {@code min} and {@code max}
+   */
+  private boolean parseInteger(final int start, final int end, final long min, final long max) {
+    int i = start;
+    if(i == end) return false;
+    final char first = this.buffer.charAt(i);
+    final boolean negative = first == '-';
+    if(negative || first == '+') {
+      if(++i == end) return false;
+    }
+    // accumulate negatively, as the negative range is larger
+    final long limit = negative ? min : -max;
+    long value = 0;
+    for(; i < end; i++) {
+      final int digit = this.buffer.charAt(i) - '0';
+      if(digit < 0 || digit > 9) return false;
+      if(value < (limit + digit) / 10) return false;
+      value = value * 10 - digit;
+    }
+    this.integer = negative ? value : -value;
+    return true;
+  }
+
+  private boolean parseFloat(final int start, final int end, final boolean numeric) {
+    final int result = numeric ? this.parseDecimal(start, end) : INVALID;
+    if(result == EXACT && this.digits <= FLOAT_EXACT_DIGITS && Math.abs(this.exponent) < FLOAT_POWERS_OF_TEN.length) {
+      // both operands are exactly representable, so the result is correctly rounded
+      final float mantissa = this.negative ? -(float) this.mantissa : (float) this.mantissa;
+      this.decimal = this.exponent < 0 ? mantissa / FLOAT_POWERS_OF_TEN[-this.exponent] : mantissa * FLOAT_POWERS_OF_TEN[this.exponent];
+      return true;
+    } else if(result == INVALID && !this.possiblyNonDecimal(start, end)) {
+      return false;
+    }
+    try {
+      this.decimal = Float.parseFloat(this.buffer.substring(start, end));
+      return true;
+    } catch(final NumberFormatException ex) {
+      return false;
+    }
+  }
+
+  private boolean parseDouble(final int start, final int end, final boolean numeric) {
+    final int result = numeric ? this.parseDecimal(start, end) : INVALID;
+    if(result == EXACT && this.digits <= DOUBLE_EXACT_DIGITS && Math.abs(this.exponent) < DOUBLE_POWERS_OF_TEN.length) {
+      // both operands are exactly representable, so the result is correctly rounded
+      final double mantissa = this.negative ? -(double) this.mantissa : (double) this.mantissa;
+      this.decimal = this.exponent < 0 ? mantissa / DOUBLE_POWERS_OF_TEN[-this.exponent] : mantissa * DOUBLE_POWERS_OF_TEN[this.exponent];
+      return true;
+    } else if(result == INVALID && !this.possiblyNonDecimal(start, end)) {
+      return false;
     }
-    return StringBinaryTag.of(built);
+    try {
+      this.decimal = Double.parseDouble(this.buffer.substring(start, end));
+      return true;
+    } catch(final NumberFormatException ex) {
+      return false;
+    }
+  }
+
+  /**
+   * Checks if characters which are not all part of a decimal number could still be parsed by
+   * {@link Double#parseDouble(String)}, as {@code NaN}, {@code Infinity} or a hexadecimal number.
+   *
+   * @param start the start position, inclusive
+   * @param end the end position, exclusive
+   * @return if the characters might be a number
+   */
+  private boolean possiblyNonDecimal(final int start, final int end) {
+    int i = start;
+    if(i < end && (this.buffer.charAt(i) == '+' || this.buffer.charAt(i) == '-')) i++;
+    if(i == end) return false;
+    final char first = this.buffer.charAt(i);
+    return first == 'N' || first == 'I' || (first == '0' && i + 1 < end && Character.toLowerCase(this.buffer.charAt(i + 1)) == 'x');
+  }
 
+  /**
+   * Parses the characters between two positions as a decimal number, of the form {@code [+-]digits[.digits][e[+-]digits]}.
+   *
+   * <p>On success, the value is stored in {@link #negative}, {@link #mantissa}, {@link #digits} and {@link #exponent}.</p>
+   *
+   * @param start the start position, inclusive
+   * @param end the end position, exclusive
+   * @return {@link #INVALID} if the characters are not a decimal number, {@link #INEXACT} if they have too many digits
+   *     to be stored, and otherwise {@link #EXACT}
+   */
+  private int parseDecimal(final int start, final int end) {
+    int i = start;
+    if(i == end) return INVALID;
+    this.negative = this.buffer.charAt(i) == '-';
+    if(this.negative || this.buffer.charAt(i) == '+') i++;
+    long mantissa = 0;
+    int digits = 0;
+    int exponent = 0;
+    boolean any = false;
+    boolean exact = true;
+    boolean point = false;
+    for(; i < end; i++) {
+      final char c = this.buffer.charAt(i);
+      if(c == '.' && !point) {
+        point = true;
+        continue;
+      }
+      final int digit = c - '0';
+      if(digit < 0 || digit > 9) break;
+      any = true;
+      if(point) exponent--;
+      if(mantissa == 0 && digit == 0) continue; // leading zero
+      if(digits == MAX_DIGITS) {
+        exact = false;
+        continue;
+      }
+      mantissa = mantissa * 10 + digit;
+      digits++;
+    }
+    if(!any) return INVALID;
+    if(i < end) {
+      final char c = this.buffer.charAt(i++);
+      if(c != 'e' && c != 'E') return INVALID;
+      boolean negativeExponent = false;
+      if(i < end && (this.buffer.charAt(i) == '+' || this.buffer.charAt(i) == '-')) {
+        negativeExponent = this.buffer.charAt(i++) == '-';
+      }
+      if(i == end) return INVALID;
+      int value = 0;
+      for(; i < end; i++) {
+        final int digit = this.buffer.charAt(i) - '0';
+        if(digit < 0 || digit > 9) return INVALID;
+        if(value < MAX_EXPONENT) {
+          value = value * 10 + digit;
+        } else {
+          exact = false;
+        }
+      }
+      exponent += negativeExponent ? -value : value;
+    }
+    if(!exact) return INEXACT;
+    this.mantissa = mantissa;
+    this.digits = digits;
+    this.exponent = mantissa == 0 ? 0 : exponent;
+    return EXACT;
   }
 
   private boolean separatorOrCompleteWith(final char endCharacter) throws StringTagParseException {
@@ -323,7 +724,16 @@ final class TagStringReader {
     return output.toString();
   }
 
+  private StringBinaryTag string(final String value) {
+    final /* @Nullable */ StringTagPool stringPool = this.stringPool;
+    return stringPool == null ? StringBinaryTag.of(value) : stringPool.of(value);
+  }
+
   public void legacy(final boolean acceptLegacy) {
     this.acceptLegacy = acceptLegacy;
   }
+
+  public void stringPool(final @Nullable StringTagPool stringPool) {
+    this.stringPool = stringPool;
+  }
 }
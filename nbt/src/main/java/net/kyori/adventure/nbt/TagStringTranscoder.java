@@ -0,0 +1,161 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A visitor writing the contents of a binary tag as SNBT, as it is being read.
+ */
+final class TagStringTranscoder implements BinaryTagVisitor {
+  private static final int INITIAL_DEPTH = 16;
+  private static final int COMPOUND = -1;
+  private final TagStringWriter writer;
+  private int depth;
+  // for each open tag, the index of the next element of a list, or COMPOUND
+  private int[] indices = new int[INITIAL_DEPTH];
+  private boolean[] lineBreaks = new boolean[INITIAL_DEPTH];
+
+  TagStringTranscoder(final TagStringWriter writer) {
+    this.writer = writer;
+  }
+
+  @Override
+  public @NonNull Result visitCompound() throws IOException {
+    this.element();
+    this.writer.beginCompound();
+    this.push(COMPOUND, false);
+    return Result.CONTINUE;
+  }
+
+  @Override
+  public @NonNull Result visitKey(final @NonNull String key, final @NonNull BinaryTagType<? extends BinaryTag> type) throws IOException {
+    this.writer.key(key);
+    return Result.CONTINUE;
+  }
+
+  @Override
+  public void visitCompoundEnd() throws IOException {
+    this.depth--;
+    this.writer.endCompound();
+  }
+
+  @Override
+  public @NonNull Result visitList(final @NonNull BinaryTagType<? extends BinaryTag> type, final int size) throws IOException {
+    this.element();
+    this.writer.beginList();
+    this.push(0, this.writer.lineBreaks(type, size));
+    return Result.CONTINUE;
+  }
+
+  @Override
+  public void visitListEnd() throws IOException {
+    final boolean lineBreak = this.lineBreaks[--this.depth];
+    this.writer.endList(lineBreak);
+  }
+
+  @Override
+  public void visitByte(final byte value) throws IOException {
+    this.element();
+    this.writer.writeByte(value);
+  }
+
+  @Override
+  public void visitShort(final short value) throws IOException {
+    this.element();
+    this.writer.writeShort(value);
+  }
+
+  @Override
+  public void visitInt(final int value) throws IOException {
+    this.element();
+    this.writer.writeInt(value);
+  }
+
+  @Override
+  public void visitLong(final long value) throws IOException {
+    this.element();
+    this.writer.writeLong(value);
+  }
+
+  @Override
+  public void visitFloat(final float value) throws IOException {
+    this.element();
+    this.writer.writeFloat(value);
+  }
+
+  @Override
+  public void visitDouble(final double value) throws IOException {
+    this.element();
+    this.writer.writeDouble(value);
+  }
+
+  @Override
+  public void visitString(final @NonNull String value) throws IOException {
+    this.element();
+    this.writer.writeString(value);
+  }
+
+  @Override
+  public void visitByteArray(final byte@NonNull[] value) throws IOException {
+    this.element();
+    this.writer.writeByteArray(value);
+  }
+
+  @Override
+  public void visitIntArray(final int@NonNull[] value) throws IOException {
+    this.element();
+    this.writer.writeIntArray(value);
+  }
+
+  @Override
+  public void visitLongArray(final long@NonNull[] value) throws IOException {
+    this.element();
+    this.writer.writeLongArray(value);
+  }
+
+  /**
+   * Begins a value, if it is an element of a list.
+   *
+   * @throws IOException if an error occurs writing
+   */
+  private void element() throws IOException {
+    final int parent = this.depth - 1;
+    if(parent >= 0 && this.indices[parent] != COMPOUND) {
+      this.writer.listElement(this.indices[parent]++, this.lineBreaks[parent]);
+    }
+  }
+
+  private void push(final int index, final boolean lineBreak) {
+    if(this.depth == this.indices.length) {
+      this.indices = Arrays.copyOf(this.indices, this.depth << 1);
+      this.lineBreaks = Arrays.copyOf(this.lineBreaks, this.depth << 1);
+    }
+    this.indices[this.depth] = index;
+    this.lineBreaks[this.depth] = lineBreak;
+    this.depth++;
+  }
+}
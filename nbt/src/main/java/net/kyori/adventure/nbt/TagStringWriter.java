@@ -25,16 +25,27 @@ package net.kyori.adventure.nbt;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Arrays;
 import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * An emitter for the SNBT format.
  *
  * Details on the format are described in the package documentation.
  */
-final class TagStringWriter implements AutoCloseable {
+final class TagStringWriter implements AutoCloseable, BinaryTagTreeVisitor<TagStringWriter, Void, IOException> {
+  private static final int MAX_NUMBER_LENGTH = 20; // the length of Long.MIN_VALUE
   private final Appendable out;
-  private final String indent; // TODO: pretty-printing
+  private final @Nullable Writer writer;
+  private final @Nullable StringBuilder builder;
+  private final String indent;
+  /**
+   * A line separator followed by the indentation of each level, created as levels are reached.
+   */
+  private String[] indents = new String[0];
+  private final char[] digits = new char[MAX_NUMBER_LENGTH];
+  private TagStringIO.ListBreaking listBreaking = TagStringIO.ListBreaking.nonScalarElements();
   private int level;
   /**
    * Whether a {@link Tokens#VALUE_SEPARATOR} needs to be printed before the beginning of the next object.
@@ -44,6 +55,8 @@ final class TagStringWriter implements AutoCloseable {
 
   TagStringWriter(final Appendable out, final String indent) {
     this.out = out;
+    this.writer = out instanceof Writer ? (Writer) out : null;
+    this.builder = out instanceof StringBuilder ? (StringBuilder) out : null;
     this.indent = indent;
   }
 
@@ -52,41 +65,74 @@ final class TagStringWriter implements AutoCloseable {
     return this;
   }
 
+  public TagStringWriter listBreaking(final TagStringIO.ListBreaking listBreaking) {
+    this.listBreaking = listBreaking;
+    return this;
+  }
+
   // NBT-specific
 
   public TagStringWriter writeTag(final BinaryTag tag) throws IOException {
-    final BinaryTagType<?> type = tag.type();
-    if(type == BinaryTagTypes.COMPOUND) {
-      return this.writeCompound((CompoundBinaryTag) tag);
-    } else if(type == BinaryTagTypes.LIST) {
-      return this.writeList((ListBinaryTag) tag);
-    } else if(type == BinaryTagTypes.BYTE_ARRAY) {
-      return this.writeByteArray((ByteArrayBinaryTag) tag);
-    } else if(type == BinaryTagTypes.INT_ARRAY) {
-      return this.writeIntArray((IntArrayBinaryTag) tag);
-    } else if(type == BinaryTagTypes.LONG_ARRAY) {
-      return this.writeLongArray((LongArrayBinaryTag) tag);
-    } else if(type == BinaryTagTypes.STRING) {
-      return this.value(((StringBinaryTag) tag).value(), Tokens.EOF);
-    } else if(type == BinaryTagTypes.BYTE) {
-      return this.value(Byte.toString(((ByteBinaryTag) tag).value()), Tokens.TYPE_BYTE);
-    } else if(type == BinaryTagTypes.SHORT) {
-      return this.value(Short.toString(((ShortBinaryTag) tag).value()), Tokens.TYPE_SHORT);
-    } else if(type == BinaryTagTypes.INT) {
-      return this.value(Integer.toString(((IntBinaryTag) tag).value()), Tokens.TYPE_INT);
-    } else if(type == BinaryTagTypes.LONG) {
-      return this.value(Long.toString(((LongBinaryTag) tag).value()), Character.toUpperCase(Tokens.TYPE_LONG)); // special-case
-    } else if(type == BinaryTagTypes.FLOAT) {
-      return this.value(Float.toString(((FloatBinaryTag) tag).value()), Tokens.TYPE_FLOAT);
-    } else if(type == BinaryTagTypes.DOUBLE) {
-      return this.value(Double.toString(((DoubleBinaryTag) tag).value()), Tokens.TYPE_DOUBLE);
-    } else {
-      throw new IOException("Unknown tag type: " + type);
-      // unknown!
-    }
+    return tag.accept(this, null);
+  }
+
+  @Override
+  public TagStringWriter visitEnd(final EndBinaryTag tag, final Void parameter) throws IOException {
+    throw new IOException("Unknown tag type: " + tag.type());
+  }
+
+  @Override
+  public TagStringWriter visitByte(final ByteBinaryTag tag, final Void parameter) throws IOException {
+    return this.writeByte(tag.value());
+  }
+
+  @Override
+  public TagStringWriter visitShort(final ShortBinaryTag tag, final Void parameter) throws IOException {
+    return this.writeShort(tag.value());
+  }
+
+  @Override
+  public TagStringWriter visitInt(final IntBinaryTag tag, final Void parameter) throws IOException {
+    return this.writeInt(tag.value());
+  }
+
+  @Override
+  public TagStringWriter visitLong(final LongBinaryTag tag, final Void parameter) throws IOException {
+    return this.writeLong(tag.value());
+  }
+
+  @Override
+  public TagStringWriter visitFloat(final FloatBinaryTag tag, final Void parameter) throws IOException {
+    return this.writeFloat(tag.value());
+  }
+
+  @Override
+  public TagStringWriter visitDouble(final DoubleBinaryTag tag, final Void parameter) throws IOException {
+    return this.writeDouble(tag.value());
   }
 
-  private TagStringWriter writeCompound(final CompoundBinaryTag tag) throws IOException {
+  @Override
+  public TagStringWriter visitByteArray(final ByteArrayBinaryTag tag, final Void parameter) throws IOException {
+    return this.writeByteArray(ByteArrayBinaryTagImpl.value(tag));
+  }
+
+  @Override
+  public TagStringWriter visitString(final StringBinaryTag tag, final Void parameter) throws IOException {
+    return this.writeString(tag.value());
+  }
+
+  @Override
+  public TagStringWriter visitIntArray(final IntArrayBinaryTag tag, final Void parameter) throws IOException {
+    return this.writeIntArray(IntArrayBinaryTagImpl.value(tag));
+  }
+
+  @Override
+  public TagStringWriter visitLongArray(final LongArrayBinaryTag tag, final Void parameter) throws IOException {
+    return this.writeLongArray(LongArrayBinaryTagImpl.value(tag));
+  }
+
+  @Override
+  public TagStringWriter visitCompound(final CompoundBinaryTag tag, final Void parameter) throws IOException {
     this.beginCompound();
     for(final Map.Entry<String, ? extends BinaryTag> entry : tag) {
       this.key(entry.getKey());
@@ -96,73 +142,101 @@ final class TagStringWriter implements AutoCloseable {
     return this;
   }
 
-  private TagStringWriter writeList(final ListBinaryTag tag) throws IOException {
+  @Override
+  public TagStringWriter visitList(final ListBinaryTag tag, final Void parameter) throws IOException {
     this.beginList();
     int idx = 0;
-    final boolean lineBreaks = this.prettyPrinting() && this.breakListElement(tag.listType());
+    final boolean lineBreaks = this.lineBreaks(tag.listType(), tag.size());
     for(final BinaryTag el : tag) {
-      this.printAndResetSeparator(!lineBreaks);
-      if(lineBreaks) {
-        this.newlineIndent();
-      }
-      if(this.legacy) {
-        this.out.append(String.valueOf(idx++));
-        this.appendSeparator(Tokens.COMPOUND_KEY_TERMINATOR);
-      }
-
+      this.listElement(idx++, lineBreaks);
       this.writeTag(el);
     }
     this.endList(lineBreaks);
     return this;
   }
 
-  private TagStringWriter writeByteArray(final ByteArrayBinaryTag tag) throws IOException {
+  public TagStringWriter writeByteArray(final byte[] value) throws IOException {
     if(this.legacy) {
       throw new IOException("Legacy Mojangson only supports integer arrays!");
     }
     this.beginArray(Tokens.TYPE_BYTE);
 
     final char byteArrayType = Character.toUpperCase(Tokens.TYPE_BYTE); // special case to match vanilla format
-    final byte[] value = ByteArrayBinaryTagImpl.value(tag);
     for(int i = 0, length = value.length; i < length; i++) {
       this.printAndResetSeparator(true);
-      this.value(Byte.toString(value[i]), byteArrayType);
+      this.number(value[i], byteArrayType);
     }
     this.endArray();
     return this;
   }
 
-  private TagStringWriter writeIntArray(final IntArrayBinaryTag tag) throws IOException {
+  public TagStringWriter writeIntArray(final int[] value) throws IOException {
     if(this.legacy) {
       this.beginList();
     } else {
       this.beginArray(Tokens.TYPE_INT);
     }
 
-    final int[] value = IntArrayBinaryTagImpl.value(tag);
     for(int i = 0, length = value.length; i < length; i++) {
       this.printAndResetSeparator(true);
-      this.value(Integer.toString(value[i]), Tokens.TYPE_INT);
+      this.number(value[i], Tokens.TYPE_INT);
     }
     this.endArray();
     return this;
   }
 
-  private TagStringWriter writeLongArray(final LongArrayBinaryTag tag) throws IOException {
+  public TagStringWriter writeLongArray(final long[] value) throws IOException {
     if(this.legacy) {
       throw new IOException("Legacy Mojangson only supports integer arrays!");
     }
     this.beginArray(Tokens.TYPE_LONG);
 
-    final long[] value = LongArrayBinaryTagImpl.value(tag);
     for(int i = 0, length = value.length; i < length; i++) {
       this.printAndResetSeparator(true);
-      this.value(Long.toString(value[i]), Tokens.TYPE_LONG);
+      this.number(value[i], Tokens.TYPE_LONG);
     }
     this.endArray();
     return this;
   }
 
+  public TagStringWriter writeString(final String value) throws IOException {
+    return this.value(value, Tokens.EOF);
+  }
+
+  public TagStringWriter writeByte(final byte value) throws IOException {
+    return this.number(value, Tokens.TYPE_BYTE);
+  }
+
+  public TagStringWriter writeShort(final short value) throws IOException {
+    return this.number(value, Tokens.TYPE_SHORT);
+  }
+
+  public TagStringWriter writeInt(final int value) throws IOException {
+    return this.number(value, Tokens.TYPE_INT);
+  }
+
+  public TagStringWriter writeLong(final long value) throws IOException {
+    return this.number(value, Character.toUpperCase(Tokens.TYPE_LONG)); // special-case
+  }
+
+  public TagStringWriter writeFloat(final float value) throws IOException {
+    if(this.builder != null) {
+      this.builder.append(value);
+    } else {
+      this.append(Float.toString(value));
+    }
+    return this.suffix(Tokens.TYPE_FLOAT);
+  }
+
+  public TagStringWriter writeDouble(final double value) throws IOException {
+    if(this.builder != null) {
+      this.builder.append(value);
+    } else {
+      this.append(Double.toString(value));
+    }
+    return this.suffix(Tokens.TYPE_DOUBLE);
+  }
+
   // Value types
 
   public TagStringWriter beginCompound() throws IOException {
@@ -191,11 +265,21 @@ final class TagStringWriter implements AutoCloseable {
   public TagStringWriter value(final String value, final char valueType) throws IOException {
     if(valueType == Tokens.EOF) { // string doesn't have its type
       this.writeMaybeQuoted(value, true);
-    } else {
-      this.out.append(value);
-      if(valueType != Tokens.TYPE_INT) {
-        this.out.append(valueType);
-      }
+      this.needsSeparator = true;
+      return this;
+    }
+    this.append(value);
+    return this.suffix(valueType);
+  }
+
+  private TagStringWriter number(final long value, final char valueType) throws IOException {
+    this.appendNumber(value);
+    return this.suffix(valueType);
+  }
+
+  private TagStringWriter suffix(final char valueType) throws IOException {
+    if(valueType != Tokens.TYPE_INT) {
+      this.out.append(valueType);
     }
     this.needsSeparator = true;
     return this;
@@ -208,6 +292,26 @@ final class TagStringWriter implements AutoCloseable {
     return this;
   }
 
+  /**
+   * Begins an element of a list.
+   *
+   * @param index the index of the element
+   * @param lineBreak whether to break the line before the element, from {@link #lineBreaks(BinaryTagType, int)}
+   * @return this
+   * @throws IOException if an error occurs writing
+   */
+  public TagStringWriter listElement(final int index, final boolean lineBreak) throws IOException {
+    this.printAndResetSeparator(!lineBreak);
+    if(lineBreak) {
+      this.newlineIndent();
+    }
+    if(this.legacy) {
+      this.appendNumber(index);
+      this.appendSeparator(Tokens.COMPOUND_KEY_TERMINATOR);
+    }
+    return this;
+  }
+
   public TagStringWriter endList(final boolean lineBreak) throws IOException {
     this.level--;
     if(lineBreak) {
@@ -234,34 +338,38 @@ final class TagStringWriter implements AutoCloseable {
     return this.endList(false);
   }
 
-  private void writeMaybeQuoted(final String content, boolean requireQuotes) throws IOException {
+  /**
+   * Writes a string, only quoting it if required.
+   *
+   * <p>Whether quotes are required and what must be escaped are found in the same pass.</p>
+   *
+   * @param content the string
+   * @param requireQuotes whether quotes are always required
+   * @throws IOException if an error occurs writing
+   */
+  private void writeMaybeQuoted(final String content, final boolean requireQuotes) throws IOException {
+    final int length = content.length();
+    int start = 0;
     if(!requireQuotes) {
-      for(int i = 0; i < content.length(); ++i) {
-        if(!Tokens.id(content.charAt(i))) {
-          requireQuotes = true;
-          break;
-        }
+      while(start < length && Tokens.id(content.charAt(start))) start++;
+      if(start == length) { // all id characters, so no quotes or escapes are needed
+        this.append(content);
+        return;
       }
     }
-    if(requireQuotes) { // TODO: single quotes
-      this.out.append(Tokens.DOUBLE_QUOTE);
-      this.out.append(escape(content, Tokens.DOUBLE_QUOTE));
-      this.out.append(Tokens.DOUBLE_QUOTE);
-    } else {
-      this.out.append(content);
-    }
-  }
-
-  private static String escape(final String content, final char quoteChar) {
-    final StringBuilder output = new StringBuilder(content.length());
-    for(int i = 0; i < content.length(); ++i) {
+    // TODO: single quotes
+    this.out.append(Tokens.DOUBLE_QUOTE);
+    int written = 0; // characters before this were already written
+    for(int i = start; i < length; ++i) {
       final char c = content.charAt(i);
-      if(c == quoteChar || c == '\\') {
-        output.append(Tokens.ESCAPE_MARKER);
+      if(c == Tokens.DOUBLE_QUOTE || c == Tokens.ESCAPE_MARKER) {
+        this.append(content, written, i);
+        this.out.append(Tokens.ESCAPE_MARKER);
+        written = i;
       }
-      output.append(c);
     }
-    return output.toString();
+    this.append(content, written, length);
+    this.out.append(Tokens.DOUBLE_QUOTE);
   }
 
   private void printAndResetSeparator(final boolean pad) throws IOException {
@@ -276,13 +384,15 @@ final class TagStringWriter implements AutoCloseable {
 
   // Pretty printing
 
-  private boolean breakListElement(final BinaryTagType<?> type) {
-    // lists should break between elements on any non-scalar element
-    return type == BinaryTagTypes.COMPOUND
-      || type == BinaryTagTypes.LIST
-      || type == BinaryTagTypes.BYTE_ARRAY
-      || type == BinaryTagTypes.INT_ARRAY
-      || type == BinaryTagTypes.LONG_ARRAY;
+  /**
+   * Gets whether the elements of a list should be placed on their own lines.
+   *
+   * @param type the type of the elements
+   * @param size the number of elements
+   * @return whether to break lines between elements
+   */
+  public boolean lineBreaks(final BinaryTagType<? extends BinaryTag> type, final int size) {
+    return this.prettyPrinting() && this.listBreaking.breakElements(type, size);
   }
 
   private boolean prettyPrinting() {
@@ -291,11 +401,23 @@ final class TagStringWriter implements AutoCloseable {
 
   private void newlineIndent() throws IOException {
     if(this.prettyPrinting()) {
-      this.out.append(Tokens.NEWLINE);
-      for(int i = 0; i < this.level; ++i) {
-        this.out.append(this.indent);
+      if(this.level >= this.indents.length) {
+        this.growIndents();
+      }
+      this.append(this.indents[this.level]);
+    }
+  }
+
+  private void growIndents() {
+    final String[] indents = Arrays.copyOf(this.indents, Math.max(this.level + 1, this.indents.length << 1));
+    for(int i = this.indents.length; i < indents.length; i++) {
+      final StringBuilder indent = new StringBuilder(Tokens.NEWLINE.length() + this.indent.length() * i).append(Tokens.NEWLINE);
+      for(int j = 0; j < i; j++) {
+        indent.append(this.indent);
       }
+      indents[i] = indent.toString();
     }
+    this.indents = indents;
   }
 
   private Appendable appendSeparator(final char separatorChar) throws IOException {
@@ -306,6 +428,49 @@ final class TagStringWriter implements AutoCloseable {
     return this.out;
   }
 
+  // Output
+
+  private void append(final String value) throws IOException {
+    if(this.writer != null) {
+      this.writer.write(value);
+    } else {
+      this.out.append(value);
+    }
+  }
+
+  private void append(final String value, final int start, final int end) throws IOException {
+    if(this.writer != null) {
+      this.writer.write(value, start, end - start); // Writer.append(CharSequence, int, int) would create a substring
+    } else {
+      this.out.append(value, start, end);
+    }
+  }
+
+  private void appendNumber(final long value) throws IOException {
+    if(this.builder != null) {
+      this.builder.append(value);
+      return;
+    }
+    // digits are produced from the end, working with negative values as their range is larger
+    final char[] digits = this.digits;
+    int start = digits.length;
+    long remaining = value < 0 ? value : -value;
+    do {
+      digits[--start] = (char) ('0' - (remaining % 10));
+      remaining /= 10;
+    } while(remaining != 0);
+    if(value < 0) {
+      digits[--start] = '-';
+    }
+    if(this.writer != null) {
+      this.writer.write(digits, start, digits.length - start);
+    } else {
+      for(int i = start; i < digits.length; i++) {
+        this.out.append(digits[i]);
+      }
+    }
+  }
+
   @Override
   public void close() throws IOException {
     if(this.level != 0) {
@@ -0,0 +1,102 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncBinaryTagIOTest {
+  private static CompoundBinaryTag bigTest;
+
+  @BeforeAll
+  static void readBigTest() throws IOException {
+    try(final InputStream is = AsyncBinaryTagIOTest.class.getResourceAsStream("/bigtest.nbt")) {
+      bigTest = BinaryTagIO.readCompressedInputStream(is);
+    }
+  }
+
+  @Test
+  void testRoundtrip() throws IOException {
+    final Path directory = Files.createTempDirectory("async");
+    final Path file = directory.resolve("bigtest.nbt");
+    AsyncBinaryTagIO.writePath(bigTest, file).join();
+    assertEquals(bigTest, BinaryTagIO.readPath(file));
+    assertEquals(bigTest, AsyncBinaryTagIO.readPath(file).join());
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      AsyncBinaryTagIO.writeCompressedPath(bigTest, file, Compression.gzip(), executor).join();
+      assertEquals(bigTest, BinaryTagIO.readCompressedPath(file));
+      assertEquals(bigTest, AsyncBinaryTagIO.readCompressedPath(file, Compression.gzip(), executor).join());
+    } finally {
+      executor.shutdown();
+    }
+
+    try(final Stream<Path> files = Files.list(directory)) {
+      assertEquals(1, files.count()); // no temporary files are left behind
+    }
+    Files.delete(file);
+    Files.delete(directory);
+  }
+
+  @Test
+  void testKeepsPermissions() throws IOException {
+    final Path directory = Files.createTempDirectory("async");
+    final Path file = directory.resolve("bigtest.nbt");
+    Files.createFile(file);
+    if(Files.getFileAttributeView(file, PosixFileAttributeView.class) != null) {
+      final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+      Files.setPosixFilePermissions(file, permissions);
+      AsyncBinaryTagIO.writePath(bigTest, file).join();
+      assertEquals(permissions, Files.getPosixFilePermissions(file));
+    }
+    Files.delete(file);
+    Files.delete(directory);
+  }
+
+  @Test
+  void testReadMissingFile() throws IOException {
+    final Path directory = Files.createTempDirectory("async");
+    final CompletionException exception = assertThrows(CompletionException.class, () -> AsyncBinaryTagIO.readPath(directory.resolve("missing.nbt")).join());
+    assertTrue(exception.getCause() instanceof NoSuchFileException);
+    Files.delete(directory);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryTagBatchTest {
+  @Test
+  void testResultsAreOrdered() throws IOException {
+    final List<BinaryTagBatch.Source> sources = new ArrayList<>();
+    for(int i = 0; i < 100; i++) {
+      sources.add(BinaryTagBatch.byteBuffer(BinaryTagIO.writeByteBuffer(CompoundBinaryTag.empty().putInt("i", i))));
+    }
+    sources.add(() -> {
+      throw new IOException("broken");
+    });
+    sources.add(BinaryTagBatch.byteBuffer(ByteBuffer.allocate(3)));
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<BinaryTagBatch.Result> results = BinaryTagBatch.read(sources, executor, 8);
+      assertEquals(102, results.size());
+      for(int i = 0; i < 100; i++) {
+        assertEquals(i, results.get(i).index());
+        assertNull(results.get(i).error());
+        assertEquals(i, results.get(i).tag().getInt("i"));
+      }
+      assertEquals("broken", results.get(100).error().getMessage());
+      assertNull(results.get(100).tag());
+      assertTrue(results.get(101).error() instanceof IOException);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testRegionChunks() throws IOException {
+    final Path file = Files.createTempFile("region", ".mca");
+    file.toFile().deleteOnExit(); // mapped files cannot be deleted on some platforms until the mapping is collected
+    Files.delete(file);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try(final RegionFile region = RegionFile.open(file)) {
+      for(int i = 0; i < 32; i++) {
+        region.write(i, 31 - i, CompoundBinaryTag.empty().putInt("xPos", i));
+      }
+      final List<BinaryTagBatch.Source> chunks = BinaryTagBatch.chunks(region);
+      assertEquals(32, chunks.size());
+      assertEquals(32 * 31 / 2, BinaryTagBatch.stream(chunks, executor, 3).mapToInt(result -> result.tag().getInt("xPos")).sum());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryTagIOTest {
+  private static CompoundBinaryTag bigTest;
+
+  @BeforeAll
+  static void before() throws IOException {
+    try(final InputStream is = BinaryTagIOTest.class.getResourceAsStream("/bigtest.nbt")) {
+      bigTest = BinaryTagIO.readCompressedInputStream(is);
+    }
+  }
+
+  @Test
+  void testHeapByteBufferRoundtrip() throws IOException {
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(bigTest);
+    assertFalse(buffer.isDirect());
+    assertEquals(bigTest, BinaryTagIO.readByteBuffer(buffer));
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  void testDirectByteBufferRoundtrip() throws IOException {
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(bigTest, ByteBuffer.allocateDirect(16));
+    assertTrue(buffer.isDirect());
+    buffer.flip();
+    assertEquals(bigTest, BinaryTagIO.readByteBuffer(buffer));
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  void testWriteByteBufferKeepsExistingContents() throws IOException {
+    final ByteBuffer output = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+    output.putInt(42);
+    final ByteBuffer grown = BinaryTagIO.writeByteBuffer(bigTest, output);
+    assertNotSame(output, grown);
+    assertEquals(ByteOrder.LITTLE_ENDIAN, grown.order());
+    grown.flip();
+    assertEquals(42, grown.getInt());
+    assertEquals(bigTest, BinaryTagIO.readByteBuffer(grown));
+
+    final ByteBuffer large = ByteBuffer.allocate(grown.capacity());
+    assertSame(large, BinaryTagIO.writeByteBuffer(bigTest, large));
+  }
+
+  @Test
+  void testReadByteBufferAdvancesPosition() throws IOException {
+    final ByteBuffer first = BinaryTagIO.writeByteBuffer(CompoundBinaryTag.empty().putInt("a", 1));
+    final ByteBuffer second = BinaryTagIO.writeByteBuffer(CompoundBinaryTag.empty().putString("b", "two"));
+    final ByteBuffer both = ByteBuffer.allocate(first.remaining() + second.remaining());
+    both.put(first).put(second).flip();
+    assertEquals(CompoundBinaryTag.empty().putInt("a", 1), BinaryTagIO.readByteBuffer(both));
+    assertEquals(CompoundBinaryTag.empty().putString("b", "two"), BinaryTagIO.readByteBuffer(both));
+    assertFalse(both.hasRemaining());
+  }
+
+  @Test
+  void testReadTruncatedByteBuffer() throws IOException {
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(bigTest);
+    buffer.limit(buffer.limit() - 1);
+    assertThrows(IOException.class, () -> BinaryTagIO.readByteBuffer(buffer));
+    assertEquals(0, buffer.position());
+  }
+
+  @Test
+  void testReadMappedPath() throws IOException {
+    final Path file = Files.createTempFile("bigtest", ".nbt");
+    file.toFile().deleteOnExit(); // mapped files cannot be deleted on some platforms until the mapping is collected
+    BinaryTagIO.writePath(bigTest, file);
+    assertEquals(bigTest, BinaryTagIO.readMappedPath(file));
+  }
+
+  @Test
+  void testExtract() throws IOException {
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(bigTest);
+    assertEquals(
+      ImmutableList.of(bigTest.getCompound("nested compound test").getCompound("egg").get("value")),
+      BinaryTagIO.extract(buffer, "nested compound test.egg.value")
+    );
+    assertFalse(buffer.hasRemaining());
+
+    final ListBinaryTag compounds = bigTest.getList("listTest (compound)");
+    assertEquals(
+      ImmutableList.of(compounds.getCompound(0).get("name"), compounds.getCompound(1).get("name")),
+      BinaryTagIO.extract(BinaryTagIO.writeByteBuffer(bigTest), "listTest (compound)[*].name")
+    );
+    assertEquals(
+      ImmutableList.of(bigTest.getList("listTest (long)").get(3)),
+      BinaryTagIO.extract(BinaryTagIO.writeByteBuffer(bigTest), "listTest (long)[3]")
+    );
+    assertEquals(
+      ImmutableList.of(),
+      BinaryTagIO.extract(BinaryTagIO.writeByteBuffer(bigTest), "listTest (long)[5]")
+    );
+    assertEquals(
+      ImmutableList.of(),
+      BinaryTagIO.extract(BinaryTagIO.writeByteBuffer(bigTest), "intTest.missing")
+    );
+  }
+
+  @Test
+  void testExtractMatchesEncodedKeys() throws IOException {
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .putInt("café", 1)
+      .putInt("cafe", 2)
+      .putInt("cafè", 3)
+      .build();
+    final ByteBuffer heap = BinaryTagIO.writeByteBuffer(tag);
+    assertEquals(ImmutableList.of(IntBinaryTag.of(1)), BinaryTagIO.extract(heap, "café"));
+    final ByteBuffer direct = BinaryTagIO.writeByteBuffer(tag, ByteBuffer.allocateDirect(16));
+    direct.flip();
+    assertEquals(ImmutableList.of(IntBinaryTag.of(3)), BinaryTagIO.extract(direct, "cafè"));
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    BinaryTagIO.writeDataOutput(tag, new DataOutputStream(output));
+    assertEquals(ImmutableList.of(IntBinaryTag.of(2)), BinaryTagIO.extract(new DataInputStream(new ByteArrayInputStream(output.toByteArray())), "cafe"));
+  }
+
+  @Test
+  void testExtractMalformedPath() {
+    assertThrows(IllegalArgumentException.class, () -> BinaryTagIO.extract(BinaryTagIO.writeByteBuffer(bigTest), "a..b"));
+    assertThrows(IllegalArgumentException.class, () -> BinaryTagIO.extract(BinaryTagIO.writeByteBuffer(bigTest), "a[1"));
+    assertThrows(IllegalArgumentException.class, () -> BinaryTagIO.extract(BinaryTagIO.writeByteBuffer(bigTest), "a[x]"));
+  }
+
+  @Test
+  void testSizeInBytes() throws IOException {
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(bigTest);
+    assertEquals(buffer.capacity(), buffer.remaining());
+    assertEquals(buffer.remaining(), 3 + bigTest.sizeInBytes()); // type id and empty name
+    assertEquals(bigTest.sizeInBytes(), BinaryTagIO.readLazyByteBuffer(buffer).sizeInBytes());
+
+    final CompoundBinaryTag tags = CompoundBinaryTag.builder()
+      .putString("snowman ☃", "nul \u0000 and emoji 😀")
+      .put("ints", ListBinaryTag.builder().add(IntBinaryTag.of(1)).add(IntBinaryTag.of(2)).build())
+      .put("empty", ListBinaryTag.empty())
+      .putIntArray("int array", new int[]{1, 2, 3})
+      .putLongArray("long array", new long[]{4})
+      .putByteArray("byte array", new byte[]{5, 6})
+      .build();
+    for(final String key : tags.keySet()) {
+      final CompoundBinaryTag single = CompoundBinaryTag.empty().put(key, tags.get(key));
+      assertEquals(BinaryTagIO.writeByteBuffer(single).remaining(), 3 + single.sizeInBytes(), key);
+    }
+    assertEquals(BinaryTagIO.writeByteBuffer(tags).remaining(), 3 + tags.sizeInBytes());
+  }
+
+  @Test
+  void testLargeArraysRoundtrip() throws IOException {
+    final int[] ints = new int[5000];
+    final long[] longs = new long[5000];
+    for(int i = 0; i < ints.length; i++) {
+      ints[i] = i * 0x01020304;
+      longs[i] = i * 0x0102030405060708L;
+    }
+    final CompoundBinaryTag tag = CompoundBinaryTag.empty()
+      .putIntArray("ints", ints)
+      .putLongArray("longs", longs);
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryTagIO.writeOutputStream(tag, bytes);
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(tag);
+    assertEquals(ByteBuffer.wrap(bytes.toByteArray()), buffer);
+    assertEquals(tag, BinaryTagIO.readInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    assertEquals(tag, BinaryTagIO.readByteBuffer(buffer));
+  }
+}
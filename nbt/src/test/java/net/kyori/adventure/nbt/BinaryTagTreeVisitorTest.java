@@ -0,0 +1,221 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BinaryTagTreeVisitorTest {
+  @Test
+  void testDispatchesByType() {
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .putByte("byte", (byte) 1)
+      .putShort("short", (short) 2)
+      .putInt("int", 3)
+      .putLong("long", 4)
+      .putFloat("float", 5)
+      .putDouble("double", 6)
+      .putByteArray("byteArray", new byte[]{7})
+      .putString("string", "eight")
+      .put("list", ListBinaryTag.builder().add(IntBinaryTag.of(9)).build())
+      .put("compound", CompoundBinaryTag.empty())
+      .putIntArray("intArray", new int[]{10})
+      .putLongArray("longArray", new long[]{11})
+      .build();
+    for(final String key : tag.keySet()) {
+      assertEquals(key, tag.get(key).accept(TypeName.INSTANCE, ""));
+    }
+    assertEquals("end", EndBinaryTag.get().accept(TypeName.INSTANCE, ""));
+    assertEquals("string!", StringBinaryTag.of("value").accept(TypeName.INSTANCE, "!"));
+  }
+
+  @Test
+  void testCountValues() throws IOException {
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .putString("id", "minecraft:stone")
+      .put("tag", CompoundBinaryTag.builder()
+        .putInt("Damage", 4)
+        .put("Pos", ListBinaryTag.builder().add(DoubleBinaryTag.of(1)).add(DoubleBinaryTag.of(2)).build())
+        .build())
+      .build();
+    assertEquals(4, (int) tag.accept(new ValueCounter(), null));
+    // lazily read compound tags are visited the same way
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(tag);
+    assertEquals(4, (int) BinaryTagIO.readByteBuffer(buffer).accept(new ValueCounter(), null));
+  }
+
+  /**
+   * Names the type of a tag, in the style of the keys used by {@link #testDispatchesByType()}, followed by a suffix.
+   */
+  static final class TypeName implements BinaryTagTreeVisitor<String, String, RuntimeException> {
+    static final TypeName INSTANCE = new TypeName();
+
+    @Override
+    public String visitEnd(final EndBinaryTag tag, final String suffix) {
+      return "end" + suffix;
+    }
+
+    @Override
+    public String visitByte(final ByteBinaryTag tag, final String suffix) {
+      return "byte" + suffix;
+    }
+
+    @Override
+    public String visitShort(final ShortBinaryTag tag, final String suffix) {
+      return "short" + suffix;
+    }
+
+    @Override
+    public String visitInt(final IntBinaryTag tag, final String suffix) {
+      return "int" + suffix;
+    }
+
+    @Override
+    public String visitLong(final LongBinaryTag tag, final String suffix) {
+      return "long" + suffix;
+    }
+
+    @Override
+    public String visitFloat(final FloatBinaryTag tag, final String suffix) {
+      return "float" + suffix;
+    }
+
+    @Override
+    public String visitDouble(final DoubleBinaryTag tag, final String suffix) {
+      return "double" + suffix;
+    }
+
+    @Override
+    public String visitByteArray(final ByteArrayBinaryTag tag, final String suffix) {
+      return "byteArray" + suffix;
+    }
+
+    @Override
+    public String visitString(final StringBinaryTag tag, final String suffix) {
+      return "string" + suffix;
+    }
+
+    @Override
+    public String visitList(final ListBinaryTag tag, final String suffix) {
+      return "list" + suffix;
+    }
+
+    @Override
+    public String visitCompound(final CompoundBinaryTag tag, final String suffix) {
+      return "compound" + suffix;
+    }
+
+    @Override
+    public String visitIntArray(final IntArrayBinaryTag tag, final String suffix) {
+      return "intArray" + suffix;
+    }
+
+    @Override
+    public String visitLongArray(final LongArrayBinaryTag tag, final String suffix) {
+      return "longArray" + suffix;
+    }
+  }
+
+  /**
+   * Counts the values which are not compound or list tags, visiting the contents of compound and list tags.
+   */
+  static final class ValueCounter implements BinaryTagTreeVisitor<Integer, Void, RuntimeException> {
+    @Override
+    public Integer visitEnd(final EndBinaryTag tag, final Void parameter) {
+      return 0;
+    }
+
+    @Override
+    public Integer visitByte(final ByteBinaryTag tag, final Void parameter) {
+      return 1;
+    }
+
+    @Override
+    public Integer visitShort(final ShortBinaryTag tag, final Void parameter) {
+      return 1;
+    }
+
+    @Override
+    public Integer visitInt(final IntBinaryTag tag, final Void parameter) {
+      return 1;
+    }
+
+    @Override
+    public Integer visitLong(final LongBinaryTag tag, final Void parameter) {
+      return 1;
+    }
+
+    @Override
+    public Integer visitFloat(final FloatBinaryTag tag, final Void parameter) {
+      return 1;
+    }
+
+    @Override
+    public Integer visitDouble(final DoubleBinaryTag tag, final Void parameter) {
+      return 1;
+    }
+
+    @Override
+    public Integer visitByteArray(final ByteArrayBinaryTag tag, final Void parameter) {
+      return 1;
+    }
+
+    @Override
+    public Integer visitString(final StringBinaryTag tag, final Void parameter) {
+      return 1;
+    }
+
+    @Override
+    public Integer visitIntArray(final IntArrayBinaryTag tag, final Void parameter) {
+      return 1;
+    }
+
+    @Override
+    public Integer visitLongArray(final LongArrayBinaryTag tag, final Void parameter) {
+      return 1;
+    }
+
+    @Override
+    public Integer visitList(final ListBinaryTag tag, final Void parameter) {
+      int count = 0;
+      for(final BinaryTag element : tag) {
+        count += element.accept(this, null);
+      }
+      return count;
+    }
+
+    @Override
+    public Integer visitCompound(final CompoundBinaryTag tag, final Void parameter) {
+      int count = 0;
+      for(final Map.Entry<String, ? extends BinaryTag> entry : tag) {
+        count += entry.getValue().accept(this, null);
+      }
+      return count;
+    }
+  }
+}
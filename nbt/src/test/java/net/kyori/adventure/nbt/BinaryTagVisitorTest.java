@@ -0,0 +1,129 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryTagVisitorTest {
+  private static final CompoundBinaryTag TAG = CompoundBinaryTag.builder()
+    .putString("id", "minecraft:stone")
+    .putByte("Count", (byte) 3)
+    .put("tag", CompoundBinaryTag.builder()
+      .putInt("Damage", 4)
+      .putLongArray("States", new long[]{1, 2})
+      .build())
+    .put("Pos", ListBinaryTag.of(BinaryTagTypes.DOUBLE, ImmutableList.of(DoubleBinaryTag.of(1), DoubleBinaryTag.of(2))))
+    .build();
+
+  @Test
+  void testVisitAll() throws IOException {
+    final List<String> events = new ArrayList<>();
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(TAG);
+    BinaryTagIO.readByteBuffer(buffer, new BinaryTagVisitor() {
+      @Override
+      public @NonNull Result visitCompound() {
+        events.add("{");
+        return Result.CONTINUE;
+      }
+
+      @Override
+      public @NonNull Result visitKey(final @NonNull String key, final @NonNull BinaryTagType<? extends BinaryTag> type) {
+        events.add(key);
+        return Result.CONTINUE;
+      }
+
+      @Override
+      public void visitCompoundEnd() {
+        events.add("}");
+      }
+
+      @Override
+      public @NonNull Result visitList(final @NonNull BinaryTagType<? extends BinaryTag> type, final int size) {
+        events.add("[" + size);
+        return Result.CONTINUE;
+      }
+
+      @Override
+      public void visitListEnd() {
+        events.add("]");
+      }
+
+      @Override
+      public void visitDouble(final double value) {
+        events.add(String.valueOf(value));
+      }
+
+      @Override
+      public void visitLongArray(final long@NonNull[] value) {
+        events.add(value.length + "L");
+      }
+    });
+    assertFalse(buffer.hasRemaining());
+    assertEquals(15, events.size()); // 6 keys, 2 compounds, 1 list, 2 doubles and 1 array
+    assertEquals("{", events.get(0));
+    assertEquals("}", events.get(events.size() - 1));
+    assertEquals(1, events.stream().filter("[2"::equals).count());
+    assertEquals(1, events.stream().filter("2L"::equals).count());
+  }
+
+  @Test
+  void testSkip() throws IOException {
+    final List<String> keys = new ArrayList<>();
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(TAG);
+    BinaryTagIO.readByteBuffer(buffer, new BinaryTagVisitor() {
+      @Override
+      public @NonNull Result visitKey(final @NonNull String key, final @NonNull BinaryTagType<? extends BinaryTag> type) {
+        keys.add(key);
+        return type == BinaryTagTypes.COMPOUND || type == BinaryTagTypes.LIST ? Result.SKIP : Result.CONTINUE;
+      }
+    });
+    assertFalse(buffer.hasRemaining());
+    keys.sort(null);
+    assertEquals(ImmutableList.of("Count", "Pos", "id", "tag"), keys);
+  }
+
+  @Test
+  void testVisitorException() throws IOException {
+    final IOException thrown = new IOException("stop");
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(TAG);
+    final IOException caught = assertThrows(IOException.class, () -> BinaryTagIO.readByteBuffer(buffer, new BinaryTagVisitor() {
+      @Override
+      public void visitLongArray(final long@NonNull[] value) throws IOException {
+        throw thrown;
+      }
+    }));
+    assertSame(thrown, caught);
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompoundBinaryTagTest {
+  @Test
+  void testPutKeepsPreviousVersions() {
+    final CompoundBinaryTag a = CompoundBinaryTag.empty().putInt("a", 1);
+    final CompoundBinaryTag b = a.putInt("b", 2);
+    final CompoundBinaryTag c = b.putInt("a", 3);
+    assertEquals(1, a.keySet().size());
+    assertEquals(1, a.getInt("a"));
+    assertEquals(1, b.getInt("a"));
+    assertEquals(2, b.getInt("b"));
+    assertEquals(3, c.getInt("a"));
+    assertEquals(2, c.getInt("b"));
+  }
+
+  @Test
+  void testRemove() {
+    final CompoundBinaryTag tag = CompoundBinaryTag.empty().putInt("a", 1).putString("b", "two");
+    final List<BinaryTag> removed = new ArrayList<>();
+    final CompoundBinaryTag without = tag.remove("a", removed::add);
+    assertEquals(CompoundBinaryTag.empty().putString("b", "two"), without);
+    assertEquals(1, tag.getInt("a"));
+    assertEquals(1, removed.size());
+    assertEquals(IntBinaryTag.of(1), removed.get(0));
+    assertSame(without, without.remove("a"));
+    assertEquals(CompoundBinaryTag.empty(), without.remove("b"));
+  }
+
+  @Test
+  void testPutSameTag() {
+    final CompoundBinaryTag tag = CompoundBinaryTag.empty().putString("a", "b");
+    assertSame(tag, tag.put("a", tag.get("a")));
+  }
+
+  @Test
+  void testUpdatesOfBuiltCompound() {
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder().putInt("a", 1).putString("b", "two").build();
+    assertSame(tag, tag.put("b", tag.get("b")));
+    final CompoundBinaryTag first = tag.putInt("c", 3);
+    final CompoundBinaryTag second = tag.putInt("c", 4).remove("a");
+    assertEquals(CompoundBinaryTag.builder().putInt("a", 1).putString("b", "two").putInt("c", 3).build(), first);
+    assertEquals(CompoundBinaryTag.builder().putString("b", "two").putInt("c", 4).build(), second);
+    assertEquals(CompoundBinaryTag.builder().putInt("a", 1).build(), tag.remove("b"));
+    assertEquals(2, tag.keySet().size());
+  }
+
+  @Test
+  void testCollidingKeys() {
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+    final CompoundBinaryTag tag = CompoundBinaryTag.empty().putInt("Aa", 1).putInt("BB", 2).putInt("C#", 3);
+    assertEquals(1, tag.getInt("Aa"));
+    assertEquals(2, tag.getInt("BB"));
+    assertEquals(3, tag.getInt("C#"));
+    final CompoundBinaryTag without = tag.remove("Aa");
+    assertFalse(without.keySet().contains("Aa"));
+    assertEquals(2, without.getInt("BB"));
+    assertEquals(CompoundBinaryTag.builder().putInt("BB", 2).putInt("C#", 3).build(), without);
+  }
+
+  @Test
+  void testMatchesHashMap() {
+    final Random random = new Random(42);
+    final Map<String, BinaryTag> expected = new HashMap<>();
+    CompoundBinaryTag tag = CompoundBinaryTag.empty();
+    for(int i = 0; i < 5000; i++) {
+      final String key = "key" + random.nextInt(500);
+      if(random.nextInt(3) == 0) {
+        expected.remove(key);
+        tag = tag.remove(key);
+      } else {
+        final IntBinaryTag value = IntBinaryTag.of(random.nextInt());
+        expected.put(key, value);
+        tag = tag.put(key, value);
+      }
+    }
+    final CompoundBinaryTag.Builder builder = CompoundBinaryTag.builder();
+    expected.forEach(builder::put);
+    final CompoundBinaryTag built = builder.build();
+    assertEquals(built, tag);
+    assertEquals(built.hashCode(), tag.hashCode());
+    assertEquals(expected.keySet(), tag.keySet());
+    for(final Map.Entry<String, BinaryTag> entry : expected.entrySet()) {
+      assertEquals(entry.getValue(), tag.get(entry.getKey()));
+    }
+    assertNull(tag.get("missing"));
+    assertSame(tag, tag.remove("missing"));
+  }
+
+  @Test
+  void testEdit() {
+    final CompoundBinaryTag tag = CompoundBinaryTag.empty().putInt("a", 1).putString("b", "two");
+    final CompoundBinaryTag edited = tag.edit(compound -> compound
+      .putInt("a", compound.get("a") instanceof IntBinaryTag ? ((IntBinaryTag) compound.get("a")).value() + 1 : 0)
+      .remove("b")
+      .putBoolean("c", true));
+    assertEquals(CompoundBinaryTag.empty().putInt("a", 2).putBoolean("c", true), edited);
+    assertEquals(1, tag.getInt("a"));
+    assertEquals("two", tag.getString("b"));
+    assertSame(tag, tag.edit(compound -> compound.remove("missing")));
+  }
+
+  @Test
+  void testEditAfterFinish() {
+    final CompoundBinaryTag.Mutable[] escaped = new CompoundBinaryTag.Mutable[1];
+    CompoundBinaryTag.empty().edit(compound -> escaped[0] = compound);
+    assertThrows(IllegalStateException.class, () -> escaped[0].putInt("a", 1));
+  }
+
+  @Test
+  void testMemoized() throws IOException {
+    final ListBinaryTag list = ListBinaryTag.builder().add(StringBinaryTag.of("a")).add(StringBinaryTag.of("b")).build();
+    final CompoundBinaryTag nested = CompoundBinaryTag.builder()
+      .putString("name", "diamond_sword")
+      .put("lore", list.memoized())
+      .build();
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .putInt("count", 1)
+      .put("item", nested)
+      .build();
+    final CompoundBinaryTag memoized = tag.memoized();
+    assertEquals(tag, memoized);
+    assertEquals(tag.hashCode(), memoized.hashCode());
+    assertSame(memoized, memoized.memoized());
+
+    final ByteBuffer expected = BinaryTagIO.writeByteBuffer(tag);
+    assertEquals(expected, BinaryTagIO.writeByteBuffer(memoized));
+    assertEquals(expected, BinaryTagIO.writeByteBuffer(memoized)); // from the kept encoding
+    assertEquals(tag, BinaryTagIO.readByteBuffer(BinaryTagIO.writeByteBuffer(memoized)));
+
+    final CompoundBinaryTag changed = memoized.putInt("count", 2);
+    assertEquals(2, BinaryTagIO.readByteBuffer(BinaryTagIO.writeByteBuffer(changed)).getInt("count"));
+  }
+}
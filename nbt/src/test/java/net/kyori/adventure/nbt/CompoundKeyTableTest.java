@@ -0,0 +1,91 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CompoundKeyTableTest {
+  private static CompoundBinaryTag bigTest;
+
+  @BeforeAll
+  static void readBigTest() throws IOException {
+    try(final InputStream is = CompoundKeyTableTest.class.getResourceAsStream("/bigtest.nbt")) {
+      bigTest = BinaryTagIO.readCompressedInputStream(is);
+    }
+  }
+
+  @Test
+  void testReadMatchesDefault() throws IOException {
+    final CompoundKeyTable keys = CompoundKeyTable.create(256);
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(bigTest);
+    assertEquals(bigTest, BinaryTagIO.readByteBuffer(buffer.duplicate(), keys));
+    assertEquals(bigTest, BinaryTagIO.readByteBuffer(buffer.duplicate(), keys));
+
+    final ByteBuffer direct = BinaryTagIO.writeByteBuffer(bigTest, ByteBuffer.allocateDirect(16));
+    direct.flip();
+    assertEquals(bigTest, BinaryTagIO.readByteBuffer(direct, keys));
+  }
+
+  @Test
+  void testKeysAreShared() throws IOException {
+    final CompoundKeyTable keys = CompoundKeyTable.create(16, Arrays.asList("pinned"));
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .putInt("pinned", 1)
+      .putString("dynamic", "value")
+      .build();
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(tag);
+
+    final CompoundBinaryTag first = BinaryTagIO.readByteBuffer(buffer.duplicate(), keys);
+    final CompoundBinaryTag second = BinaryTagIO.readByteBuffer(buffer.duplicate(), keys);
+    assertEquals(tag, first);
+    assertEquals(tag, second);
+
+    final Iterator<String> firstKeys = first.keySet().iterator();
+    final Iterator<String> secondKeys = second.keySet().iterator();
+    while(firstKeys.hasNext()) {
+      assertSame(firstKeys.next(), secondKeys.next());
+    }
+  }
+
+  @Test
+  void testSmallTableStaysCorrect() throws IOException {
+    final CompoundKeyTable keys = CompoundKeyTable.create(1);
+    final CompoundBinaryTag.Builder builder = CompoundBinaryTag.builder();
+    for(int i = 0; i < 100; i++) {
+      builder.putInt("key" + i, i);
+    }
+    final CompoundBinaryTag tag = builder.build();
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(tag);
+    assertEquals(tag, BinaryTagIO.readByteBuffer(buffer, keys));
+  }
+}
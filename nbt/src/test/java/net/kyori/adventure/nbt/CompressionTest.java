@@ -0,0 +1,136 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionTest {
+  private static final List<Compression> COMPRESSIONS = ImmutableList.of(
+    Compression.none(),
+    Compression.gzip(),
+    Compression.gzip(1),
+    Compression.zlib(),
+    Compression.zlib(9),
+    Compression.deflate(),
+    Compression.deflate(0)
+  );
+  private static CompoundBinaryTag bigTest;
+
+  @BeforeAll
+  static void readBigTest() throws IOException {
+    try(final InputStream is = CompressionTest.class.getResourceAsStream("/bigtest.nbt")) {
+      bigTest = BinaryTagIO.readCompressedInputStream(is);
+    }
+  }
+
+  private static byte[] write(final Compression compression) throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    BinaryTagIO.writeCompressedOutputStream(bigTest, output, compression);
+    return output.toByteArray();
+  }
+
+  @Test
+  void testRoundtrip() throws IOException {
+    for(final Compression compression : COMPRESSIONS) {
+      final byte[] bytes = write(compression);
+      assertEquals(bigTest, BinaryTagIO.readCompressedInputStream(new ByteArrayInputStream(bytes), compression), compression.toString());
+    }
+  }
+
+  @Test
+  void testRoundtripLargerThanChunks() throws IOException {
+    final byte[] bytes = new byte[100_000];
+    final long[] longs = new long[10_000];
+    for(int i = 0; i < longs.length; i++) {
+      bytes[i * 10] = (byte) i;
+      longs[i] = (long) i * i;
+    }
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .putByteArray("bytes", bytes)
+      .putLongArray("longs", longs)
+      .put("nested", bigTest)
+      .build();
+    for(final Compression compression : COMPRESSIONS) {
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      BinaryTagIO.writeCompressedOutputStream(tag, output, compression);
+      assertEquals(tag, BinaryTagIO.readCompressedInputStream(new ByteArrayInputStream(output.toByteArray()), compression), compression.toString());
+    }
+  }
+
+  @Test
+  void testFormats() throws IOException {
+    final ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+    BinaryTagIO.writeOutputStream(bigTest, uncompressed);
+    assertArrayEquals(uncompressed.toByteArray(), write(Compression.none()));
+
+    final byte[] gzip = write(Compression.gzip());
+    assertEquals((byte) 0x1f, gzip[0]);
+    assertEquals((byte) 0x8b, gzip[1]);
+    assertEquals(0x78, write(Compression.zlib())[0]);
+    assertTrue(write(Compression.deflate(1)).length < write(Compression.deflate(0)).length);
+  }
+
+  @Test
+  void testMatchesJdkStreams() throws IOException {
+    final ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+    try(final DataOutputStream dos = new DataOutputStream(new GZIPOutputStream(gzip))) {
+      BinaryTagIO.writeDataOutput(bigTest, dos);
+    }
+    assertEquals(bigTest, BinaryTagIO.readCompressedInputStream(new ByteArrayInputStream(gzip.toByteArray()), Compression.gzip()));
+    assertEquals(bigTest, BinaryTagIO.readDataInput(new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(write(Compression.gzip(9)))))));
+    assertEquals(bigTest, BinaryTagIO.readDataInput(new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(write(Compression.zlib(1)))))));
+  }
+
+  @Test
+  void testCorruptData() throws IOException {
+    final byte[] gzip = write(Compression.gzip());
+    gzip[gzip.length - 5]++; // checksum
+    assertThrows(IOException.class, () -> BinaryTagIO.readCompressedInputStream(new ByteArrayInputStream(gzip), Compression.gzip()));
+    final byte[] zlib = write(Compression.zlib());
+    assertThrows(IOException.class, () -> BinaryTagIO.readCompressedInputStream(new ByteArrayInputStream(zlib, 0, zlib.length / 2), Compression.zlib()));
+  }
+
+  @Test
+  void testInvalidLevel() {
+    assertThrows(IllegalArgumentException.class, () -> Compression.zlib(10));
+    assertThrows(IllegalArgumentException.class, () -> Compression.gzip(-2));
+  }
+}
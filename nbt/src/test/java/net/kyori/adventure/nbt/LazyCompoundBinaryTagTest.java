@@ -0,0 +1,95 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyCompoundBinaryTagTest {
+  private static CompoundBinaryTag bigTest;
+
+  @BeforeAll
+  static void before() throws IOException {
+    try(final InputStream is = LazyCompoundBinaryTagTest.class.getResourceAsStream("/bigtest.nbt")) {
+      bigTest = BinaryTagIO.readCompressedInputStream(is);
+    }
+  }
+
+  @Test
+  void testEqualsEager() throws IOException {
+    final CompoundBinaryTag lazy = BinaryTagIO.readLazyByteBuffer(BinaryTagIO.writeByteBuffer(bigTest));
+    assertTrue(lazy instanceof LazyCompoundBinaryTag);
+    assertEquals(bigTest, lazy);
+    assertEquals(lazy, bigTest);
+    assertEquals(bigTest.hashCode(), lazy.hashCode());
+    assertEquals(bigTest.keySet(), new HashSet<>(lazy.keySet()));
+  }
+
+  @Test
+  void testAccess() throws IOException {
+    final CompoundBinaryTag lazy = BinaryTagIO.readLazyByteBuffer(BinaryTagIO.writeByteBuffer(bigTest));
+    assertEquals(Integer.MAX_VALUE, lazy.getInt("intTest"));
+    assertEquals(Short.MAX_VALUE, lazy.getShort("shortTest"));
+    assertEquals(0, lazy.getInt("stringTest"));
+    assertNull(lazy.get("missing"));
+    assertFalse(lazy.keySet().contains("missing"));
+    final CompoundBinaryTag nested = lazy.getCompound("nested compound test");
+    assertTrue(nested instanceof LazyCompoundBinaryTag);
+    assertEquals("Eggbert", nested.getCompound("egg").getString("name"));
+    assertEquals(bigTest.getList("listTest (compound)"), lazy.getList("listTest (compound)", BinaryTagTypes.COMPOUND));
+  }
+
+  @Test
+  void testWriteCopiesUntouchedSubtrees() throws IOException {
+    final ByteBuffer encoded = BinaryTagIO.writeByteBuffer(bigTest);
+    final CompoundBinaryTag lazy = BinaryTagIO.readLazyByteBuffer(encoded.duplicate());
+    assertEquals(encoded, BinaryTagIO.writeByteBuffer(lazy));
+
+    final CompoundBinaryTag modified = lazy.putInt("intTest", 4);
+    assertEquals(4, modified.getInt("intTest"));
+    assertEquals(Integer.MAX_VALUE, lazy.getInt("intTest"));
+    assertEquals(bigTest.putInt("intTest", 4), BinaryTagIO.readByteBuffer(BinaryTagIO.writeByteBuffer(modified)));
+    assertEquals(bigTest.remove("intTest"), lazy.remove("intTest"));
+    assertEquals(modified, lazy.edit(compound -> compound.putInt("intTest", 4)));
+  }
+
+  @Test
+  void testDirectBuffer() throws IOException {
+    final ByteBuffer encoded = BinaryTagIO.writeByteBuffer(bigTest);
+    final ByteBuffer direct = ByteBuffer.allocateDirect(encoded.remaining());
+    direct.put(encoded).flip();
+    final CompoundBinaryTag lazy = BinaryTagIO.readLazyByteBuffer(direct);
+    assertFalse(direct.hasRemaining());
+    assertEquals(bigTest, BinaryTagIO.readByteBuffer(BinaryTagIO.writeByteBuffer(lazy)));
+  }
+}
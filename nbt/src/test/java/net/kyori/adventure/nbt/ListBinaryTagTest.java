@@ -24,9 +24,15 @@
 package net.kyori.adventure.nbt;
 
 import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ListBinaryTagTest {
@@ -94,4 +100,57 @@ class ListBinaryTagTest {
     assertEquals(i1, l3.get(1));
     assertEquals(i2, l3.get(2));
   }
+
+  @Test
+  void testEdit() {
+    final IntBinaryTag i0 = IntBinaryTag.of(0);
+    final IntBinaryTag i1 = IntBinaryTag.of(1);
+    final IntBinaryTag i2 = IntBinaryTag.of(2);
+    final ListBinaryTag l0 = ListBinaryTag.empty();
+    final ListBinaryTag l2 = l0.edit(list -> list.add(i0).add(i1).add(i2).remove(0, removed -> assertEquals(i0, removed)));
+    assertEquals(BinaryTagTypes.INT, l2.listType());
+    assertEquals(ListBinaryTag.of(BinaryTagTypes.INT, ImmutableList.of(i1, i2)), l2);
+    assertEquals(0, l0.size());
+
+    assertSame(l2, l2.edit(list -> assertEquals(2, list.size())));
+    assertThrows(IllegalArgumentException.class, () -> l2.edit(list -> list.set(0, StringBinaryTag.of("a"), null)));
+  }
+
+  @Test
+  void testEditAfterFinish() {
+    final ListBinaryTag.Mutable[] escaped = new ListBinaryTag.Mutable[1];
+    ListBinaryTag.empty().edit(list -> escaped[0] = list);
+    assertThrows(IllegalStateException.class, () -> escaped[0].add(IntBinaryTag.of(1)));
+  }
+
+  @Test
+  void testNumericListMatchesBoxedList() {
+    final List<BinaryTag> tags = ImmutableList.of(DoubleBinaryTag.of(1.5), DoubleBinaryTag.of(-0.0), DoubleBinaryTag.of(Double.NaN));
+    final ListBinaryTag primitive = ListBinaryTag.of(BinaryTagTypes.DOUBLE, tags);
+    final ListBinaryTag boxed = ListBinaryTag.of(BinaryTagTypes.DOUBLE, new LinkedList<>(tags));
+    assertEquals(boxed, primitive);
+    assertEquals(primitive, boxed);
+    assertEquals(boxed.hashCode(), primitive.hashCode());
+    assertNotEquals(primitive, ListBinaryTag.of(BinaryTagTypes.DOUBLE, ImmutableList.of(DoubleBinaryTag.of(1.5), DoubleBinaryTag.of(0.0), DoubleBinaryTag.of(Double.NaN))));
+    assertEquals(tags.get(1), primitive.get(1));
+  }
+
+  @Test
+  void testNumericListAccessors() throws IOException {
+    final ListBinaryTag ints = ListBinaryTag.builder(BinaryTagTypes.INT).add(IntBinaryTag.of(1)).add(IntBinaryTag.of(300)).build();
+    assertEquals(300, ints.getInt(1));
+    assertEquals((byte) 300, ints.getByte(1));
+    assertEquals(300d, ints.getDouble(1));
+    assertArrayEquals(new int[]{1, 300}, ints.intStream().toArray());
+    assertArrayEquals(new double[]{1, 300}, ints.doubleStream().toArray());
+
+    final ListBinaryTag floats = ListBinaryTag.builder(BinaryTagTypes.FLOAT).add(FloatBinaryTag.of(2.75f)).build();
+    assertEquals(2, floats.getInt(0));
+    assertEquals(2.75f, floats.getFloat(0));
+
+    final CompoundBinaryTag tag = CompoundBinaryTag.empty().put("ints", ints).put("floats", floats).put("add", ints.add(IntBinaryTag.of(7)));
+    final CompoundBinaryTag read = BinaryTagIO.readByteBuffer(BinaryTagIO.writeByteBuffer(tag));
+    assertEquals(tag, read);
+    assertArrayEquals(new long[]{1, 300, 7}, read.getList("add").longStream().toArray());
+  }
 }
@@ -0,0 +1,90 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ModifiedUtf8Test {
+  private static final List<String> STRINGS = ImmutableList.of(
+    "",
+    "Count",
+    "minecraft:stone",
+    "nul\u0000in the middle",
+    "café",
+    "ÿĀ߿ࠀ￿",
+    "mixed ascii ☃ and 😀 emoji"
+  );
+
+  @Test
+  void testMatchesDataOutputStream() throws IOException {
+    for(final String string : STRINGS) {
+      final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+      new DataOutputStream(expected).writeUTF(string);
+
+      final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      ModifiedUtf8.write(new DataOutputStream(stream), string);
+      assertArrayEquals(expected.toByteArray(), stream.toByteArray());
+
+      final ByteBufferDataOutput buffer = new ByteBufferDataOutput();
+      ModifiedUtf8.write(buffer, string);
+      assertEquals(ByteBuffer.wrap(expected.toByteArray()), buffer.buffer().flip());
+      assertEquals(expected.size() - Short.BYTES, ModifiedUtf8.encodedLength(string));
+    }
+  }
+
+  @Test
+  void testMatchesDataInputStream() throws IOException {
+    for(final String string : STRINGS) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      new DataOutputStream(bytes).writeUTF(string);
+      assertEquals(string, ModifiedUtf8.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+      assertEquals(string, ModifiedUtf8.read(new ByteBufferDataInput(ByteBuffer.wrap(bytes.toByteArray()))));
+
+      final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.size());
+      direct.put(bytes.toByteArray()).flip();
+      assertEquals(string, ModifiedUtf8.read(new ByteBufferDataInput(direct)));
+    }
+  }
+
+  @Test
+  void testMalformedInput() {
+    final byte[] truncated = {0, 2, 'a', (byte) 0xe2};
+    assertThrows(UTFDataFormatException.class, () -> ModifiedUtf8.read(new ByteBufferDataInput(ByteBuffer.wrap(truncated))));
+    final byte[] invalid = {0, 2, (byte) 0xc3, 'a'};
+    assertThrows(UTFDataFormatException.class, () -> ModifiedUtf8.read(new ByteBufferDataInput(ByteBuffer.wrap(invalid))));
+  }
+}
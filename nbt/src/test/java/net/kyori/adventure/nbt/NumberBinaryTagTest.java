@@ -0,0 +1,67 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class NumberBinaryTagTest {
+  @Test
+  void testSmallValuesAreShared() {
+    for(int i = Byte.MIN_VALUE; i <= Byte.MAX_VALUE; i++) {
+      assertSame(ByteBinaryTag.of((byte) i), ByteBinaryTag.of((byte) i));
+    }
+    assertSame(ByteBinaryTag.ZERO, ByteBinaryTag.of((byte) 0));
+    assertSame(ShortBinaryTag.of((short) -128), ShortBinaryTag.of((short) -128));
+    assertSame(IntBinaryTag.of(64), IntBinaryTag.of(64));
+    assertSame(LongBinaryTag.of(1024), LongBinaryTag.of(1024));
+    assertSame(FloatBinaryTag.of(1f), FloatBinaryTag.of(1f));
+    assertSame(DoubleBinaryTag.of(20d), DoubleBinaryTag.of(20d));
+  }
+
+  @Test
+  void testCachedValues() {
+    for(int i = -200; i <= 1100; i++) {
+      assertEquals(i, IntBinaryTag.of(i).value());
+      assertEquals(i, LongBinaryTag.of(i).value());
+      assertEquals((short) i, ShortBinaryTag.of((short) i).value());
+      assertEquals(i, FloatBinaryTag.of(i).value());
+      assertEquals(i, DoubleBinaryTag.of(i).value());
+    }
+    assertEquals(0.5d, DoubleBinaryTag.of(0.5d).value());
+    assertEquals(Long.MIN_VALUE, LongBinaryTag.of(Long.MIN_VALUE).value());
+    assertEquals(1L << 32, LongBinaryTag.of(1L << 32).value());
+  }
+
+  @Test
+  void testNegativeZeroIsNotShared() {
+    assertEquals(Double.doubleToRawLongBits(-0d), Double.doubleToRawLongBits(DoubleBinaryTag.of(-0d).value()));
+    assertEquals(Float.floatToRawIntBits(-0f), Float.floatToRawIntBits(FloatBinaryTag.of(-0f).value()));
+    assertNotEquals(DoubleBinaryTag.of(0d), DoubleBinaryTag.of(-0d));
+    assertEquals(DoubleBinaryTag.of(Double.NaN), DoubleBinaryTag.of(Double.NaN));
+  }
+}
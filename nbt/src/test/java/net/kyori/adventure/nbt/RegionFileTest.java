@@ -0,0 +1,140 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionFileTest {
+  private static Path createFile() throws IOException {
+    final Path file = Files.createTempFile("region", ".mca");
+    file.toFile().deleteOnExit(); // mapped files cannot be deleted on some platforms until the mapping is collected
+    Files.delete(file);
+    return file;
+  }
+
+  private static CompoundBinaryTag chunk(final int x, final int z, final int size) {
+    final Random random = new Random(x * 31L + z);
+    final byte[] noise = new byte[size];
+    random.nextBytes(noise);
+    return CompoundBinaryTag.builder()
+      .putInt("xPos", x)
+      .putInt("zPos", z)
+      .putByteArray("noise", noise)
+      .build();
+  }
+
+  @Test
+  void testReadWrite() throws IOException {
+    final Path file = createFile();
+    try(final RegionFile region = RegionFile.open(file)) {
+      assertFalse(region.contains(0, 0));
+      assertNull(region.read(0, 0));
+      region.write(0, 0, chunk(0, 0, 100));
+      region.write(31, 31, chunk(31, 31, 10000));
+      region.write(-1, 5, chunk(-1, 5, 100)); // absolute coordinates wrap into the region
+      assertTrue(region.contains(0, 0));
+      assertTrue(region.contains(31, 5));
+      assertNotEquals(0, region.timestamp(31, 31));
+      assertEquals(chunk(31, 31, 10000), region.read(31, 31));
+    }
+    assertEquals(0, Files.size(file) % 4096);
+
+    try(final RegionFile region = RegionFile.open(file)) {
+      assertEquals(chunk(0, 0, 100), region.read(0, 0));
+      assertEquals(chunk(31, 31, 10000), region.read(31, 31));
+      assertEquals(chunk(-1, 5, 100), region.read(31, 5));
+      assertNull(region.read(1, 0));
+    }
+  }
+
+  @Test
+  void testSectorsAreReused() throws IOException {
+    final Path file = createFile();
+    try(final RegionFile region = RegionFile.open(file)) {
+      region.write(0, 0, chunk(0, 0, 20000));
+      region.write(1, 0, chunk(1, 0, 100));
+      final long size = Files.size(file);
+
+      region.remove(0, 0);
+      assertFalse(region.contains(0, 0));
+      region.write(2, 0, chunk(2, 0, 10000));
+      region.write(1, 0, chunk(1, 0, 5000));
+      assertEquals(size, Files.size(file));
+
+      assertNull(region.read(0, 0));
+      assertEquals(chunk(1, 0, 5000), region.read(1, 0));
+      assertEquals(chunk(2, 0, 10000), region.read(2, 0));
+    }
+  }
+
+  @Test
+  void testRewriteKeepsOldSectorsUntilWritten() throws IOException {
+    final Path file = createFile();
+    try(final RegionFile region = RegionFile.open(file)) {
+      region.write(0, 0, chunk(0, 0, 10000));
+      final long size = Files.size(file);
+      // the new copy cannot be written over the old one, so it goes after it
+      region.write(0, 0, chunk(0, 0, 10001));
+      final long grown = Files.size(file);
+      assertTrue(grown > size);
+      // the old sectors are free once the new copy is written
+      region.write(1, 0, chunk(1, 0, 10000));
+      assertEquals(grown, Files.size(file));
+
+      assertEquals(chunk(0, 0, 10001), region.read(0, 0));
+      assertEquals(chunk(1, 0, 10000), region.read(1, 0));
+    }
+  }
+
+  @Test
+  void testCompact() throws IOException {
+    final Path file = createFile();
+    try(final RegionFile region = RegionFile.open(file)) {
+      for(int i = 0; i < 8; i++) {
+        region.write(i, i, chunk(i, i, 5000 * (i + 1)));
+      }
+      for(int i = 0; i < 8; i += 2) {
+        region.remove(i, i);
+      }
+      final long size = Files.size(file);
+      region.compact();
+      assertTrue(Files.size(file) < size);
+      for(int i = 1; i < 8; i += 2) {
+        assertEquals(chunk(i, i, 5000 * (i + 1)), region.read(i, i));
+      }
+      region.write(0, 0, chunk(0, 0, 100));
+      assertEquals(chunk(0, 0, 100), region.read(0, 0));
+    }
+  }
+}
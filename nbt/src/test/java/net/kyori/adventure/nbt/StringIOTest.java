@@ -25,13 +25,24 @@ package net.kyori.adventure.nbt;
 
 import com.google.common.io.Resources;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -100,6 +111,33 @@ class StringIOTest {
 
   }
 
+  @Test
+  void testPrettyPrintListBreaking() throws IOException {
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .put("ints", ListBinaryTag.builder().add(IntBinaryTag.of(1)).add(IntBinaryTag.of(-2)).build())
+      .put("nested", ListBinaryTag.builder().add(CompoundBinaryTag.builder().putString("a", "b c").build()).build())
+      .build();
+    final String nl = Tokens.NEWLINE;
+
+    assertEquals("{" + nl + "\tints: [1, -2]," + nl + "\tnested: [" + nl + "\t\t{" + nl + "\t\t\ta: \"b c\"" + nl + "\t\t}" + nl + "\t]" + nl + "}",
+      TagStringIO.builder().indentTab(1).build().asString(tag));
+    assertEquals("{" + nl + " ints: [" + nl + "  1," + nl + "  -2" + nl + " ]," + nl + " nested: [" + nl + "  {" + nl + "   a: \"b c\"" + nl + "  }" + nl + " ]" + nl + "}",
+      TagStringIO.builder().indent(1).listBreaking(TagStringIO.ListBreaking.always()).build().asString(tag));
+    assertEquals("{" + nl + " ints: [1, -2]," + nl + " nested: [{" + nl + "   a: \"b c\"" + nl + "  }]" + nl + "}",
+      TagStringIO.builder().indent(1).listBreaking(TagStringIO.ListBreaking.never()).build().asString(tag));
+
+    // writing to a Writer gives the same output
+    final TagStringIO io = TagStringIO.builder().indent(3).build();
+    final StringWriter writer = new StringWriter();
+    io.toWriter(tag, writer);
+    assertEquals(io.asString(tag), writer.toString());
+
+    // as does appending to any Appendable
+    final StringBuilder builder = new StringBuilder("tag = ");
+    io.toWriter(tag, builder);
+    assertEquals("tag = " + io.asString(tag), builder.toString());
+  }
+
   @Test
   void testStringTag() throws IOException {
     final StringBinaryTag basic = StringBinaryTag.of("hello");
@@ -119,6 +157,10 @@ class StringIOTest {
 
     // something vaguely like a number
     assertEquals(StringBinaryTag.of("1.33.28d"), this.stringToTag("1.33.28d"));
+
+    final StringBinaryTag manyEscapes = StringBinaryTag.of("\"a\\\"b\"");
+    assertEquals("\"\\\"a\\\\\\\"b\\\"\"", this.tagToString(manyEscapes));
+    assertEquals(manyEscapes, this.stringToTag(this.tagToString(manyEscapes)));
   }
 
   private static final String UNICODE_TEST = "test ä ö";
@@ -133,6 +175,7 @@ class StringIOTest {
   void testByteTag() throws IOException {
     assertEquals("0b", this.tagToString(ByteBinaryTag.of((byte) 0)));
     assertEquals("112b", this.tagToString(ByteBinaryTag.of((byte) 112)));
+    assertEquals("-128b", this.tagToString(ByteBinaryTag.of(Byte.MIN_VALUE)));
 
     assertEquals(ByteBinaryTag.of((byte) 12), this.stringToTag("12b"));
     assertEquals(ByteBinaryTag.of((byte) 13), this.stringToTag("13B"));
@@ -153,6 +196,9 @@ class StringIOTest {
 
     assertEquals(IntBinaryTag.of(4482828), this.stringToTag("4482828"));
     assertEquals(IntBinaryTag.of(-24), this.stringToTag("-24"));
+    assertEquals(IntBinaryTag.of(Integer.MIN_VALUE), this.stringToTag("-2147483648"));
+    // out of range, so read as a double instead
+    assertEquals(DoubleBinaryTag.of(2147483648d), this.stringToTag("2147483648"));
   }
 
   @Test
@@ -165,9 +211,13 @@ class StringIOTest {
   void testLongTag() throws IOException {
     assertEquals("28292849L", this.tagToString(LongBinaryTag.of(28292849L)));
     assertEquals("-28292849L", this.tagToString(LongBinaryTag.of(-28292849L)));
+    assertEquals("-9223372036854775808L", this.tagToString(LongBinaryTag.of(Long.MIN_VALUE)));
 
     assertEquals(LongBinaryTag.of(42L), this.stringToTag("42l"));
     assertEquals(LongBinaryTag.of(938L), this.stringToTag("+938L"));
+    assertEquals(LongBinaryTag.of(Long.MAX_VALUE), this.stringToTag("9223372036854775807L"));
+    assertEquals(LongBinaryTag.of(Long.MIN_VALUE), this.stringToTag("-9223372036854775808L"));
+    assertEquals(StringBinaryTag.of("9223372036854775808L"), this.stringToTag("9223372036854775808L"));
   }
 
   @Test
@@ -189,6 +239,9 @@ class StringIOTest {
     assertEquals(DoubleBinaryTag.of(4.3e-4d), this.stringToTag("4.3e-4d"));
     assertEquals(DoubleBinaryTag.of(-4.3e-4d), this.stringToTag("-4.3e-4D"));
     assertEquals(DoubleBinaryTag.of(4.3e-4d), this.stringToTag("+4.3e-4D"));
+    assertEquals(DoubleBinaryTag.of(0.1234567890123456789d), this.stringToTag("0.1234567890123456789d"));
+    assertEquals(DoubleBinaryTag.of(1.5e300d), this.stringToTag("1.5e300d"));
+    assertEquals(DoubleBinaryTag.of(Double.NaN), this.stringToTag("NaNd"));
   }
 
   @Test
@@ -203,6 +256,14 @@ class StringIOTest {
   void testByteArrayTag() throws IOException {
     assertEquals("[B;1B,2B,3B]", this.tagToString(ByteArrayBinaryTag.of((byte) 1, (byte) 2, (byte) 3)));
     assertEquals(ByteArrayBinaryTag.of((byte) 1, (byte) 1, (byte) 2, (byte) 3, (byte) 5, (byte) 8), this.stringToTag("[B; 1b, 1b, 2b, 3b, 5b, 8b]"));
+
+    final byte[] large = new byte[100];
+    final StringBuilder input = new StringBuilder("[B;");
+    for(int i = 0; i < large.length; i++) {
+      large[i] = (byte) (i * 3);
+      input.append(i == 0 ? "" : ",").append(large[i]).append('b');
+    }
+    assertEquals(ByteArrayBinaryTag.of(large), this.stringToTag(input.append(']').toString()));
   }
 
   @Test
@@ -276,6 +337,111 @@ class StringIOTest {
     assertEquals(LongArrayBinaryTag.of(), this.stringToTag("[L; ]"));
   }
 
+  @Test
+  void testFromReader() throws IOException {
+    final CompoundBinaryTag bigTest;
+    try(final InputStream is = this.getClass().getResourceAsStream("/bigtest.nbt")) {
+      bigTest = BinaryTagIO.readCompressedInputStream(is);
+    }
+    final String written = TagStringIO.get().asString(bigTest);
+    assertEquals(bigTest, TagStringIO.get().fromReader(new TrickleReader(written)));
+
+    // values much larger than a single read
+    final char[] chars = new char[20000];
+    Arrays.fill(chars, 'a');
+    final String large = new String(chars);
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .putString("unquoted", large)
+      .putString("quoted", large + " b")
+      .build();
+    assertEquals(tag, TagStringIO.get().fromReader(new StringReader("{unquoted:" + large + ",quoted:\"" + large + " b\"}")));
+
+    assertThrows(IOException.class, () -> TagStringIO.get().fromReader(new StringReader("{a:1} {b:2}")));
+  }
+
+  @Test
+  void testStreamFromReader() throws IOException {
+    final CompoundBinaryTag first = CompoundBinaryTag.builder().putInt("a", 1).build();
+    final CompoundBinaryTag second = CompoundBinaryTag.builder().putString("b", "two").build();
+    final List<CompoundBinaryTag> tags = TagStringIO.get().streamFromReader(new TrickleReader("{a:1}\n{b:\"two\"}{a:1}\n")).collect(Collectors.toList());
+    assertEquals(Arrays.asList(first, second, first), tags);
+
+    assertEquals(0, TagStringIO.get().streamFromReader(new StringReader("  \n")).count());
+    assertThrows(UncheckedIOException.class, () -> TagStringIO.get().streamFromReader(new StringReader("{a:1} [1]")).count());
+  }
+
+  @Test
+  void testTranscodeToString() throws IOException {
+    final CompoundBinaryTag bigTest;
+    try(final InputStream is = this.getClass().getResourceAsStream("/bigtest.nbt")) {
+      bigTest = BinaryTagIO.readCompressedInputStream(is);
+    }
+    this.assertTranscodesToString(TagStringIO.get(), bigTest);
+    this.assertTranscodesToString(TagStringIO.builder().indent(4).build(), bigTest);
+    // legacy output cannot contain byte arrays
+    this.assertTranscodesToString(TagStringIO.builder().emitLegacy(true).build(), bigTest.remove("byteArrayTest (the first 1000 values of (n*n*255+n*7)%100, starting with n=0 (0, 62, 34, 16, 8, ...))"));
+  }
+
+  private void assertTranscodesToString(final TagStringIO io, final CompoundBinaryTag tag) throws IOException {
+    final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+    BinaryTagIO.writeOutputStream(tag, binary);
+    assertEquals(io.asString(tag), io.transcodeToString(new DataInputStream(new ByteArrayInputStream(binary.toByteArray()))));
+    final StringBuilder builder = new StringBuilder("tag = ");
+    io.transcodeToWriter(new DataInputStream(new ByteArrayInputStream(binary.toByteArray())), builder);
+    assertEquals("tag = " + io.asString(tag), builder.toString());
+  }
+
+  @Test
+  void testTranscodeFromString() throws IOException {
+    final CompoundBinaryTag bigTest;
+    try(final InputStream is = this.getClass().getResourceAsStream("/bigtest.nbt")) {
+      bigTest = BinaryTagIO.readCompressedInputStream(is);
+    }
+    final String written = TagStringIO.builder().indent(2).build().asString(bigTest);
+    final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+    TagStringIO.get().transcodeFromString(written, new DataOutputStream(binary));
+    assertEquals(bigTest, BinaryTagIO.readInputStream(new ByteArrayInputStream(binary.toByteArray())));
+
+    final ByteArrayOutputStream fromReader = new ByteArrayOutputStream();
+    TagStringIO.get().transcodeFromReader(new TrickleReader(written), new DataOutputStream(fromReader));
+    assertArrayEquals(binary.toByteArray(), fromReader.toByteArray());
+
+    final ByteArrayOutputStream legacy = new ByteArrayOutputStream();
+    TagStringIO.get().transcodeFromString("{list:[0:\"Tag #1\",1:\"Tag #2\"],empty:[],nested:[[1b],[]]}", new DataOutputStream(legacy));
+    assertEquals(CompoundBinaryTag.builder()
+      .put("list", ListBinaryTag.builder().add(StringBinaryTag.of("Tag #1")).add(StringBinaryTag.of("Tag #2")).build())
+      .put("empty", ListBinaryTag.empty())
+      .put("nested", ListBinaryTag.builder().add(ListBinaryTag.builder().add(ByteBinaryTag.of((byte) 1)).build()).add(ListBinaryTag.empty()).build())
+      .build(), BinaryTagIO.readInputStream(new ByteArrayInputStream(legacy.toByteArray())));
+
+    assertThrows(IOException.class, () -> TagStringIO.get().transcodeFromString("{list:[1b,2s]}", new DataOutputStream(new ByteArrayOutputStream())));
+  }
+
+  /**
+   * A reader which only provides a few characters at a time.
+   */
+  static final class TrickleReader extends Reader {
+    private final String input;
+    private int index;
+
+    TrickleReader(final String input) {
+      this.input = input;
+    }
+
+    @Override
+    public int read(final char[] buffer, final int offset, final int length) {
+      if(this.index == this.input.length()) return -1;
+      final int count = Math.min(Math.min(length, 3), this.input.length() - this.index);
+      this.input.getChars(this.index, this.index + count, buffer, offset);
+      this.index += count;
+      return count;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
   private String tagToString(final BinaryTag tag) throws IOException {
     final StringWriter writer = new StringWriter();
     try(final TagStringWriter emitter = new TagStringWriter(writer, "")) {
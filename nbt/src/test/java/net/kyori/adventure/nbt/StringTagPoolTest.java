@@ -0,0 +1,105 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2020 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StringTagPoolTest {
+  private static final String LONG_VALUE = "a value which is far too long to be kept in a pool of short string tags";
+  private static final CompoundBinaryTag TAG = CompoundBinaryTag.builder()
+    .putString("id", "minecraft:stone")
+    .putString("name", "café")
+    .putString("description", LONG_VALUE)
+    .put("lore", ListBinaryTag.builder(BinaryTagTypes.STRING)
+      .add(StringBinaryTag.of("minecraft:stone"))
+      .build())
+    .build();
+
+  @Test
+  void testInvalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> StringTagPool.create(0));
+  }
+
+  @Test
+  void testOf() {
+    final StringTagPool strings = StringTagPool.create(16);
+    final StringBinaryTag tag = strings.of("minecraft:stone");
+    assertEquals(StringBinaryTag.of("minecraft:stone"), tag);
+    assertSame(tag, strings.of(new String("minecraft:stone")));
+    assertSame(strings.of("café"), strings.of("café"));
+    assertNotSame(strings.of(LONG_VALUE), strings.of(LONG_VALUE));
+  }
+
+  @Test
+  void testReadByteBufferSharesTags() throws IOException {
+    final StringTagPool strings = StringTagPool.create(16);
+    final ByteBuffer buffer = BinaryTagIO.writeByteBuffer(TAG);
+    final CompoundBinaryTag first = BinaryTagIO.readByteBuffer(buffer.duplicate(), null, strings);
+    final CompoundBinaryTag second = BinaryTagIO.readByteBuffer(buffer.duplicate(), null, strings);
+    assertEquals(TAG, first);
+    assertEquals(TAG, second);
+    assertSame(first.get("id"), second.get("id"));
+    assertSame(first.get("id"), first.getList("lore").get(0));
+    assertSame(first.get("name"), second.get("name"));
+    assertNotSame(first.get("description"), second.get("description"));
+    assertSame(strings.of("minecraft:stone"), first.get("id"));
+
+    final ByteBuffer direct = BinaryTagIO.writeByteBuffer(TAG, ByteBuffer.allocateDirect(16));
+    direct.flip();
+    assertSame(first.get("id"), BinaryTagIO.readByteBuffer(direct, CompoundKeyTable.create(16), strings).get("id"));
+  }
+
+  @Test
+  void testReadDataInputSharesTags() throws IOException {
+    final StringTagPool strings = StringTagPool.create(16);
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    BinaryTagIO.writeOutputStream(TAG, output);
+    final CompoundBinaryTag first = BinaryTagIO.readDataInput(new DataInputStream(new ByteArrayInputStream(output.toByteArray())), null, strings);
+    final CompoundBinaryTag second = BinaryTagIO.readInputStream(new ByteArrayInputStream(output.toByteArray()), null, strings);
+    assertEquals(TAG, first);
+    assertEquals(TAG, second);
+    assertSame(first.get("id"), second.get("id"));
+  }
+
+  @Test
+  void testTagStringIOSharesTags() throws IOException {
+    final StringTagPool strings = StringTagPool.create(16);
+    final TagStringIO io = TagStringIO.builder().stringPool(strings).build();
+    final CompoundBinaryTag first = io.asCompound("{id:\"minecraft:stone\",count:stone}");
+    final CompoundBinaryTag second = io.asCompound("{id:'minecraft:stone',count:stone}");
+    assertSame(first.get("id"), second.get("id"));
+    assertSame(first.get("count"), second.get("count"));
+    assertNotSame(first.get("id"), TagStringIO.get().asCompound("{id:\"minecraft:stone\"}").get("id"));
+  }
+}